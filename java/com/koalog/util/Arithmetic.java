@@ -261,4 +261,57 @@ public class Arithmetic {
         }
         return max;
     }
+
+    /**
+     * Returns the number of bits needed to represent 
+     * a non negative integer (0 for 0).
+     * @param a a non negative integer
+     * @return an integer between 0 and 31
+     */
+    public static int bitLength(int a) {
+        int n = 0;
+        if (a >= 1<<16) {
+            a >>>= 16;
+            n += 16;
+        }
+        if (a >= 1<<8) {
+            a >>>= 8;
+            n += 8;
+        }
+        if (a >= 1<<4) {
+            a >>>= 4;
+            n += 4;
+        }
+        if (a >= 1<<2) {
+            a >>>= 2;
+            n += 2;
+        }
+        if (a >= 1<<1) {
+            a >>>= 1;
+            n += 1;
+        }
+        return n + a;
+    }
+
+    /**
+     * Returns the number of one bits of a long (population count).
+     * @param a a long
+     * @return an integer between 0 and 64
+     */
+    public static int bitCount(long a) {
+        a = a - ((a >>> 1) & 0x5555555555555555L);
+        a = (a & 0x3333333333333333L) + ((a >>> 2) & 0x3333333333333333L);
+        a = (a + (a >>> 4)) & 0x0f0f0f0f0f0f0f0fL;
+        return (int) ((a * 0x0101010101010101L) >>> 56);
+    }
+
+    /**
+     * Returns the number of zero bits following the lowest one bit 
+     * of a long.
+     * @param a a long
+     * @return an integer between 0 and 64 (64 for 0)
+     */
+    public static int numberOfTrailingZeros(long a) {
+        return bitCount((a & -a) - 1);
+    }
 }
@@ -61,6 +61,35 @@ public class ArithmeticTest extends TestCase {
 
     }
 
+    /**
+     * Tests the bitLength method.
+     */
+    public void testBitLength() {
+        cat.info("testBitLength");
+        assertTrue(Arithmetic.bitLength(0) == 0);
+        assertTrue(Arithmetic.bitLength(1) == 1);
+        assertTrue(Arithmetic.bitLength(2) == 2);
+        assertTrue(Arithmetic.bitLength(3) == 2);
+        assertTrue(Arithmetic.bitLength(255) == 8);
+        assertTrue(Arithmetic.bitLength(256) == 9);
+        assertTrue(Arithmetic.bitLength(Integer.MAX_VALUE) == 31);
+    }
+
+    /**
+     * Tests bitCount and numberOfTrailingZeros.
+     */
+    public void testBitCount() {
+        cat.info("testBitCount");
+        assertTrue(Arithmetic.bitCount(0L) == 0);
+        assertTrue(Arithmetic.bitCount(-1L) == 64);
+        assertTrue(Arithmetic.bitCount(0x8000000000000001L) == 2);
+        assertTrue(Arithmetic.bitCount(255L) == 8);
+        assertTrue(Arithmetic.numberOfTrailingZeros(0L) == 64);
+        assertTrue(Arithmetic.numberOfTrailingZeros(1L) == 0);
+        assertTrue(Arithmetic.numberOfTrailingZeros(12L) == 2);
+        assertTrue(Arithmetic.numberOfTrailingZeros(Long.MIN_VALUE) == 63);
+    }
+
     //------------------------------------------------------------------------
     // STATIC PROPERTIES
     //------------------------------------------------------------------------
@@ -1,5 +1,7 @@
 package com.koalog.util.graph;
 
+import com.koalog.util.heap.Heap;
+
 import java.util.List;
 import java.util.Arrays;
 import org.apache.log4j.Category;
@@ -37,10 +39,44 @@ public abstract class AbstractDijkstra {
     protected Node start;
     /** The destination. */
     protected Node end;
+    /** The factory of queues, null for the default (binary heap) queue. */
+    protected DijkstraQueueFactory queueFactory;
     
+    //------------------------------------------------------------------------
+    // ACCESSORS
+    //------------------------------------------------------------------------
+    /**
+     * Sets the factory of the queues used to order the nodes.
+     * @param queueFactory a factory, null for the default queue 
+     * (a <CODE>DijkstraHeap</CODE>)
+     */
+    public final void setQueueFactory(DijkstraQueueFactory queueFactory) {
+        this.queueFactory = queueFactory;
+    }
+
+    /**
+     * Returns the factory of the queues used to order the nodes.
+     * @return a factory, null for the default queue
+     */
+    public final DijkstraQueueFactory getQueueFactory() {
+        return queueFactory;
+    }
+
     //------------------------------------------------------------------------
     // METHODS
     //------------------------------------------------------------------------
+    /**
+     * Creates the queue used to order the nodes.
+     * @return a queue
+     */
+    protected DijkstraQueue createQueue() {
+        if (queueFactory == null) {
+            return new DijkstraHeap(distance, graph);
+        } else {
+            return queueFactory.createQueue(distance, graph);
+        }
+    }
+
     /**
      * Resets the computations.
      * @param src the index of the origin
@@ -69,26 +105,27 @@ public abstract class AbstractDijkstra {
      */
     public void computeOptimalPaths(int src, int dst) { 
         reset(src, dst);
-        DijkstraHeap h = new DijkstraHeap(distance, graph);
+        DijkstraQueue h = createQueue();
         // the set of nodes to visit
-        for (int i=0; i<graph.getNodesNb(); i++) {
-            h.add(graph.getNode(i));
-        }
+        h.buildFrom(graph.getNodes());
         int nodeNb = 0;
         Node cn;
-        while ((cn = (Node) h.pop()) != end) {
+        while ((cn = (Node) h.pop()) != end && cn != null) {
             nodeNb++;
             checkNode(h, cn);
         }
         cat.debug("exiting loop: " + nodeNb + " nodes checked");
+        if (h instanceof Heap && ((Heap) h).getStats() != null) {
+            cat.debug("heap: " + ((Heap) h).getStats());
+        }
     }
 
     /**
      * Checks a node.
-     * @param heap a dijkstra heap
+     * @param heap a dijkstra queue
      * @param node a node
      */
-    protected void checkNode(DijkstraHeap heap, Node node) {
+    protected void checkNode(DijkstraQueue heap, Node node) {
         NEdge[] edges = node.getEdges();
         for (int j=0; j<edges.length; j++) {
             checkEdge(edges[j], heap, node.getIndex());
@@ -101,11 +138,11 @@ public abstract class AbstractDijkstra {
     /**
      * Checks an edge.
      * @param edge an edge
-     * @param heap a dijkstra heap
+     * @param heap a dijkstra queue
      * @param index a node index
      */
     protected abstract void checkEdge(NEdge edge, 
-                                      DijkstraHeap heap, 
+                                      DijkstraQueue heap, 
                                       int index);
 
     /**
@@ -0,0 +1,606 @@
+package com.koalog.util.graph;
+
+import org.apache.log4j.Category;
+
+/**
+ * A minimum cost assignment engine (auction algorithm),
+ * whose bids are computed by several threads.
+ *
+ * <P>The rows bid for the columns:
+ * each free row bids for its best column
+ * (the one minimizing its cost plus its price),
+ * raising its price by the difference with the second best column
+ * plus <CODE>eps</CODE>.
+ * The bids of a round are computed in parallel (Jacobi auction),
+ * then each column is assigned to its highest bidder.
+ * The assignment is optimal when <CODE>eps</CODE>
+ * is small enough: the costs are multiplied by n+1,
+ * so that the final value of <CODE>eps</CODE> is 1,
+ * and <CODE>eps</CODE> is decreased geometrically (eps-scaling).</P>
+ *
+ * <P>When the matrix is not square,
+ * it is completed by null costs (virtual rows or columns).
+ * The prices are kept between calls:
+ * when the costs have changed a little,
+ * the <CODE>resolve</CODE> methods start from the previous assignment
+ * (the pairs which remain almost optimal)
+ * with the final value of <CODE>eps</CODE>.
+ * All the buffers are allocated once for a given size.</P>
+ *
+ * <P>The worker threads (daemon threads) are started 
+ * by the first computation and kept for the next ones, 
+ * until <CODE>dispose</CODE> is called. 
+ * A failure (or an interruption) of a worker is thrown 
+ * by the computation (it is logged if it occurs between computations), 
+ * and the workers are then replaced.</P>
+ * @author Yan Georget
+ */
+public class Auction {
+    //------------------------------------------------------------------------
+    // STATIC PROPERTIES
+    //------------------------------------------------------------------------
+    private static Category cat = Category.getInstance(Auction.class);
+    /** The factor by which eps is decreased. */
+    private static final int SCALING = 4;
+
+    //------------------------------------------------------------------------
+    // PROPERTIES
+    //------------------------------------------------------------------------
+    private int threads;
+    /** The number of rows and columns. */
+    private int rows;
+    private int cols;
+    /** The size of the (square) completed matrix. */
+    private int size;
+    /** The benefits: the opposite of the costs, multiplied by size+1. */
+    private long[][] b;
+    private long[] price;
+    /** The column assigned to each row, -1 if none. */
+    private int[] assign;
+    /** The row assigned to each column, -1 if none. */
+    private int[] owner;
+    /** The free rows, bidding in the current round. */
+    private int[] bidders;
+    private int biddersNb;
+    private int[] next;
+    /** The column and the bid of each bidder. */
+    private int[] target;
+    private long[] bid;
+    /** The highest bid and bidder of each column in the current round. */
+    private long[] high;
+    private int[] winner;
+    private int[] stamp;
+    private int[] touched;
+    /** The assignment of the real rows. */
+    private int[] assignment;
+    private long eps;
+    private int rounds;
+    /** The workers (null if they are not started). */
+    private Worker[] workers;
+    /** The synchronization of the workers. */
+    private int generation;
+    private int pending;
+    private boolean stopped;
+    /** True iff a worker has failed (the workers must be replaced). */
+    private boolean broken;
+    private Throwable failure;
+
+    //------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //------------------------------------------------------------------------
+    /**
+     * Constructs an engine.
+     * @param threads the number of threads computing the bids
+     */
+    public Auction(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Auxilliary constructor (a single thread).
+     */
+    public Auction() {
+        this(1);
+    }
+
+    //------------------------------------------------------------------------
+    // ACCESSORS
+    //------------------------------------------------------------------------
+    /**
+     * Returns the assignment:
+     * the column assigned to each row, -1 if none.
+     * @return an array of integers
+     */
+    public final int[] getAssignment() {
+        return assignment;
+    }
+
+    /**
+     * Returns the number of rounds of bids performed so far.
+     * @return an integer
+     */
+    public final int getRounds() {
+        return rounds;
+    }
+
+    /**
+     * Returns the number of threads.
+     * @return an integer
+     */
+    public final int getThreads() {
+        return threads;
+    }
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /**
+     * Computes a minimum cost assignment.
+     * @param cost a matrix of costs
+     * @return the cost of the assignment
+     */
+    public final long solve(int[][] cost) {
+        return solve(cost, false);
+    }
+
+    /**
+     * Computes a minimum cost assignment,
+     * starting from the previous one (same dimensions).
+     * @param cost a matrix of costs
+     * @return the cost of the assignment
+     */
+    public final long resolve(int[][] cost) {
+        return solve(cost, true);
+    }
+
+    /**
+     * Computes a minimum cost matching of a bipartite graph
+     * (see <CODE>Hungarian.solve</CODE>).
+     * @param graph a bipartite graph
+     * @param firstEnd the first index of end nodes
+     * @param cost the costs of the edges:
+     * <CODE>cost[u][v-firstEnd]</CODE> is the cost of the edge (u,v)
+     * @return the cost of the matching
+     */
+    public final long solve(Graph graph, int firstEnd, int[][] cost) {
+        return solve(graph, firstEnd, cost, false);
+    }
+
+    /**
+     * Computes a minimum cost matching of a bipartite graph,
+     * starting from the previous one (same graph size).
+     * @param graph a bipartite graph
+     * @param firstEnd the first index of end nodes
+     * @param cost the costs of the edges
+     * @return the cost of the matching
+     */
+    public final long resolve(Graph graph, int firstEnd, int[][] cost) {
+        return solve(graph, firstEnd, cost, true);
+    }
+
+    private final long solve(int[][] cost, boolean warm) {
+        final int r = cost.length;
+        warm = init(r, r == 0 ? 0 : cost[0].length, warm);
+        final long scale = size + 1;
+        for (int i=0; i<rows; i++) {
+            final int[] c = cost[i];
+            final long[] bi = b[i];
+            for (int j=0; j<cols; j++) {
+                bi[j] = -(long) c[j] * scale;
+            }
+        }
+        run(warm);
+        long total = 0;
+        for (int i=0; i<rows; i++) {
+            final int j = assignment[i];
+            if (j != -1) {
+                total += cost[i][j];
+            }
+        }
+        return total;
+    }
+
+    private final long solve(Graph graph,
+                             int firstEnd,
+                             int[][] cost,
+                             boolean warm) {
+        warm = init(firstEnd, graph.getNodesNb() - firstEnd, warm);
+        // a non edge costs more than any matching of the same size
+        long max = 0;
+        final IntEdgeCursor c = graph.edgeCursor();
+        for (int i=0; i<rows; i++) {
+            for (c.reset(i); c.hasNext();) {
+                final long w = Math.abs((long) cost[i][c.next() - firstEnd]);
+                if (w > max) {
+                    max = w;
+                }
+            }
+        }
+        final long scale = size + 1;
+        final long forbidden = -(2 * size * max + 1) * scale;
+        for (int i=0; i<rows; i++) {
+            final long[] bi = b[i];
+            for (int j=0; j<cols; j++) {
+                bi[j] = forbidden;
+            }
+            for (c.reset(i); c.hasNext();) {
+                final int j = c.next() - firstEnd;
+                bi[j] = -(long) cost[i][j] * scale;
+            }
+        }
+        run(warm);
+        long total = 0;
+        for (int i=0; i<rows; i++) {
+            final int j = assignment[i];
+            if (j != -1) {
+                if (b[i][j] == forbidden) {
+                    assignment[i] = -1;
+                } else {
+                    total += cost[i][j];
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Allocates the buffers if necessary.
+     * @return true iff the previous assignment can be used
+     */
+    private final boolean init(int rows, int cols, boolean warm) {
+        if (b != null && rows == this.rows && cols == this.cols) {
+            return warm;
+        }
+        this.rows = rows;
+        this.cols = cols;
+        size = Math.max(rows, cols);
+        b = new long[size][size];
+        price = new long[size];
+        assign = new int[size];
+        owner = new int[size];
+        bidders = new int[size];
+        next = new int[size];
+        target = new int[size];
+        bid = new long[size];
+        high = new long[size];
+        winner = new int[size];
+        stamp = new int[size];
+        touched = new int[size];
+        assignment = new int[rows];
+        return false;
+    }
+
+    /**
+     * Computes the assignment on the completed matrix.
+     */
+    private final void run(boolean warm) {
+        final int n = size;
+        long min = 0;
+        long max = 0;
+        for (int i=0; i<n; i++) {
+            final long[] bi = b[i];
+            for (int j=0; j<n; j++) {
+                if (bi[j] < min) {
+                    min = bi[j];
+                } else if (bi[j] > max) {
+                    max = bi[j];
+                }
+            }
+        }
+        if (threads > 1) {
+            startWorkers();
+        }
+        if (warm) {
+            phase(1, true);
+        } else {
+            for (int j=0; j<n; j++) {
+                price[j] = 0;
+            }
+            long e = Math.max(1, (max - min) / SCALING);
+            while (true) {
+                phase(e, false);
+                if (e == 1) {
+                    break;
+                }
+                e = Math.max(1, e / SCALING);
+            }
+        }
+        for (int i=0; i<rows; i++) {
+            assignment[i] = assign[i] < cols ? assign[i] : -1;
+        }
+    }
+
+    /**
+     * Performs an auction with a given eps,
+     * until every row is assigned.
+     * @param e eps
+     * @param warm true iff the almost optimal pairs are kept
+     */
+    private final void phase(long e, boolean warm) {
+        final int n = size;
+        eps = e;
+        biddersNb = 0;
+        if (warm) {
+            for (int i=0; i<n; i++) {
+                final int j = assign[i];
+                if (j != -1 && b[i][j] - price[j] < best(i) - e) {
+                    assign[i] = -1;
+                    owner[j] = -1;
+                }
+                if (assign[i] == -1) {
+                    bidders[biddersNb++] = i;
+                }
+            }
+        } else {
+            for (int i=0; i<n; i++) {
+                assign[i] = -1;
+                owner[i] = -1;
+                bidders[biddersNb++] = i;
+            }
+        }
+        while (biddersNb > 0) {
+            rounds++;
+            if (threads == 1) {
+                bid(0);
+            } else {
+                startBids();
+                try {
+                    bid(0);
+                } finally {
+                    awaitBids();
+                }
+            }
+            int touchedNb = 0;
+            for (int k=0; k<biddersNb; k++) {
+                final int i = bidders[k];
+                final int j = target[i];
+                if (stamp[j] != rounds) {
+                    stamp[j] = rounds;
+                    high[j] = bid[i];
+                    winner[j] = i;
+                    touched[touchedNb++] = j;
+                } else if (bid[i] > high[j]) {
+                    high[j] = bid[i];
+                    winner[j] = i;
+                }
+            }
+            int nextNb = 0;
+            for (int k=0; k<touchedNb; k++) {
+                final int j = touched[k];
+                final int prev = owner[j];
+                if (prev != -1) {
+                    assign[prev] = -1;
+                    next[nextNb++] = prev;
+                }
+                final int w = winner[j];
+                owner[j] = w;
+                assign[w] = j;
+                price[j] = high[j];
+            }
+            for (int k=0; k<biddersNb; k++) {
+                final int i = bidders[k];
+                if (assign[i] == -1) {
+                    next[nextNb++] = i;
+                }
+            }
+            final int[] tmp = bidders;
+            bidders = next;
+            next = tmp;
+            biddersNb = nextNb;
+        }
+    }
+
+    /**
+     * Returns the best value (benefit minus price) of a row.
+     */
+    private final long best(int i) {
+        final long[] bi = b[i];
+        long w = Long.MIN_VALUE;
+        for (int j=size; --j>=0;) {
+            final long x = bi[j] - price[j];
+            if (x > w) {
+                w = x;
+            }
+        }
+        return w;
+    }
+
+    /**
+     * Computes the bids of a part of the bidders.
+     * @param part the index of the part (from 0 to threads-1)
+     */
+    private final void bid(int part) {
+        final int chunk = (biddersNb + threads - 1) / threads;
+        final int lo = part * chunk;
+        final int hi = Math.min(biddersNb, lo + chunk);
+        final int n = size;
+        for (int k=lo; k<hi; k++) {
+            final int i = bidders[k];
+            final long[] bi = b[i];
+            long w1 = Long.MIN_VALUE;
+            long w2 = Long.MIN_VALUE;
+            int j1 = -1;
+            for (int j=0; j<n; j++) {
+                final long x = bi[j] - price[j];
+                if (x > w1) {
+                    w2 = w1;
+                    w1 = x;
+                    j1 = j;
+                } else if (x > w2) {
+                    w2 = x;
+                }
+            }
+            target[i] = j1;
+            bid[i] = price[j1] + (n == 1 ? 0 : w1 - w2) + eps;
+        }
+    }
+
+    private synchronized final void startBids() {
+        generation++;
+        pending = threads - 1;
+        notifyAll();
+    }
+
+    private synchronized final void awaitBids() {
+        while (pending > 0 && !broken) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                // the workers may still be bidding: they are replaced
+                broken = true;
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+        }
+        if (failure != null) {
+            final Throwable t = failure;
+            failure = null;
+            if (t instanceof Error) {
+                throw (Error) t;
+            } else if (t instanceof RuntimeException) {
+                throw (RuntimeException) t;
+            } else {
+                throw new RuntimeException(t);
+            }
+        }
+    }
+
+    /**
+     * Waits for the next round.
+     * @param w a worker
+     * @return false iff the workers are stopped
+     */
+    private synchronized final boolean await(Worker w) 
+        throws InterruptedException {
+        while (generation == w.seen && !stopped) {
+            wait();
+        }
+        w.seen = generation;
+        return !stopped;
+    }
+
+    private synchronized final void arrived() {
+        if (--pending == 0) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Records the failure of a worker, which then stops: 
+     * the workers are replaced by the next computation.
+     * @param t a throwable
+     */
+    private synchronized final void fail(Throwable t) {
+        if (failure == null) {
+            failure = t;
+        }
+        broken = true;
+        notifyAll();
+    }
+
+    /**
+     * Starts the workers, if they are not started 
+     * or if one of them has failed.
+     */
+    private final void startWorkers() {
+        if (workers != null && !broken) {
+            return;
+        }
+        stopWorkers();
+        if (failure != null) {
+            // the failure occurred between two computations
+            cat.warn("worker failure", failure);
+        }
+        broken = false;
+        failure = null;
+        workers = new Worker[threads-1];
+        for (int k=0; k<workers.length; k++) {
+            workers[k] = new Worker(k+1);
+            workers[k].start();
+        }
+    }
+
+    /**
+     * Stops the workers and waits for them.
+     */
+    private final void stopWorkers() {
+        if (workers == null) {
+            return;
+        }
+        synchronized (this) {
+            stopped = true;
+            notifyAll();
+        }
+        try {
+            for (int k=0; k<workers.length; k++) {
+                workers[k].join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } finally {
+            workers = null;
+            synchronized (this) {
+                stopped = false;
+            }
+        }
+    }
+
+    /**
+     * Stops the worker threads 
+     * (they are started again by the next computation).
+     */
+    public final void dispose() {
+        stopWorkers();
+    }
+
+    //------------------------------------------------------------------------
+    // INNER CLASSES
+    //------------------------------------------------------------------------
+    /**
+     * A thread computing a part of the bids at each round.
+     */
+    private class Worker extends Thread {
+        private int part;
+        /** The last round seen. */
+        private int seen;
+
+        /**
+         * Sole constructor.
+         * @param part the index of the part
+         */
+        Worker(int part) {
+            super("Auction Worker");
+            this.part = part;
+            seen = generation;
+            setDaemon(true);
+        }
+
+        /**
+         * Computes bids until the workers are stopped.
+         */
+        public void run() {
+            try {
+                while (await(this)) {
+                    Throwable failure = null;
+                    try {
+                        bid(part);
+                    } catch (Throwable t) {
+                        failure = t;
+                        fail(t);
+                    } finally {
+                        arrived();
+                    }
+                    if (failure != null) {
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                fail(new RuntimeException(e));
+            }
+        }
+    }
+}
+/*
+ * $Log$
+ */
@@ -0,0 +1,166 @@
+package com.koalog.util.graph;
+
+import java.util.Random;
+import junit.framework.TestCase;
+import org.apache.log4j.Category;
+
+/**
+ * Tests the Auction class.
+ *
+ * @author Yan Georget
+ */
+public class AuctionTest extends TestCase {
+    //------------------------------------------------------------------------
+    // CONSTANTS
+    //------------------------------------------------------------------------
+    private static Category cat = Category.getInstance(AuctionTest.class);
+
+    //------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //------------------------------------------------------------------------
+    /**
+     * Sole constructor.
+     * @param name a name
+     */
+    public AuctionTest(String name) {
+        super(name);
+    }
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /**
+     * Compares the assignments with the ones of the Hungarian algorithm,
+     * on random matrices (from scratch and warm started).
+     */
+    public void testRandom() {
+        cat.info("testRandom");
+        Random r = new Random(0);
+        Hungarian h = new Hungarian();
+        for (int t=0; t<200; t++) {
+            final int rows = 1 + r.nextInt(12);
+            final int cols = 1 + r.nextInt(12);
+            final int[][] cost = HungarianTest.random(r, rows, cols, 50);
+            Auction a = new Auction(1 + t % 3);
+            final long best = h.solve(cost);
+            assertEquals(best, a.solve(cost));
+            HungarianTest.check(cost, a.getAssignment(), best);
+            for (int k=0; k<3; k++) {
+                cost[r.nextInt(rows)][r.nextInt(cols)] = r.nextInt(50);
+            }
+            final long warm = h.solve(cost);
+            assertEquals(warm, a.resolve(cost));
+            HungarianTest.check(cost, a.getAssignment(), warm);
+            a.dispose();
+        }
+    }
+
+    /**
+     * Compares the minimum cost matchings of bipartite graphs
+     * with the ones of the Hungarian algorithm.
+     */
+    public void testGraph() {
+        cat.info("testGraph");
+        Random r = new Random(0);
+        Hungarian h = new Hungarian();
+        for (int t=0; t<100; t++) {
+            final int left = 1 + r.nextInt(8);
+            final int right = 1 + r.nextInt(8);
+            final Graph g = new FastGraph(left + right);
+            final int m = r.nextInt(2*left);
+            for (int k=0; k<m; k++) {
+                g.addEdge(r.nextInt(left), left + r.nextInt(right));
+            }
+            final int[][] cost = HungarianTest.random(r, left, right, 10);
+            Auction a = new Auction(2);
+            assertEquals(h.solve(g, left, cost), a.solve(g, left, cost));
+            final int[] as = a.getAssignment();
+            int size = 0;
+            for (int u=0; u<left; u++) {
+                if (as[u] != -1) {
+                    assertTrue(g.hasEdge(u, left + as[u]));
+                    size++;
+                }
+            }
+            assertEquals(g.maximumMatching(left).size(), size);
+            a.dispose();
+        }
+    }
+
+    /**
+     * Checks that the workers are kept between computations, 
+     * and replaced when they are interrupted.
+     */
+    public void testWorkers() {
+        cat.info("testWorkers");
+        Random r = new Random(0);
+        final int[][] cost = HungarianTest.random(r, 30, 30, 100);
+        final long best = new Hungarian().solve(cost);
+        Auction a = new Auction(3);
+        assertEquals(best, a.solve(cost));
+        final Thread[] workers = workers();
+        assertEquals(2, workers.length);
+        assertEquals(best, a.solve(cost));
+        assertEquals(best, a.resolve(cost));
+        Thread[] tmp = workers();
+        assertEquals(2, tmp.length);
+        for (int k=0; k<workers.length; k++) {
+            assertTrue(tmp[0] == workers[k] || tmp[1] == workers[k]);
+            workers[k].interrupt();
+        }
+        for (int k=0; k<workers.length; k++) {
+            try {
+                workers[k].join();
+            } catch (InterruptedException e) {
+                fail();
+            }
+        }
+        assertEquals(best, a.solve(cost));
+        assertEquals(2, workers().length);
+        a.dispose();
+        assertEquals(0, workers().length);
+    }
+
+    /**
+     * Returns the live auction workers.
+     */
+    private Thread[] workers() {
+        final Thread[] all = new Thread[Thread.activeCount() + 16];
+        final int nb = Thread.enumerate(all);
+        int k = 0;
+        for (int i=0; i<nb; i++) {
+            if (all[i].isAlive() 
+                && "Auction Worker".equals(all[i].getName())) {
+                all[k++] = all[i];
+            }
+        }
+        final Thread[] workers = new Thread[k];
+        System.arraycopy(all, 0, workers, 0, k);
+        return workers;
+    }
+
+    /**
+     * Compares the Hungarian algorithm and the auction algorithm
+     * (with 1 to 4 threads) on a big matrix.
+     */
+    public void testBigAuction() {
+        final int n = 400;
+        Random r = new Random(0);
+        final int[][] cost = HungarianTest.random(r, n, n, 1000);
+        long time = System.currentTimeMillis();
+        final long best = new Hungarian().solve(cost);
+        cat.info("Hungarian: " + (System.currentTimeMillis() - time) + "ms");
+        for (int k=1; k<=4; k++) {
+            Auction a = new Auction(k);
+            time = System.currentTimeMillis();
+            assertEquals(best, a.solve(cost));
+            cat.info("Auction (" + k + " threads): "
+                     + a.getRounds() + " rounds, "
+                     + (System.currentTimeMillis() - time) + "ms");
+            a.dispose();
+        }
+    }
+}
+/*
+ * $Log$
+ */
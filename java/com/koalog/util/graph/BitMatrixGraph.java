@@ -0,0 +1,369 @@
+package com.koalog.util.graph;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.LinkedList;
+import org.apache.log4j.Category;
+import com.koalog.util.Arithmetic;
+
+/**
+ * A graph represented as a matrix of bits.
+ *
+ * <P>Each row of the matrix is packed in an array of longs
+ * (64 nodes per word), which takes 8 times less memory
+ * than <CODE>MatrixGraph</CODE>.
+ * The adjacent nodes of a node are enumerated word by word,
+ * jumping from one bit to the next,
+ * and the degree of a node is computed by counting bits.</P>
+ *
+ * <P>Rows can also be combined 64 nodes at a time
+ * (see <CODE>union</CODE>, <CODE>intersect</CODE>, <CODE>andNot</CODE>
+ * and <CODE>reachable</CODE>).</P>
+ * @author Yan Georget
+ */
+public class BitMatrixGraph extends Graph {
+    //------------------------------------------------------------------------
+    // STATIC PROPERTIES
+    //------------------------------------------------------------------------
+    private static Category cat = Category.getInstance(BitMatrixGraph.class);
+
+    //------------------------------------------------------------------------
+    // PROPERTIES
+    //------------------------------------------------------------------------
+    /** The rows of the matrix. */
+    private long[][] rows;
+    /** The number of words of a row. */
+    private int words;
+
+    //------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //------------------------------------------------------------------------
+    /**
+     * Constructs a graph.
+     * @param n the size of the graph
+     */
+    public BitMatrixGraph(int n) {
+        super(n);
+        words = (n + 63) >>> 6;
+        rows = new long[n][words];
+    }
+
+    /**
+     * Constructs a graph
+     * given, for each node, an array of adjacent nodes.
+     * @param e an array of arrays
+     */
+    public BitMatrixGraph(int[][] e) {
+        this(e.length);
+        for (int i=0; i<e.length; i++) {
+            final int size = e[i].length;
+            for (int j=0; j<size; j++) {
+                addEdge(i, e[i][j]);
+            }
+        }
+    }
+
+    //------------------------------------------------------------------------
+    // ACCESSORS
+    //------------------------------------------------------------------------
+    /**
+     * Returns the row of a node.
+     *
+     * <P>Note that the row is not copied:
+     * bit j of word j/64 is set iff there is an edge from n to j.
+     * Modifying it does not notify the listeners of the graph.</P>
+     * @param n a node
+     * @return an array of longs
+     */
+    public final long[] getRow(int n) {
+        return rows[n];
+    }
+
+    /**
+     * Returns the number of words of a row.
+     * @return an integer
+     */
+    public final int getWordsNb() {
+        return words;
+    }
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /** @see com.koalog.util.graph.Graph */
+    public void clear() {
+        for (int i=rows.length; --i>=0;) {
+            clearEdges(i);
+        }
+    }
+
+    /** @see com.koalog.util.graph.Graph */
+    public final List getEdges(int n) {
+        final List l = new LinkedList();
+        final long[] row = rows[n];
+        for (int w=0; w<words; w++) {
+            for (long bits = row[w]; bits != 0; bits &= bits - 1) {
+                l.add(box((w << 6) + Arithmetic.numberOfTrailingZeros(bits)));
+            }
+        }
+        return l;
+    }
+
+    /** @see com.koalog.util.graph.Graph */
+    public final Iterator getEdgesIterator(final int n) {
+        final IntEdgeCursor c = edgeCursor();
+        c.reset(n);
+        return new Iterator() {
+                public boolean hasNext() {
+                    return c.hasNext();
+                }
+
+                public Object next() {
+                    return box(c.next());
+                }
+
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+    }
+
+    /** @see com.koalog.util.graph.Graph */
+    public final void clearEdges(int n) {
+        final long[] row = rows[n];
+        for (int w=words; --w>=0;) {
+            row[w] = 0;
+        }
+        if (hasGraphListeners()) {
+            fireEdgesCleared(n);
+        }
+    }
+
+    /** @see com.koalog.util.graph.Graph */
+    public final void removeEdge(int a, int b) {
+        final long[] row = rows[a];
+        final long old = row[b >>> 6];
+        row[b >>> 6] = old & ~(1L << b);
+        if ((old & (1L << b)) != 0 && hasGraphListeners()) {
+            fireEdgeRemoved(a, b);
+        }
+    }
+
+    /** @see com.koalog.util.graph.Graph */
+    public final void removeEdge(int a, Integer b) {
+        removeEdge(a, b.intValue());
+    }
+
+    /** @see com.koalog.util.graph.Graph */
+    public final void addEdge(int a, int b) {
+        final long[] row = rows[a];
+        final long old = row[b >>> 6];
+        row[b >>> 6] = old | (1L << b);
+        if ((old & (1L << b)) == 0 && hasGraphListeners()) {
+            fireEdgeAdded(a, b);
+        }
+    }
+
+    /** @see com.koalog.util.graph.Graph */
+    public final void addEdge(int a, Integer b) {
+        addEdge(a, b.intValue());
+    }
+
+    /** @see com.koalog.util.graph.Graph */
+    public final boolean hasEdge(int a, int b) {
+        return (rows[a][b >>> 6] & (1L << b)) != 0;
+    }
+
+    /** @see com.koalog.util.graph.Graph */
+    public final boolean hasEdge(int a, Integer b) {
+        return hasEdge(a, b.intValue());
+    }
+
+    /** @see com.koalog.util.graph.Graph */
+    public final void addEdgeIfNecessary(int a, int b) {
+        addEdge(a, b);
+    }
+
+    /** @see com.koalog.util.graph.Graph */
+    public final void addEdgeIfNecessary(int a, Integer b) {
+        addEdge(a, b.intValue());
+    }
+
+    /** @see com.koalog.util.graph.Graph */
+    public final int degree(int n) {
+        final long[] row = rows[n];
+        int d = 0;
+        for (int w=words; --w>=0;) {
+            d += Arithmetic.bitCount(row[w]);
+        }
+        return d;
+    }
+
+    /** @see com.koalog.util.graph.Graph */
+    public final void forEachEdge(int n, EdgeVisitor visitor) {
+        final long[] row = rows[n];
+        for (int w=0; w<words; w++) {
+            for (long bits = row[w]; bits != 0; bits &= bits - 1) {
+                visitor.visitEdge(n,
+                                  (w << 6)
+                                  + Arithmetic.numberOfTrailingZeros(bits));
+            }
+        }
+    }
+
+    /** @see com.koalog.util.graph.Graph */
+    public final IntEdgeCursor edgeCursor() {
+        return new IntEdgeCursor() {
+                long[] row;
+                /** The current word. */
+                int w;
+                /** The bits of the current word not yet returned. */
+                long bits;
+
+                public void reset(int n) {
+                    row = rows[n];
+                    w = 0;
+                    bits = words == 0 ? 0 : row[0];
+                }
+
+                public boolean hasNext() {
+                    while (bits == 0) {
+                        if (++w >= words) {
+                            w = words;
+                            return false;
+                        }
+                        bits = row[w];
+                    }
+                    return true;
+                }
+
+                public int next() {
+                    hasNext();
+                    final int j =
+                        (w << 6) + Arithmetic.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    return j;
+                }
+            };
+    }
+
+    /**
+     * Adds the edges of a node to the edges of another node.
+     * @param a the node whose edges are modified
+     * @param b a node
+     */
+    public final void union(int a, int b) {
+        final long[] ra = rows[a];
+        final long[] rb = rows[b];
+        for (int w=words; --w>=0;) {
+            final long old = ra[w];
+            ra[w] = old | rb[w];
+            fireChanges(a, w, old, ra[w]);
+        }
+    }
+
+    /**
+     * Keeps the edges of a node that are also edges of another node.
+     * @param a the node whose edges are modified
+     * @param b a node
+     */
+    public final void intersect(int a, int b) {
+        final long[] ra = rows[a];
+        final long[] rb = rows[b];
+        for (int w=words; --w>=0;) {
+            final long old = ra[w];
+            ra[w] = old & rb[w];
+            fireChanges(a, w, old, ra[w]);
+        }
+    }
+
+    /**
+     * Removes from the edges of a node the edges of another node.
+     * @param a the node whose edges are modified
+     * @param b a node
+     */
+    public final void andNot(int a, int b) {
+        final long[] ra = rows[a];
+        final long[] rb = rows[b];
+        for (int w=words; --w>=0;) {
+            final long old = ra[w];
+            ra[w] = old & ~rb[w];
+            fireChanges(a, w, old, ra[w]);
+        }
+    }
+
+    /**
+     * Notifies the listeners of the modification of a word of a row.
+     * @param a a node
+     * @param w the index of the word
+     * @param old the old word
+     * @param now the new word
+     */
+    private final void fireChanges(int a, int w, long old, long now) {
+        if (old == now || !hasGraphListeners()) {
+            return;
+        }
+        for (long bits = now & ~old; bits != 0; bits &= bits - 1) {
+            fireEdgeAdded(a, (w << 6) + Arithmetic.numberOfTrailingZeros(bits));
+        }
+        for (long bits = old & ~now; bits != 0; bits &= bits - 1) {
+            fireEdgeRemoved(a, 
+                            (w << 6) + Arithmetic.numberOfTrailingZeros(bits));
+        }
+    }
+
+    /**
+     * Computes the nodes reachable from a set of nodes
+     * (including the nodes of the set).
+     *
+     * <P>This is a breadth first search whose frontier is a set of bits:
+     * the visited nodes are removed from the successors
+     * 64 nodes at a time.</P>
+     * @param start a set of nodes (as returned by <CODE>getRow</CODE>)
+     * @return a set of nodes (a new array of longs)
+     */
+    public final long[] reachable(long[] start) {
+        final long[] visited = new long[words];
+        long[] frontier = new long[words];
+        long[] next = new long[words];
+        System.arraycopy(start, 0, visited, 0, words);
+        System.arraycopy(start, 0, frontier, 0, words);
+        boolean nonEmpty = true;
+        while (nonEmpty) {
+            for (int w=0; w<words; w++) {
+                for (long bits = frontier[w]; bits != 0; bits &= bits - 1) {
+                    final long[] row =
+                        rows[(w << 6) + Arithmetic.numberOfTrailingZeros(bits)];
+                    for (int v=words; --v>=0;) {
+                        next[v] |= row[v];
+                    }
+                }
+            }
+            nonEmpty = false;
+            for (int w=words; --w>=0;) {
+                final long bits = next[w] & ~visited[w];
+                frontier[w] = bits;
+                visited[w] |= bits;
+                next[w] = 0;
+                if (bits != 0) {
+                    nonEmpty = true;
+                }
+            }
+        }
+        return visited;
+    }
+
+    /**
+     * Computes the nodes reachable from a node (including the node).
+     * @param n a node
+     * @return a set of nodes (a new array of longs)
+     */
+    public final long[] reachable(int n) {
+        final long[] start = new long[words];
+        start[n >>> 6] = 1L << n;
+        return reachable(start);
+    }
+}
+/*
+ * $Log$
+ */
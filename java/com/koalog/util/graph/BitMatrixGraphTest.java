@@ -0,0 +1,229 @@
+package com.koalog.util.graph;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Random;
+import junit.framework.TestCase;
+import org.apache.log4j.Category;
+
+/**
+ * Tests the BitMatrixGraph class.
+ *
+ * @author Yan Georget
+ */
+public class BitMatrixGraphTest extends TestCase {
+    //------------------------------------------------------------------------
+    // CONSTANTS
+    //------------------------------------------------------------------------
+    private static Category cat =
+        Category.getInstance(BitMatrixGraphTest.class);
+
+    //------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //------------------------------------------------------------------------
+    /**
+     * Sole constructor.
+     * @param name a name
+     */
+    public BitMatrixGraphTest(String name) {
+        super(name);
+    }
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /**
+     * Tests the edges (across word boundaries).
+     */
+    public void testEdges() {
+        cat.info("testEdges");
+        BitMatrixGraph g = new BitMatrixGraph(130);
+        g.addEdge(0, 129);
+        g.addEdge(0, 63);
+        g.addEdge(0, 64);
+        g.addEdge(0, 0);
+        g.addEdgeIfNecessary(0, 64);
+        assertEquals(3, g.getWordsNb());
+        assertEquals(4, g.degree(0));
+        assertEquals(0, g.degree(1));
+        assertTrue(g.hasEdge(0, 63));
+        assertTrue(g.hasEdge(0, new Integer(129)));
+        assertFalse(g.hasEdge(0, 65));
+        LinkedList expected = new LinkedList();
+        expected.add(new Integer(0));
+        expected.add(new Integer(63));
+        expected.add(new Integer(64));
+        expected.add(new Integer(129));
+        assertEquals(expected, g.getEdges(0));
+        LinkedList l = new LinkedList();
+        for (Iterator i = g.getEdgesIterator(0); i.hasNext();) {
+            l.add(i.next());
+        }
+        assertEquals(expected, l);
+        IntEdgeCursor c = g.edgeCursor();
+        c.reset(0);
+        for (Iterator i = expected.iterator(); i.hasNext();) {
+            assertTrue(c.hasNext());
+            assertEquals(((Integer) i.next()).intValue(), c.next());
+        }
+        assertFalse(c.hasNext());
+        c.reset(1);
+        assertFalse(c.hasNext());
+        g.removeEdge(0, 63);
+        assertFalse(g.hasEdge(0, 63));
+        assertEquals(3, g.degree(0));
+        g.clearEdges(0);
+        assertEquals(0, g.getEdges(0).size());
+    }
+
+    /**
+     * Tests the notifications of the listeners.
+     */
+    public void testListeners() {
+        cat.info("testListeners");
+        BitMatrixGraph g = new BitMatrixGraph(71);
+        final int[] counts = new int[3];
+        g.addGraphListener(new GraphListener() {
+                public void edgeAdded(Graph g, int a, int b) {
+                    counts[0]++;
+                }
+
+                public void edgeRemoved(Graph g, int a, int b) {
+                    counts[1]++;
+                }
+
+                public void edgesCleared(Graph g, int a) {
+                    counts[2]++;
+                }
+            });
+        g.addEdge(0, 1);
+        g.addEdge(0, 70);
+        g.addEdge(0, 70);
+        g.addEdge(1, 2);
+        assertEquals(3, counts[0]);
+        g.union(1, 0);
+        assertEquals(5, counts[0]);
+        g.andNot(1, 0);
+        assertEquals(2, counts[1]);
+        g.intersect(1, 0);
+        assertEquals(3, counts[1]);
+        g.removeEdge(1, 2);
+        assertEquals(3, counts[1]);
+        g.clearEdges(0);
+        assertEquals(1, counts[2]);
+    }
+
+    /**
+     * Tests union, intersect, andNot and reachable.
+     */
+    public void testRowOperations() {
+        cat.info("testRowOperations");
+        BitMatrixGraph g = new BitMatrixGraph(71);
+        g.addEdge(0, 1);
+        g.addEdge(0, 70);
+        g.addEdge(1, 2);
+        g.addEdge(1, 70);
+        g.union(2, 0);
+        assertEquals(g.getEdges(0), g.getEdges(2));
+        g.intersect(2, 1);
+        assertEquals(1, g.degree(2));
+        assertTrue(g.hasEdge(2, 70));
+        g.union(2, 1);
+        g.andNot(2, 0);
+        assertEquals(1, g.degree(2));
+        assertTrue(g.hasEdge(2, 2));
+        long[] r = g.reachable(0);
+        assertEquals(0x7L, r[0]);
+        assertEquals(1L << 6, r[1]);
+        r = g.reachable(3);
+        assertEquals(0x8L, r[0]);
+        assertEquals(0L, r[1]);
+    }
+
+    /**
+     * Tests the SCC, computePath and the maximum matching.
+     */
+    public void testAlgorithms() {
+        cat.info("testAlgorithms");
+        BitMatrixGraph g = new BitMatrixGraph(new int[][] {
+            new int[] {13,1,2,3,4,5,6,7},
+            new int[] {8},
+            new int[] {9},
+            new int[] {8},
+            new int[] {9},
+            new int[] {10},
+            new int[] {11},
+            new int[] {12},
+            new int[] {2,4,5,13},
+            new int[] {1,3,5,6,13},
+            new int[] {6,7},
+            new int[] {13},
+            new int[] {6,13},
+            new int[] {11,12}
+        });
+        g.computeTremaux();
+        g.computeSCC();
+        assertEquals(6, g.getSCCNb());
+        g = new BitMatrixGraph(new int[][] {
+            new int[] {1},
+            new int[] {2},
+            new int[] {3},
+            new int[] {1}
+        });
+        LinkedList start = new LinkedList();
+        start.add(new Integer(1));
+        assertEquals(2, g.computePath(start, 3).size());
+        g = new BitMatrixGraph(new int[][] {
+            new int[] {4,5},
+            new int[] {3,4},
+            new int[] {3},
+            new int[] {},
+            new int[] {},
+            new int[] {}
+        });
+        assertEquals(3, g.maximumMatching(3).size());
+    }
+
+    /**
+     * Compares the BitMatrixGraph and MatrixGraph classes
+     * on a dense random graph.
+     */
+    public void testBigBitMatrixGraph() {
+        final int n = 2000;
+        Random r = new Random(0);
+        BitMatrixGraph b = new BitMatrixGraph(n);
+        MatrixGraph m = new MatrixGraph(n);
+        for (int k=0; k<n*n/4; k++) {
+            int i = r.nextInt(n);
+            int j = r.nextInt(n);
+            b.addEdge(i, j);
+            m.addEdge(i, j);
+        }
+        long time = System.currentTimeMillis();
+        int dm = 0;
+        IntEdgeCursor c = m.edgeCursor();
+        for (int i=0; i<n; i++) {
+            for (c.reset(i); c.hasNext();) {
+                dm += c.next();
+            }
+        }
+        cat.info("MatrixGraph: " + (System.currentTimeMillis() - time) + "ms");
+        time = System.currentTimeMillis();
+        int db = 0;
+        c = b.edgeCursor();
+        for (int i=0; i<n; i++) {
+            for (c.reset(i); c.hasNext();) {
+                db += c.next();
+            }
+        }
+        cat.info("BitMatrixGraph: "
+                 + (System.currentTimeMillis() - time) + "ms");
+        assertEquals(dm, db);
+        for (int i=0; i<n; i++) {
+            assertEquals(m.degree(i), b.degree(i));
+        }
+    }
+}
+/*
+ * $Log$
+ */
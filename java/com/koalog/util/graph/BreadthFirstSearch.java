@@ -0,0 +1,208 @@
+package com.koalog.util.graph;
+
+import org.apache.log4j.Category;
+
+/**
+ * A reusable breadth first search engine.
+ *
+ * <P>A search is started by <CODE>clear</CODE>,
+ * the sources being then added by <CODE>addSource</CODE>;
+ * <CODE>search</CODE> then explores the graph until the goal is reached.
+ * The nodes are marked as visited when they are queued,
+ * so that each node is queued at most once
+ * and the queue is a simple array of integers.
+ * The visited nodes are marked with the number of the search
+ * (the marks need not be cleared between searches),
+ * and the parent of each visited node is stored in an array of integers.
+ * The buffers are allocated once,
+ * so that the engine can be called repeatedly without creating objects.
+ * </P>
+ * @author Yan Georget
+ */
+public class BreadthFirstSearch {
+    //------------------------------------------------------------------------
+    // STATIC PROPERTIES
+    //------------------------------------------------------------------------
+    private static Category cat =
+        Category.getInstance(BreadthFirstSearch.class);
+
+    //------------------------------------------------------------------------
+    // PROPERTIES
+    //------------------------------------------------------------------------
+    private Graph graph;
+    private IntEdgeCursor cursor;
+    /** The nodes to explore. */
+    private int[] queue;
+    private int head;
+    private int tail;
+    /** The number of the search when each node was visited. */
+    private int[] stamp;
+    private int gen;
+    /** The parent of each visited node, -1 for the sources. */
+    private int[] parent;
+    /** The number of searches. */
+    private int searches;
+
+    //------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //------------------------------------------------------------------------
+    /**
+     * Constructs an engine for a graph.
+     * @param graph a graph
+     */
+    public BreadthFirstSearch(Graph graph) {
+        this.graph = graph;
+        final int n = graph.getNodesNb();
+        cursor = graph.edgeCursor();
+        queue = new int[n];
+        stamp = new int[n];
+        parent = new int[n];
+    }
+
+    //------------------------------------------------------------------------
+    // ACCESSORS
+    //------------------------------------------------------------------------
+    /**
+     * Returns the graph.
+     * @return a graph
+     */
+    public final Graph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Returns the parent of a visited node.
+     * @param node a visited node
+     * @return a node, -1 for a source
+     */
+    public final int getParent(int node) {
+        return parent[node];
+    }
+
+    /**
+     * Returns the number of searches performed so far.
+     * @return an integer
+     */
+    public final int getSearches() {
+        return searches;
+    }
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /**
+     * Starts a new search (no node is visited).
+     */
+    public final void clear() {
+        searches++;
+        if (++gen == 0) {
+            // the marks wrapped around
+            for (int i=stamp.length; --i>=0;) {
+                stamp[i] = 0;
+            }
+            gen = 1;
+        }
+        head = tail = 0;
+    }
+
+    /**
+     * Checks if a node has been visited by the current search.
+     * @param node a node
+     * @return a boolean
+     */
+    public final boolean isVisited(int node) {
+        return stamp[node] == gen;
+    }
+
+    /**
+     * Marks a node as visited, without exploring it.
+     * @param node a node
+     */
+    public final void mark(int node) {
+        stamp[node] = gen;
+        parent[node] = -1;
+    }
+
+    /**
+     * Adds a source (if it is not visited yet).
+     * @param node a node
+     */
+    public final void addSource(int node) {
+        addSource(node, -1);
+    }
+
+    /**
+     * Adds a source with a given parent (if it is not visited yet).
+     * @param node a node
+     * @param p its parent, -1 for none
+     */
+    public final void addSource(int node, int p) {
+        if (stamp[node] != gen) {
+            stamp[node] = gen;
+            parent[node] = p;
+            queue[tail++] = node;
+        }
+    }
+
+    /**
+     * Explores the graph from the sources, until a goal is reached.
+     *
+     * <P>The goal is reached when it is found as the successor
+     * of an explored node: a goal which is a source (or is marked)
+     * is not reached.</P>
+     * @param goal a node, -1 to explore all the reachable nodes
+     * @return true iff the goal has been reached
+     */
+    public final boolean search(int goal) {
+        final IntEdgeCursor c = cursor;
+        while (head < tail) {
+            final int x = queue[head++];
+            for (c.reset(x); c.hasNext();) {
+                final int z = c.next();
+                if (stamp[z] != gen) {
+                    stamp[z] = gen;
+                    parent[z] = x;
+                    if (z == goal) {
+                        return true;
+                    }
+                    queue[tail++] = z;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the path from a source to a visited node.
+     * @param node a visited node
+     * @return an array of nodes, starting with a source
+     * and ending with the node
+     */
+    public final int[] getPath(int node) {
+        int length = 1;
+        for (int p = parent[node]; p != -1; p = parent[p]) {
+            length++;
+        }
+        final int[] path = new int[length];
+        for (int p = node; p != -1; p = parent[p]) {
+            path[--length] = p;
+        }
+        return path;
+    }
+
+    /**
+     * Computes a shortest path between two nodes.
+     * @param source a node
+     * @param goal a node (different from the source)
+     * @return an array of nodes from the source to the goal,
+     * null if there is none
+     */
+    public final int[] computePath(int source, int goal) {
+        clear();
+        addSource(source);
+        return search(goal) ? getPath(goal) : null;
+    }
+}
+/*
+ * $Log$
+ */
@@ -0,0 +1,153 @@
+package com.koalog.util.graph;
+
+import java.util.LinkedList;
+import java.util.Random;
+import junit.framework.TestCase;
+import org.apache.log4j.Category;
+
+/**
+ * Tests the BreadthFirstSearch class.
+ *
+ * @author Yan Georget
+ */
+public class BreadthFirstSearchTest extends TestCase {
+    //------------------------------------------------------------------------
+    // CONSTANTS
+    //------------------------------------------------------------------------
+    private static Category cat =
+        Category.getInstance(BreadthFirstSearchTest.class);
+
+    //------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //------------------------------------------------------------------------
+    /**
+     * Sole constructor.
+     * @param name a name
+     */
+    public BreadthFirstSearchTest(String name) {
+        super(name);
+    }
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /**
+     * Tests searches on a small graph.
+     */
+    public void testSmall() {
+        cat.info("testSmall");
+        Graph g = new FastGraph(new int[][] {
+            new int[] {1,2},
+            new int[] {3},
+            new int[] {3},
+            new int[] {4},
+            new int[] {},
+            new int[] {0}
+        });
+        BreadthFirstSearch s = g.getSearch();
+        int[] path = s.computePath(0, 4);
+        assertEquals(4, path.length);
+        assertEquals(0, path[0]);
+        assertEquals(4, path[3]);
+        for (int k=1; k<path.length; k++) {
+            assertTrue(g.hasEdge(path[k-1], path[k]));
+        }
+        assertNull(s.computePath(4, 0));
+        assertTrue(s.isVisited(4));
+        assertFalse(s.isVisited(0));
+        s.clear();
+        s.addSource(1);
+        s.addSource(2);
+        assertFalse(s.search(-1));
+        assertTrue(s.isVisited(3));
+        assertTrue(s.isVisited(4));
+        assertFalse(s.isVisited(5));
+        assertEquals(2, g.computePath(5, 3).length - 2);
+    }
+
+    /**
+     * Compares the lengths of the paths
+     * with the ones computed by the boolean array based method,
+     * on random graphs (the engine being reused).
+     */
+    public void testRandom() {
+        cat.info("testRandom");
+        Random r = new Random(0);
+        for (int t=0; t<20; t++) {
+            final int n = 2 + r.nextInt(50);
+            final Graph g = new IntArrayGraph(n);
+            final int m = r.nextInt(2*n);
+            for (int k=0; k<m; k++) {
+                g.addEdge(r.nextInt(n), r.nextInt(n));
+            }
+            for (int k=0; k<50; k++) {
+                final int a = r.nextInt(n);
+                final int b = r.nextInt(n);
+                if (a == b) {
+                    continue;
+                }
+                final LinkedList frontier = new LinkedList();
+                frontier.add(new Integer(a));
+                final boolean[] reachable = new boolean[n];
+                reachable[a] = true;
+                final LinkedList path =
+                    g.computePath(frontier, b, reachable, new Integer[n]);
+                final int[] p = g.computePath(a, b);
+                if (path == null) {
+                    assertNull(p);
+                } else {
+                    assertEquals(path.size() + 1, p.length);
+                }
+            }
+        }
+    }
+
+    /**
+     * Compares the engine with the boolean array based method,
+     * on repeated searches in a big graph.
+     */
+    public void testBigBreadthFirstSearch() {
+        final int n = 20000;
+        final int times = 500;
+        Random r = new Random(0);
+        Graph g = new IntArrayGraph(n);
+        for (int i=0; i<n; i++) {
+            for (int k=0; k<3; k++) {
+                g.addEdge(i, r.nextInt(n));
+            }
+        }
+        final int[] a = new int[times];
+        final int[] b = new int[times];
+        for (int t=0; t<times; t++) {
+            a[t] = r.nextInt(n);
+            do {
+                b[t] = r.nextInt(n);
+            } while (b[t] == a[t]);
+        }
+        long time = System.currentTimeMillis();
+        int found = 0;
+        for (int t=0; t<times; t++) {
+            final LinkedList frontier = new LinkedList();
+            frontier.add(new Integer(a[t]));
+            final boolean[] reachable = new boolean[n];
+            reachable[a[t]] = true;
+            if (g.hasPath(frontier, b[t], reachable, new Integer[n])) {
+                found++;
+            }
+        }
+        cat.info("hasPath: " + (System.currentTimeMillis() - time) + "ms");
+        time = System.currentTimeMillis();
+        int engineFound = 0;
+        for (int t=0; t<times; t++) {
+            if (g.computePath(a[t], b[t]) != null) {
+                engineFound++;
+            }
+        }
+        cat.info("BreadthFirstSearch: "
+                 + (System.currentTimeMillis() - time) + "ms");
+        assertEquals(found, engineFound);
+    }
+}
+/*
+ * $Log$
+ */
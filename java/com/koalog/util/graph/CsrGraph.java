@@ -0,0 +1,384 @@
+package com.koalog.util.graph;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.LinkedList;
+import org.apache.log4j.Category;
+
+/**
+ * An immutable graph represented in compressed sparse row (CSR) format.
+ *
+ * <P>The adjacent nodes of all the nodes are stored in a single array 
+ * of integers (<CODE>targets</CODE>), 
+ * the adjacent nodes of node <CODE>n</CODE> being stored 
+ * from <CODE>offsets[n]</CODE> (inclusive) 
+ * to <CODE>offsets[n+1]</CODE> (exclusive), in ascending order.
+ * An edge thus costs 4 bytes, 
+ * and <CODE>hasEdge</CODE> is a binary search.</P>
+ *
+ * <P>The graph cannot be modified: 
+ * the modifying methods throw an 
+ * <CODE>UnsupportedOperationException</CODE>.
+ * Large graphs should be built with a <CODE>CsrGraph.Builder</CODE>.</P>
+ * @author Yan Georget
+ */
+public class CsrGraph extends Graph {
+    //------------------------------------------------------------------------
+    // STATIC PROPERTIES
+    //------------------------------------------------------------------------
+    private static Category cat = Category.getInstance(CsrGraph.class);
+
+    //------------------------------------------------------------------------
+    // PROPERTIES
+    //------------------------------------------------------------------------
+    /** The offsets of the adjacent nodes of each node, in targets. */
+    private int[] offsets;
+    /** The adjacent nodes. */
+    private int[] targets;
+
+    //------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //------------------------------------------------------------------------
+    /**
+     * Constructs a graph from its CSR representation.
+     *
+     * <P>The arrays are not copied, 
+     * but the adjacent nodes of each node are sorted in place.</P>
+     * @param offsets an array of n+1 offsets in targets, 
+     * where n is the size of the graph
+     * @param targets an array of adjacent nodes
+     */
+    public CsrGraph(int[] offsets, int[] targets) {
+        super(offsets.length-1);
+        this.offsets = offsets;
+        this.targets = targets;
+        for (int i=0; i<nodesNb; i++) {
+            Arrays.sort(targets, offsets[i], offsets[i+1]);
+        }
+    }
+
+    /**
+     * Constructs a graph
+     * given, for each node, an array of adjacent nodes.
+     * @param e an array of arrays
+     */
+    public CsrGraph(int[][] e) {
+        this(offsets(e), targets(e));
+    }
+
+    /**
+     * Constructs a copy of a graph.
+     * @param g a graph
+     */
+    public CsrGraph(Graph g) {
+        this(offsets(g), targets(g));
+    }
+
+    private static int[] offsets(int[][] e) {
+        final int[] offsets = new int[e.length+1];
+        for (int i=0; i<e.length; i++) {
+            offsets[i+1] = offsets[i] + e[i].length;
+        }
+        return offsets;
+    }
+
+    private static int[] targets(int[][] e) {
+        int m = 0;
+        for (int i=0; i<e.length; i++) {
+            m += e[i].length;
+        }
+        final int[] targets = new int[m];
+        m = 0;
+        for (int i=0; i<e.length; i++) {
+            System.arraycopy(e[i], 0, targets, m, e[i].length);
+            m += e[i].length;
+        }
+        return targets;
+    }
+
+    private static int[] offsets(Graph g) {
+        final int n = g.getNodesNb();
+        final int[] offsets = new int[n+1];
+        for (int i=0; i<n; i++) {
+            int d = 0;
+            for (Iterator j = g.getEdgesIterator(i); j.hasNext(); j.next()) {
+                d++;
+            }
+            offsets[i+1] = offsets[i] + d;
+        }
+        return offsets;
+    }
+
+    private static int[] targets(Graph g) {
+        final int n = g.getNodesNb();
+        int[] targets = new int[n+1];
+        int m = 0;
+        for (int i=0; i<n; i++) {
+            for (Iterator j = g.getEdgesIterator(i); j.hasNext();) {
+                if (m == targets.length) {
+                    final int[] tmp = new int[2*m];
+                    System.arraycopy(targets, 0, tmp, 0, m);
+                    targets = tmp;
+                }
+                targets[m++] = ((Integer) j.next()).intValue();
+            }
+        }
+        if (m < targets.length) {
+            final int[] tmp = new int[m];
+            System.arraycopy(targets, 0, tmp, 0, m);
+            targets = tmp;
+        }
+        return targets;
+    }
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /**
+     * Returns the offsets of the adjacent nodes of each node
+     * (the array is not copied, and must not be modified).
+     * @return an array of n+1 integers
+     */
+    final int[] getOffsets() {
+        return offsets;
+    }
+
+    /**
+     * Returns the adjacent nodes
+     * (the array is not copied, and must not be modified).
+     * @return an array of integers
+     */
+    final int[] getTargets() {
+        return targets;
+    }
+
+    /**
+     * Returns the number of edges.
+     * @return an integer
+     */
+    public final int getEdgesNb() {
+        return offsets[nodesNb];
+    }
+
+    /** @see com.koalog.util.graph.Graph */
+    public void clear() {
+        throw new UnsupportedOperationException();
+    }
+    
+    /** @see com.koalog.util.graph.Graph */
+    public final List getEdges(int n) {
+        final List l = new LinkedList();
+        for (int k=offsets[n], end=offsets[n+1]; k<end; k++) {
+            l.add(box(targets[k]));
+        }
+        return l;
+    }
+
+    /** @see com.koalog.util.graph.Graph */
+    public final Iterator getEdgesIterator(final int n) {
+        return new Iterator() {
+                int index = offsets[n];
+
+                public boolean hasNext() {
+                    return index < offsets[n+1];
+                }
+                
+                public Object next() {
+                    return box(targets[index++]);
+                }
+
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+    }
+
+    /** @see com.koalog.util.graph.Graph */
+    public final void clearEdges(int n) {
+        throw new UnsupportedOperationException();
+    }
+    
+    /** @see com.koalog.util.graph.Graph */
+    public final void removeEdge(int a, int b) {
+        throw new UnsupportedOperationException();
+    }
+
+    /** @see com.koalog.util.graph.Graph */
+    public final void removeEdge(int a, Integer b) {
+        throw new UnsupportedOperationException();
+    }
+
+    /** @see com.koalog.util.graph.Graph */
+    public final void addEdge(int a, int b) {
+        throw new UnsupportedOperationException();
+    }
+
+    /** @see com.koalog.util.graph.Graph */
+    public final void addEdge(int a, Integer b) {
+        throw new UnsupportedOperationException();
+    }
+
+    /** @see com.koalog.util.graph.Graph */
+    public final boolean hasEdge(int a, int b) {
+        int lo = offsets[a];
+        int hi = offsets[a+1]-1;
+        while (lo <= hi) {
+            final int mid = (lo+hi)>>>1;
+            final int t = targets[mid];
+            if (t < b) {
+                lo = mid+1;
+            } else if (t > b) {
+                hi = mid-1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** @see com.koalog.util.graph.Graph */
+    public final boolean hasEdge(int a, Integer b) {
+        return hasEdge(a, b.intValue());
+    }
+
+    /** @see com.koalog.util.graph.Graph */
+    public final void addEdgeIfNecessary(int a, int b) {
+        throw new UnsupportedOperationException();
+    }
+
+    /** @see com.koalog.util.graph.Graph */
+    public final void addEdgeIfNecessary(int a, Integer b) {
+        throw new UnsupportedOperationException();
+    }
+
+    /** @see com.koalog.util.graph.Graph */
+    public final int degree(int n) {
+        return offsets[n+1] - offsets[n];
+    }
+
+    /** @see com.koalog.util.graph.Graph */
+    public final void forEachEdge(int n, EdgeVisitor visitor) {
+        for (int k=offsets[n], end=offsets[n+1]; k<end; k++) {
+            visitor.visitEdge(n, targets[k]);
+        }
+    }
+
+    /** @see com.koalog.util.graph.Graph */
+    public final IntEdgeCursor edgeCursor() {
+        return new IntEdgeCursor() {
+                int index;
+                int end;
+
+                public void reset(int n) {
+                    index = offsets[n];
+                    end = offsets[n+1];
+                }
+
+                public boolean hasNext() {
+                    return index < end;
+                }
+
+                public int next() {
+                    return targets[index++];
+                }
+            };
+    }
+
+    /**
+     * Returns the graph as a string.
+     * @return a string
+     */
+    public String toString() {
+        StringBuffer buf = new StringBuffer();
+        for (int i=0; i<nodesNb; i++) {
+            buf.append(i);
+            buf.append("\n");
+            buf.append(getEdges(i));
+            buf.append("\n");
+        }
+        return buf.toString();
+    }
+
+    //------------------------------------------------------------------------
+    // INNER CLASSES
+    //------------------------------------------------------------------------
+    /**
+     * A builder of CSR graphs, fed with a stream of edges.
+     *
+     * <P>The edges are stored in two arrays of integers, 
+     * then sorted by start node (counting sort) when building the graph.</P>
+     */
+    public static class Builder {
+        /** The size of the graph. */
+        private int n;
+        /** The start nodes of the edges. */
+        private int[] sources;
+        /** The end nodes of the edges. */
+        private int[] ends;
+        /** The number of edges. */
+        private int m;
+
+        /**
+         * Sole constructor.
+         * @param n the size of the graph
+         */
+        public Builder(int n) {
+            this.n = n;
+            sources = new int[16];
+            ends = new int[16];
+        }
+
+        /**
+         * Adds an edge.
+         * @param a the index of the start node of the edge
+         * @param b the index of the end node of the edge
+         * @return the builder
+         */
+        public Builder addEdge(int a, int b) {
+            if (m == sources.length) {
+                final int[] tmpSources = new int[2*m];
+                final int[] tmpEnds = new int[2*m];
+                System.arraycopy(sources, 0, tmpSources, 0, m);
+                System.arraycopy(ends, 0, tmpEnds, 0, m);
+                sources = tmpSources;
+                ends = tmpEnds;
+            }
+            sources[m] = a;
+            ends[m++] = b;
+            return this;
+        }
+
+        /**
+         * Returns the number of edges added so far.
+         * @return an integer
+         */
+        public int getEdgesNb() {
+            return m;
+        }
+
+        /**
+         * Builds the graph.
+         * @return a CSR graph
+         */
+        public CsrGraph build() {
+            final int[] offsets = new int[n+1];
+            for (int k=0; k<m; k++) {
+                offsets[sources[k]+1]++;
+            }
+            for (int i=0; i<n; i++) {
+                offsets[i+1] += offsets[i];
+            }
+            final int[] next = new int[n];
+            System.arraycopy(offsets, 0, next, 0, n);
+            final int[] targets = new int[m];
+            for (int k=0; k<m; k++) {
+                targets[next[sources[k]]++] = ends[k];
+            }
+            return new CsrGraph(offsets, targets);
+        }
+    }
+}
+/*
+ * $Log$
+ */
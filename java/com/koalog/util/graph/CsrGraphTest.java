@@ -0,0 +1,173 @@
+package com.koalog.util.graph;
+
+import java.util.LinkedList;
+import java.util.Random;
+import junit.framework.TestCase;
+import org.apache.log4j.Category;
+
+/**
+ * Tests the CsrGraph class.
+ *
+ * @author Yan Georget
+ */
+public class CsrGraphTest extends TestCase {
+    //------------------------------------------------------------------------
+    // CONSTANTS
+    //------------------------------------------------------------------------
+    private static Category cat = Category.getInstance(CsrGraphTest.class);
+
+    //------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //------------------------------------------------------------------------
+    /**
+     * Sole constructor.
+     * @param name a name
+     */
+    public CsrGraphTest(String name) {
+        super(name);
+    }
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /**
+     * Tests the constructors and the builder.
+     */
+    public void testConstructor() {
+        cat.info("testConstructor");
+        int[][] e = new int[][] {
+            new int[] {3,2},
+            new int[] {2},
+            new int[] {},
+            new int[] {1}
+        };
+        CsrGraph g = new CsrGraph(e);
+        assertEquals(4, g.getNodesNb());
+        assertEquals(4, g.getEdgesNb());
+        assertEquals(2, g.getEdges(0).size());
+        assertEquals(new Integer(2), g.getEdges(0).get(0));
+        assertEquals(0, g.getEdges(2).size());
+        assertTrue(g.hasEdge(0, 3));
+        assertTrue(g.hasEdge(3, new Integer(1)));
+        assertFalse(g.hasEdge(0, 1));
+        assertFalse(g.hasEdge(2, 0));
+        CsrGraph h = new CsrGraph.Builder(4)
+            .addEdge(3, 1)
+            .addEdge(0, 3)
+            .addEdge(1, 2)
+            .addEdge(0, 2)
+            .build();
+        CsrGraph f = new CsrGraph(new FastGraph(e));
+        for (int i=0; i<4; i++) {
+            assertEquals(g.getEdges(i), h.getEdges(i));
+            assertEquals(g.getEdges(i), f.getEdges(i));
+        }
+        try {
+            g.addEdge(2, 0);
+            fail();
+        } catch (UnsupportedOperationException ex) {
+            // expected
+        }
+    }
+
+    /**
+     * Tests the SCC.
+     */
+    public void testSCC() {
+        cat.info("testSCC");
+        CsrGraph g = new CsrGraph(new int[][] {
+            new int[] {3,2},
+            new int[] {2},
+            new int[] {3},
+            new int[] {1}
+        });
+        g.computeTremaux();
+        g.computeSCC();
+        assertEquals(1, g.getSCC(0));
+        for (int i=1; i<g.getNodesNb(); i++) {
+            assertEquals(0, g.getSCC(i));
+        }
+        assertEquals(2, g.getSCCNb());
+        g = new CsrGraph(new int[][] {
+            new int[] {13,1,2,3,4,5,6,7},
+            new int[] {8},
+            new int[] {9},
+            new int[] {8},
+            new int[] {9},
+            new int[] {10},
+            new int[] {11},
+            new int[] {12},
+            new int[] {2,4,5,13},
+            new int[] {1,3,5,6,13},
+            new int[] {6,7},
+            new int[] {13},
+            new int[] {6,13},
+            new int[] {11,12}
+        });
+        g.computeTremaux();
+        g.computeSCC();
+        assertEquals(6, g.getSCCNb());
+        assertEquals(13, g.getTremaux(4));
+        assertEquals(10, g.getTremaux(13));
+    }
+
+    /**
+     * Tests computePath and the maximum matching.
+     */
+    public void testPathAndMatching() {
+        cat.info("testPathAndMatching");
+        CsrGraph g = new CsrGraph(new int[][] {
+            new int[] {1},
+            new int[] {2},
+            new int[] {3},
+            new int[] {1}
+        });
+        LinkedList start = new LinkedList();
+        start.add(new Integer(1));
+        assertEquals(2, g.computePath(start, 3).size());
+        g = new CsrGraph(new int[][] {
+            new int[] {4,5},
+            new int[] {3,4},
+            new int[] {3},
+            new int[] {},
+            new int[] {},
+            new int[] {}
+        });
+        assertEquals(3, g.maximumMatching(3).size());
+    }
+
+    /**
+     * Compares the SCC of a random graph 
+     * represented by the FastGraph and CsrGraph classes.
+     */
+    public void testBigCsrGraph() {
+        final int n = 5000;
+        Random r = new Random(0);
+        CsrGraph.Builder b = new CsrGraph.Builder(n);
+        FastGraph f = new FastGraph(n);
+        for (int k=0; k<3*n; k++) {
+            int i = r.nextInt(n);
+            int j = r.nextInt(n);
+            b.addEdge(i, j);
+            f.addEdge(i, j);
+        }
+        CsrGraph g = b.build();
+        long time = System.currentTimeMillis();
+        f.computeTremaux();
+        f.computeSCC();
+        cat.info("FastGraph: " + (System.currentTimeMillis() - time) + "ms");
+        time = System.currentTimeMillis();
+        g.computeTremaux();
+        g.computeSCC();
+        cat.info("CsrGraph: " + (System.currentTimeMillis() - time) + "ms");
+        assertEquals(f.getSCCNb(), g.getSCCNb());
+        for (int i=0; i<n; i++) {
+            for (int j=i+1; j<i+10 && j<n; j++) {
+                assertEquals(f.sameSCC(i, j), g.sameSCC(i, j));
+            }
+        }
+    }
+}
+/*
+ * $Log$
+ */
@@ -75,7 +75,7 @@ public class Dijkstra extends AbstractDijkstra {
 
     /** @see com.koalog.util.graph.AbstractDijkstra */
     protected void checkEdge(NEdge edge, 
-                             DijkstraHeap heap, 
+                             DijkstraQueue heap, 
                              int index) {
         float dist = distance[index] + graph.getCost(edge); 
         Node node = edge.getEndNode();
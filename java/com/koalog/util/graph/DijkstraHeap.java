@@ -7,7 +7,7 @@ import com.koalog.util.heap.Indexed;
  * A heap for Dijkstra algorithms.
  * @author Yan Georget
  */
-public class DijkstraHeap extends ReverseHeap {
+public class DijkstraHeap extends ReverseHeap implements DijkstraQueue {
     //------------------------------------------------------------------------
     // PROPERTIES
     //------------------------------------------------------------------------
@@ -0,0 +1,45 @@
+package com.koalog.util.graph;
+
+import com.koalog.util.heap.Indexed;
+
+/**
+ * An interface describing the priority queues of nodes 
+ * used by Dijkstra algorithms.
+ *
+ * <P>The priority of a node is its distance to the origin.</P>
+ * @author Yan Georget
+ */
+public interface DijkstraQueue {
+    /**
+     * Clears the queue and fills it with nodes.
+     * @param a an array of nodes
+     */
+    public void buildFrom(Indexed[] a);
+
+    /**
+     * Adds a node.
+     * @param o a node
+     */
+    public void add(Indexed o);
+
+    /**
+     * Informs the queue that the distance of a node has decreased.
+     * @param o a node
+     */
+    public void up(Indexed o);
+
+    /**
+     * Pops a node of smallest distance.
+     * @return a node, null if the queue is empty
+     */
+    public Object pop();
+
+    /**
+     * Checks if the queue is empty.
+     * @return a boolean
+     */
+    public boolean isEmpty();
+}
+/*
+ * $Log$
+ */
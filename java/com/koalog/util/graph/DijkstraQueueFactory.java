@@ -0,0 +1,19 @@
+package com.koalog.util.graph;
+
+/**
+ * An interface describing factories of priority queues 
+ * for Dijkstra algorithms.
+ * @author Yan Georget
+ */
+public interface DijkstraQueueFactory {
+    /**
+     * Creates a queue.
+     * @param distance the distances to the origin
+     * @param graph the graph
+     * @return a queue
+     */
+    public DijkstraQueue createQueue(float[] distance, NGraph graph);
+}
+/*
+ * $Log$
+ */
@@ -110,6 +110,81 @@ public class DijkstraTest extends TestCase {
         assertEquals(1, dijkstra.getOptimalPaths().size());
         assertTrue(dijkstra.getOptimalCost() == (float) n);
     }
+
+    /**
+     * Tests SinglePathDijkstra on a grid graph without main diagonal,
+     * with a radix heap.
+     */
+    public void testSinglePathDijkstra_GGD_Radix() {
+        cat.info("testSinglePathDijstra_GGD_Radix");
+        int n = 500;
+        AbstractDijkstra dijkstra = new SinglePathDijkstra(new GGD(n));
+        dijkstra.setQueueFactory(IntDijkstraQueue.radixFactory());
+        dijkstra.computeOptimalPaths(0, n*n-1);
+        assertEquals(1, dijkstra.getOptimalPaths().size());
+        assertTrue(dijkstra.getOptimalCost() == (float) n);
+    }
+
+    /**
+     * Tests SinglePathDijkstra on a grid graph without main diagonal,
+     * with a bucket queue.
+     */
+    public void testSinglePathDijkstra_GGD_Bucket() {
+        cat.info("testSinglePathDijstra_GGD_Bucket");
+        int n = 500;
+        AbstractDijkstra dijkstra = new SinglePathDijkstra(new GGD(n));
+        dijkstra.setQueueFactory(IntDijkstraQueue.bucketFactory(1));
+        dijkstra.computeOptimalPaths(0, n*n-1);
+        assertEquals(1, dijkstra.getOptimalPaths().size());
+        assertTrue(dijkstra.getOptimalCost() == (float) n);
+    }
+
+    /**
+     * Tests SinglePathDijkstra on a grid graph without main diagonal,
+     * with a pairing heap.
+     */
+    public void testSinglePathDijkstra_GGD_Pairing() {
+        cat.info("testSinglePathDijstra_GGD_Pairing");
+        int n = 500;
+        AbstractDijkstra dijkstra = new SinglePathDijkstra(new GGD(n));
+        dijkstra.setQueueFactory(PairingDijkstraQueue.factory());
+        dijkstra.computeOptimalPaths(0, n*n-1);
+        assertEquals(1, dijkstra.getOptimalPaths().size());
+        assertTrue(dijkstra.getOptimalCost() == (float) n);
+    }
+
+    /**
+     * Tests Dijkstra with a pairing heap.
+     */
+    public void testDijkstra_Pairing() {
+        cat.info("testDijstra_Pairing");
+        AbstractDijkstra  dijkstra = new Dijkstra(new NGraph(new int[][] {
+            new int[] {2, 3},
+            new int[] {},
+            new int[] {4, 5},
+            new int[] {4},
+            new int[] {1},
+            new int[] {1}
+        }));
+        dijkstra.setQueueFactory(PairingDijkstraQueue.factory());
+        dijkstra.computeOptimalPaths(0, 1);
+        assertEquals(3, dijkstra.getOptimalPaths().size());
+        assertTrue(dijkstra.getOptimalCost() == 3.0f);
+    }
+
+    /**
+     * Tests Dijkstra on a grid graph without main diagonal,
+     * with a radix heap.
+     */
+    public void testDijkstra_GGD_Radix() {
+        cat.info("testDijstra_GGD_Radix");
+        int n = 4;
+        AbstractDijkstra  dijkstra = new Dijkstra(new GGD(n));
+        dijkstra.setQueueFactory(IntDijkstraQueue.radixFactory());
+        dijkstra.computeOptimalPaths(0, n*n-1);
+        assertEquals(2, dijkstra.getOptimalPaths().size());
+        assertTrue(dijkstra.getOptimalCost() == (float) n);
+    }
 }
 /*
  * $Log$
@@ -0,0 +1,18 @@
+package com.koalog.util.graph;
+
+/**
+ * An interface describing visitors of edges 
+ * (see <CODE>Graph.forEachEdge</CODE>).
+ * @author Yan Georget
+ */
+public interface EdgeVisitor {
+    /**
+     * Visits an edge.
+     * @param a the index of the start node of the edge
+     * @param b the index of the end node of the edge
+     */
+    public void visitEdge(int a, int b);
+}
+/*
+ * $Log$
+ */
@@ -3,10 +3,17 @@ package com.koalog.util.graph;
 import java.util.Iterator;
 import java.util.List;
 import java.util.LinkedList;
+import java.util.RandomAccess;
 import org.apache.log4j.Category;
 
 /**
  * A graph represented as an array of lists of nodes.
+ *
+ * <P>Note that the traversals of this graph are not garbage free: 
+ * the edge cursors (see <CODE>edgeCursor</CODE>) create an iterator 
+ * on each (linked) list of edges they are reset on. 
+ * <CODE>IntArrayGraph</CODE> should be used when the algorithms 
+ * visit many nodes repeatedly.</P>
  * @author Yan Georget
  */
 public class FastGraph extends Graph {
@@ -46,7 +53,7 @@ public class FastGraph extends Graph {
         for (int i=0; i<e.length; i++) {
             final int size = e[i].length;
             for (int j=0; j<size; j++) {
-                edges[i].add(new Integer(e[i][j]));
+                edges[i].add(box(e[i][j]));
             }
         }
     }
@@ -57,7 +64,7 @@ public class FastGraph extends Graph {
     /** @see com.koalog.util.graph.Graph */
     public void clear() {
         for (int i=edges.length; --i>=0;) {
-            edges[i].clear();
+            clearEdges(i);
         }
     }
     
@@ -78,36 +85,55 @@ public class FastGraph extends Graph {
      */
     public final void setEdges(int n, List e) {
          edges[n] = e;
+         if (hasGraphListeners()) {
+             fireEdgesCleared(n);
+             for (Iterator i = e.iterator(); i.hasNext();) {
+                 fireEdgeAdded(n, ((Integer) i.next()).intValue());
+             }
+         }
     }
 
     /** @see com.koalog.util.graph.Graph */
     public final void clearEdges(int n) {
          edges[n].clear();
+         if (hasGraphListeners()) {
+             fireEdgesCleared(n);
+         }
     }
     
     /** @see com.koalog.util.graph.Graph */
     public final void removeEdge(int a, int b) {
-        edges[a].remove(new Integer(b));
+        if (edges[a].remove(box(b)) && hasGraphListeners()) {
+            fireEdgeRemoved(a, b);
+        }
     }
 
     /** @see com.koalog.util.graph.Graph */
     public final void removeEdge(int a, Integer b) {
-        edges[a].remove(b);
+        if (edges[a].remove(b) && hasGraphListeners()) {
+            fireEdgeRemoved(a, b.intValue());
+        }
     }
 
     /** @see com.koalog.util.graph.Graph */
     public final void addEdge(int a, int b) {
-        edges[a].add(new Integer(b));
+        edges[a].add(box(b));
+        if (hasGraphListeners()) {
+            fireEdgeAdded(a, b);
+        }
     }
 
     /** @see com.koalog.util.graph.Graph */
     public final void addEdge(int a, Integer b) {
         edges[a].add(b);
+        if (hasGraphListeners()) {
+            fireEdgeAdded(a, b.intValue());
+        }
     }
 
     /** @see com.koalog.util.graph.Graph */
     public final boolean hasEdge(int a, int b) {
-        return edges[a].contains(new Integer(b));
+        return edges[a].contains(box(b));
     }
 
     /** @see com.koalog.util.graph.Graph */
@@ -117,7 +143,7 @@ public class FastGraph extends Graph {
 
     /** @see com.koalog.util.graph.Graph */
     public final void addEdgeIfNecessary(int a, int b) {
-        addEdgeIfNecessary(a, new Integer(b));
+        addEdgeIfNecessary(a, box(b));
     }
 
     /** @see com.koalog.util.graph.Graph */
@@ -127,6 +153,57 @@ public class FastGraph extends Graph {
         }
     }
 
+    /** @see com.koalog.util.graph.Graph */
+    public final int degree(int n) {
+        return edges[n].size();
+    }
+
+    /** @see com.koalog.util.graph.Graph */
+    public final void forEachEdge(int n, EdgeVisitor visitor) {
+        for (Iterator i = edges[n].iterator(); i.hasNext();) {
+            visitor.visitEdge(n, ((Integer) i.next()).intValue());
+        }
+    }
+
+    /** 
+     * Creates a cursor on the edges of the graph.
+     *
+     * <P>Note that resetting the cursor on a list of edges 
+     * which is not a <CODE>RandomAccess</CODE> list 
+     * (such as the default <CODE>LinkedList</CODE>) 
+     * creates an iterator on this list.</P>
+     * @return a cursor
+     */
+    public final IntEdgeCursor edgeCursor() {
+        return new IntEdgeCursor() {
+                List l;
+                Iterator i;
+                int index;
+                int end;
+
+                public void reset(int n) {
+                    l = edges[n];
+                    if (l instanceof RandomAccess) {
+                        i = null;
+                        index = 0;
+                        end = l.size();
+                    } else {
+                        i = l.iterator();
+                    }
+                }
+
+                public boolean hasNext() {
+                    return i == null ? index < end : i.hasNext();
+                }
+
+                public int next() {
+                    return ((Integer) (i == null 
+                                       ? l.get(index++) 
+                                       : i.next())).intValue();
+                }
+            };
+    }
+
     /**
      * Returns the graph as a string.
      * @return a string
@@ -116,6 +116,30 @@ public class FastGraphTest extends TestCase {
         assertEquals(6, g.getSCCNb());
     }
 
+    /**
+     * Tests the SCC of long paths 
+     * (without calling computeTremaux first).
+     */
+    public void testSCC4() {
+        cat.info("testSCC4");
+        final int n = 100000;
+        FastGraph g = new FastGraph(n);
+        for (int i=0; i<n-1; i++) {
+            g.addEdge(i, i+1);
+        }
+        g.computeSCC();
+        assertEquals(n, g.getSCCNb());
+        assertEquals(n-1, g.getTremaux(n-1));
+        assertEquals(0, g.getSCC(n-1));
+        assertEquals(n-1, g.getSCC(0));
+        g.addEdge(n-1, 0);
+        g.computeSCC();
+        assertEquals(1, g.getSCCNb());
+        assertTrue(g.sameSCC(0, n-1));
+        g.computeTremaux();
+        assertEquals(n-1, g.getTremaux(n-1));
+    }
+
     /**
      * Tests computeTremaux.
      */
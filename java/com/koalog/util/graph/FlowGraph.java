@@ -28,6 +28,8 @@ public class FlowGraph extends FastGraph {
     boolean[][] plus;
     boolean[][] minus;
     int nodesNb1;
+    /** A cursor on the residual graph. */
+    private IntEdgeCursor resCursor;
 
     //------------------------------------------------------------------------
     // CONSTRUCTORS
@@ -45,7 +47,8 @@ public class FlowGraph extends FastGraph {
         cap = new int[n][n];
         flow = new int[n][n];
         resCap = new int[n][n];
-        resGraph = new FastGraph(n);
+        resGraph = new IntArrayGraph(n, true);
+        resCursor = resGraph.edgeCursor();
     }
 
 
@@ -147,8 +150,8 @@ public class FlowGraph extends FastGraph {
      * Computes a maximal flow.
      */
     public final void maximalFlow() {
-        LinkedList path;
-        while ((path = augmentingPath(nodesNb1, 0)) != null) {
+        int[] path;
+        while ((path = findAugmentingPath(nodesNb1, 0)) != null) {
             augmentFlow(nodesNb1, 0, path);
         }
     }
@@ -174,7 +177,7 @@ public class FlowGraph extends FastGraph {
             for (Iterator j = getEdgesIterator(i); j.hasNext();) {
                 final int x = ((Integer) j.next()).intValue();
                 while (flow[i][x] < low[i][x]) { // the arc is infeasible
-                    final LinkedList path = augmentingPath(x, i);
+                    final int[] path = findAugmentingPath(x, i);
                     if (path == null) {
                         return false;
                     }
@@ -198,6 +201,16 @@ public class FlowGraph extends FastGraph {
             p[j] = ((Integer) path.get(j)).intValue();
         }
         p[size] = y;
+        augmentFlow(x, y, p);
+    }
+
+    /** 
+     * Augments the flow along a path in the residual graph.
+     * @param x the start node
+     * @param y the end node
+     * @param p a path from x to y, as an array of nodes
+     */
+    protected final void augmentFlow(int x, int y, int[] p) {
         final int val = Math.min(residualCapacity(p), resCap[y][x]);
         flow[y][x] += val;
         updateResidualGraph(y, x);
@@ -332,22 +345,38 @@ public class FlowGraph extends FastGraph {
      * @return a path
      */
     public final LinkedList augmentingPath(int ix, int iy) {
+        final int[] p = findAugmentingPath(ix, iy);
+        if (p == null) {
+            return null;
+        }
+        final LinkedList path = new LinkedList();
+        for (int k=0; k<p.length-1; k++) {
+            path.addLast(box(p[k]));
+        }
+        return path;
+    }
+
+    /**
+     * Returns an augmenting path between two nodes
+     * (using the search engine of the residual graph).
+     * @param ix a node index
+     * @param iy a node index
+     * @return a path from ix to iy, as an array of nodes
+     */
+    private final int[] findAugmentingPath(int ix, int iy) {
         if (flow[iy][ix] < cap[iy][ix]) {
-            final Integer ixo = new Integer(ix);
-            final Integer[] parent = new Integer[nodesNb];
-            final boolean[] reachable = new boolean[nodesNb];
-            reachable[ix] = true;
-            final LinkedList frontier = new LinkedList();
-            for (Iterator i = resGraph.getEdgesIterator(ix); i.hasNext();) {
-                final Integer z = (Integer) i.next();
-                final int iz = z.intValue();
+            final BreadthFirstSearch s = resGraph.getSearch();
+            s.clear();
+            s.mark(ix);
+            for (resCursor.reset(ix); resCursor.hasNext();) {
+                final int iz = resCursor.next();
                 if (iz != iy) { // we want path different from x->y
-                    reachable[iz] = true;
-                    frontier.addLast(z);
-                    parent[iz] = ixo;
+                    s.addSource(iz, ix);
                 }
             }
-            return resGraph.computePath(frontier, iy, reachable, parent);
+            if (s.search(iy)) {
+                return s.getPath(iy);
+            }
         } 
         return null;
     }
@@ -29,6 +29,20 @@ public abstract class Graph {
     protected int[] tremaux;
     private int tremauxNum;
     private int[] at;
+    /** The stack of the depth first searches (created on demand). */
+    private int[] path;
+    /** The stack of the Tarjan algorithm (created on demand). */
+    private int[] stack;
+    /** The cursors used by the algorithms, indexed by recursion depth. */
+    private IntEdgeCursorPool cursors;
+    /** The Integer instances of the nodes, created on demand. */
+    private Integer[] boxes;
+    /** The matching engine, created on demand. */
+    private HopcroftKarp matcher;
+    /** The breadth first search engine, created on demand. */
+    private BreadthFirstSearch search;
+    /** The listeners of the graph (null if there is none). */
+    private GraphListener[] listeners;
 
     //------------------------------------------------------------------------
     // CONSTRUCTORS
@@ -155,61 +169,178 @@ public abstract class Graph {
      */
     public abstract void addEdgeIfNecessary(int a, Integer b);
 
+    /**
+     * Returns the number of edges adjacent to a given node.
+     * @param n a node
+     * @return an integer
+     */
+    public abstract int degree(int n);
+
+    /**
+     * Visits the edges adjacent to a given node.
+     * @param n a node
+     * @param visitor an edge visitor
+     */
+    public abstract void forEachEdge(int n, EdgeVisitor visitor);
+
+    /**
+     * Creates a cursor on the edges of the graph.
+     * @return a cursor
+     */
+    public abstract IntEdgeCursor edgeCursor();
+
     //------------------------------------------------------------------------
-    // METHODS (FOR MATCHING)
+    // METHODS
     //------------------------------------------------------------------------
     /**
-     * A greedy matching method.
-     * @param firstEnd the first index of end nodes
-     * @return a map mapping end nodes to start nodes
+     * Returns the cursor used at a given recursion depth.
+     * @param depth a depth
+     * @return a cursor
      */
-    public final Map greedyMatching(int firstEnd) {
-        final Map matching = new HashMap(nodesNb-firstEnd);
-        for (int u=0; u<firstEnd; u++) {
-            for (Iterator j = getEdgesIterator(u); j.hasNext();) {
-                final Object v = j.next();
-                if (!matching.containsKey(v)) {
-                    matching.put(v, new Integer(u));
-                    break;
-                }
+    private final IntEdgeCursor cursor(int depth) {
+        if (cursors == null) {
+            cursors = new IntEdgeCursorPool(this);
+        }
+        return cursors.get(depth);
+    }
+
+    /**
+     * Returns the Integer instance of a node 
+     * (the same instance is returned for a given node).
+     * @param n a node
+     * @return an Integer
+     */
+    final Integer box(int n) {
+        if (boxes == null) {
+            boxes = new Integer[nodesNb];
+            for (int i=nodesNb; --i>=0;) {
+                boxes[i] = new Integer(i);
             }
-        } 
-        return matching;
+        }
+        return boxes[n];
     }
 
     /**
-     * Recursively searchs backward through layers to find alternating paths.
-     * @param preds a map
-     * @param pred a map
-     * @param unmatched a list
-     * @param matching a map
-     * @param v an integer 
-     * @return true if found path, false otherwise
-     */
-    private final boolean recurse(Map preds, 
-                                  Map pred, 
-                                  List unmatched, 
-                                  Map matching, 
-                                  Object v) {
-        if (preds.containsKey(v)) {
-            final List l = (List) preds.remove(v);
-            for (Iterator i = l.iterator(); i.hasNext();) {
-                final Object u = i.next();
-                if (pred.containsKey(u)) {
-                    final Object pu = pred.remove(u);
-                    if (pu.equals(unmatched) // hack
-                        || recurse(preds, 
-                                   pred, 
-                                   unmatched, 
-                                   matching, 
-                                   pu)) {
-                        matching.put(v, u);
-                        return true;
-                    }
+     * Adds a listener of the modifications of the graph.
+     *
+     * <P>Note that all the implementations of the graph 
+     * which can be modified notify the listeners 
+     * (<CODE>FastGraph</CODE>, <CODE>IntArrayGraph</CODE>, 
+     * <CODE>MatrixGraph</CODE> and <CODE>BitMatrixGraph</CODE>); 
+     * <CODE>CsrGraph</CODE> cannot be modified.</P>
+     * @param l a listener
+     */
+    public final void addGraphListener(GraphListener l) {
+        final int size = listeners == null ? 0 : listeners.length;
+        final GraphListener[] tmp = new GraphListener[size + 1];
+        if (size > 0) {
+            System.arraycopy(listeners, 0, tmp, 0, size);
+        }
+        tmp[size] = l;
+        listeners = tmp;
+    }
+
+    /**
+     * Removes a listener of the modifications of the graph.
+     * @param l a listener
+     */
+    public final void removeGraphListener(GraphListener l) {
+        if (listeners == null) {
+            return;
+        }
+        final int size = listeners.length;
+        for (int i=0; i<size; i++) {
+            if (listeners[i] == l) {
+                if (size == 1) {
+                    listeners = null;
+                } else {
+                    final GraphListener[] tmp = new GraphListener[size - 1];
+                    System.arraycopy(listeners, 0, tmp, 0, i);
+                    System.arraycopy(listeners, i+1, tmp, i, size-i-1);
+                    listeners = tmp;
                 }
+                return;
             }
         }
-        return false;
+    }
+
+    /**
+     * Checks if the graph has listeners.
+     * @return a boolean
+     */
+    protected final boolean hasGraphListeners() {
+        return listeners != null;
+    }
+
+    /**
+     * Notifies the listeners that an edge has been added.
+     * @param a the index of the start node of the edge
+     * @param b the index of the end node of the edge
+     */
+    protected final void fireEdgeAdded(int a, int b) {
+        final GraphListener[] ls = listeners;
+        for (int i=0; i<ls.length; i++) {
+            ls[i].edgeAdded(this, a, b);
+        }
+    }
+
+    /**
+     * Notifies the listeners that an edge has been removed.
+     * @param a the index of the start node of the edge
+     * @param b the index of the end node of the edge
+     */
+    protected final void fireEdgeRemoved(int a, int b) {
+        final GraphListener[] ls = listeners;
+        for (int i=0; i<ls.length; i++) {
+            ls[i].edgeRemoved(this, a, b);
+        }
+    }
+
+    /**
+     * Notifies the listeners that the edges adjacent to a node 
+     * have been removed.
+     * @param a the index of the node
+     */
+    protected final void fireEdgesCleared(int a) {
+        final GraphListener[] ls = listeners;
+        for (int i=0; i<ls.length; i++) {
+            ls[i].edgesCleared(this, a);
+        }
+    }
+
+    //------------------------------------------------------------------------
+    // METHODS (FOR MATCHING)
+    //------------------------------------------------------------------------
+    /**
+     * Returns the matching engine of the graph.
+     *
+     * <P>The same engine is always returned: 
+     * when the first index of end nodes changes, 
+     * its matching is emptied, 
+     * but its heuristic (see <CODE>HopcroftKarp.setHeuristic</CODE>) 
+     * and its counters are kept.</P>
+     * @param firstEnd the first index of end nodes
+     * @return a matching engine
+     */
+    public final HopcroftKarp getMatcher(int firstEnd) {
+        if (matcher == null) {
+            matcher = new HopcroftKarp(this, firstEnd);
+        } else if (matcher.getFirstEnd() != firstEnd) {
+            matcher.setFirstEnd(firstEnd);
+        }
+        return matcher;
+    }
+
+    /**
+     * A greedy matching method.
+     * @param firstEnd the first index of end nodes
+     * @return a map mapping end nodes to start nodes
+     */
+    public final Map greedyMatching(int firstEnd) {
+        final HopcroftKarp m = getMatcher(firstEnd);
+        m.clear();
+        m.greedy();
+        return m.toMap(new HashMap(nodesNb-firstEnd));
     }
 
     /**
@@ -218,103 +349,106 @@ public abstract class Graph {
      * @return a map mapping end nodes to start nodes
      */
     public final Map maximumMatching(int firstEnd) {
-        return maximumMatching(firstEnd, greedyMatching(firstEnd));
+        final HopcroftKarp m = getMatcher(firstEnd);
+        m.compute();
+        return m.toMap(new HashMap(nodesNb-firstEnd));
     }
 
     /**
      * A maximum matching method (Hopcroft-Karp algorithm).
+     *
+     * <P>Note that the matching engine of the graph is used 
+     * (see <CODE>getMatcher</CODE>): 
+     * when the initial matching is empty, 
+     * it is computed by the heuristic of the engine.</P>
      * @param firstEnd the first index of end nodes
-     * @param matching an initial matching
+     * @param matching an initial matching, 
+     * which is modified and returned
      * @return a map mapping end nodes to start nodes
      */
     public final Map maximumMatching(int firstEnd, Map matching) {
-        // structure residual graph into layers
-        // pred[u] gives the neighbor in the previous layer 
-        // for start node u 
-        final Map pred = new HashMap(firstEnd);
-        // preds[v] gives a list of neighbors in the previous layer 
-        // for end node v 
-        final Map preds = new HashMap(nodesNb-firstEnd);
-        // unmatched gives a list of unmatched vertices 
-        // in final layer of end nodes,
-        // and is also used as a flag value for pred[u] 
-        // when u is in the first layer
-        final List unmatched = new LinkedList();
-        final Map newLayer = new HashMap(nodesNb-firstEnd);
-        while (true) {
-            pred.clear();
-            preds.clear();
-            unmatched.clear();
-            for (int u=firstEnd; --u>=0;) {
-                pred.put(new Integer(u), unmatched); 
-            }
-            for (Iterator u = matching.values().iterator(); u.hasNext();) {
-                pred.remove(u.next());
-            }
-            final List layer = new LinkedList(pred.keySet());
-            // repeatedly extend layering structure by another pair of layers
-            while (!layer.isEmpty() && unmatched.isEmpty()) {
-                newLayer.clear();
-                for (Iterator i=layer.iterator(); i.hasNext();) {
-                    final Integer u = (Integer) i.next();
-                    for (Iterator j = getEdgesIterator(u.intValue()); 
-                         j.hasNext();) {
-                        final Object v = j.next();
-                        if (!preds.containsKey(v)) {
-                            final List l = new LinkedList();
-                            l.add(u);
-                            newLayer.put(v, l);
-                        }
-                    }
-                }
-                layer.clear(); 
-                for (Iterator j=newLayer.keySet().iterator(); j.hasNext();) {
-                    final Object v = j.next();
-                    preds.put(v, newLayer.get(v));
-                    if (matching.containsKey(v)) {
-                        final Object m = matching.get(v);
-                        layer.add(m);
-                        pred.put(m, v);
-                    } else {
-                        unmatched.add(v);
-                    }
-                }
-            }
-            // did we finish layering without finding any alternating paths?
-            if (unmatched.isEmpty()) {
-                return matching;
-            } else {
-                for (Iterator v = unmatched.iterator(); v.hasNext();) {
-                    recurse(preds, 
-                            pred, 
-                            unmatched, 
-                            matching, 
-                            v.next());
-                }
-            }
+        final HopcroftKarp m = getMatcher(firstEnd);
+        if (matching.isEmpty()) {
+            m.compute();
+        } else {
+            m.fromMap(matching);
+            m.maximize();
         }
-        
+        return m.toMap(matching);
+    }
+
+    /**
+     * A maximum matching method (Hopcroft-Karp algorithm), 
+     * whose initial matching is computed by a heuristic 
+     * from a given matching 
+     * (see <CODE>MatchingHeuristic</CODE>: 
+     * for example, <CODE>HopcroftKarp.previousHeuristic</CODE> 
+     * keeps the pairs which are still edges).
+     * @param firstEnd the first index of end nodes
+     * @param matching a matching, which is modified and returned
+     * @param heuristic a heuristic, null for the default (greedy) one
+     * @return a map mapping end nodes to start nodes
+     */
+    public final Map maximumMatching(int firstEnd, 
+                                     Map matching, 
+                                     MatchingHeuristic heuristic) {
+        final HopcroftKarp m = getMatcher(firstEnd);
+        m.fromMap(matching);
+        m.compute(heuristic);
+        return m.toMap(matching);
     }
 
     //------------------------------------------------------------------------
     // METHODS (FOR PATHS)
     //------------------------------------------------------------------------
+    /**
+     * Returns the breadth first search engine of the graph.
+     * @return a breadth first search engine
+     */
+    public final BreadthFirstSearch getSearch() {
+        if (search == null) {
+            search = new BreadthFirstSearch(this);
+        }
+        return search;
+    }
+
     /**
      * Computes a path (no cycle allowed, BFS) 
      * from a set of nodes to a node.
+     *
+     * <P>Note that the search engine of the graph is used 
+     * (see <CODE>getSearch</CODE>), the frontier is not modified.</P>
      * @param frontier the nodes we are starting from
      * @param node the goal node
      * @return a path as a list of nodes
      */
     public final LinkedList computePath(LinkedList frontier, int node) {
-        boolean[] reachable =  new boolean[nodesNb];
+        final BreadthFirstSearch s = getSearch();
+        s.clear();
         for (Iterator i = frontier.iterator(); i.hasNext();) {
-            reachable[((Integer) i.next()).intValue()] = true;
+            s.addSource(((Integer) i.next()).intValue());
+        }
+        if (s.search(node)) {
+            final LinkedList path = new LinkedList();
+            for (int p = s.getParent(node); p != -1; p = s.getParent(p)) {
+                path.addFirst(box(p));
+            }
+            return path;
+        } else {
+            return null;
         }
-        return computePath(frontier, 
-                           node, 
-                           reachable, 
-                           new Integer[nodesNb]);
+    }
+
+    /**
+     * Computes a shortest path between two nodes
+     * (see <CODE>BreadthFirstSearch.computePath</CODE>).
+     * @param source a node
+     * @param goal a node
+     * @return an array of nodes from the source to the goal,
+     * null if there is none
+     */
+    public final int[] computePath(int source, int goal) {
+        return getSearch().computePath(source, goal);
     }
 
     /**
@@ -358,18 +492,19 @@ public abstract class Graph {
                                  int goal, 
                                  boolean[] reachable, 
                                  Integer[] parent) {
+        final IntEdgeCursor c = cursor(0);
         while (!frontier.isEmpty()) {
             final Integer node = (Integer) frontier.removeFirst();
-            for (Iterator i = getEdgesIterator(node.intValue()); i.hasNext();) {
-                final Integer no = (Integer) i.next();
-                final int n = no.intValue();
+            c.reset(node.intValue());
+            while (c.hasNext()) {
+                final int n = c.next();
                 if (!reachable[n]) {
                     parent[n] = node;
                     if (n == goal) {
                         return true;
                     } else {
                         reachable[n] = true;
-                        frontier.addLast(no); 
+                        frontier.addLast(box(n)); 
                     }
                 }
             }
@@ -391,36 +526,50 @@ public abstract class Graph {
 
     /**
      * Computes the Tremaux ordinals.
+     *
+     * <P>The depth first search is iterative 
+     * (it does not overflow the stack on long paths).</P>
      */
     public final void computeTremaux() {
         for (int i=nodesNb; --i>=0;) {
             tremaux[i] = -1;
         }
         tremauxNum = 0;
-        int i;
-        while ((i = freeIndex()) != -1) {
-            computeTremaux(i);
-        }
-        //cat.info("tremaux computed");
-    }
-
-    private final int freeIndex() {
-        for (int i=0; i<nodesNb; i++) {
-            if (tremaux[i] == -1) {
-                return i;
+        final int[] path = path();
+        for (int r=0; r<nodesNb; r++) {
+            if (tremaux[r] != -1) {
+                continue;
+            }
+            int depth = 0;
+            path[0] = r;
+            tremaux[r] = tremauxNum++;
+            cursor(0).reset(r);
+            while (depth >= 0) {
+                final IntEdgeCursor c = cursor(depth);
+                if (c.hasNext()) {
+                    final int v = c.next();
+                    if (tremaux[v] == -1) {
+                        path[++depth] = v;
+                        tremaux[v] = tremauxNum++;
+                        cursor(depth).reset(v);
+                    }
+                } else {
+                    depth--;
+                }
             }
         }
-        return -1;
+        //cat.info("tremaux computed");
     }
 
-    private final void computeTremaux(int i) {
-        tremaux[i] = tremauxNum++;
-        for (Iterator j = getEdgesIterator(i); j.hasNext();) {
-            final int n = ((Integer) j.next()).intValue();
-            if (tremaux[n] == -1) {
-                computeTremaux(n);
-            }
+    /**
+     * Returns the buffer used as the stack of the depth first searches.
+     * @return an array of integers
+     */
+    private final int[] path() {
+        if (path == null) {
+            path = new int[nodesNb];
         }
+        return path;
     }
 
     //------------------------------------------------------------------------
@@ -429,21 +578,77 @@ public abstract class Graph {
     /**
      * Computes the SCC (Tarjan algorithm).
      * 
-     * <P>Needs a call to <CODE>computeTremaux</CODE>.
+     * <P>The Tremaux ordinals are computed as well 
+     * (there is no need to call <CODE>computeTremaux</CODE> first).
+     * The depth first search is iterative 
+     * (it does not overflow the stack on long paths) 
+     * and its buffers are reused from one call to the next.</P>
      */
     public final void computeSCC() {
         for (int i=nodesNb; --i>=0;) {
-            scc[i] = at[i] = -1;
+            tremaux[i] = scc[i] = -1;
         }
+        tremauxNum = 0;
         sccNb = 0;
-        for (int i=0; i<nodesNb; i++) {
-            if (scc[i] == -1 && at[tremaux[i]] == -1) {
-                at(i, tremaux[i], at);
+        final int[] path = path();
+        if (stack == null) {
+            stack = new int[nodesNb];
+        }
+        for (int r=0; r<nodesNb; r++) {
+            if (tremaux[r] == -1) {
+                computeSCC(r, path);
             }
         }
         //cat.info("scc computed");
     }
 
+    /**
+     * Computes the SCC of the nodes reachable from a root.
+     * 
+     * <P><CODE>at[u]</CODE> is the smallest Tremaux ordinal 
+     * of a node of the stack reachable from <CODE>u</CODE>.</P>
+     * @param r the root
+     * @param path the buffer for the depth first search
+     */
+    private final void computeSCC(int r, int[] path) {
+        int sp = 0;
+        int depth = 0;
+        path[0] = r;
+        tremaux[r] = at[r] = tremauxNum++;
+        stack[sp++] = r;
+        cursor(0).reset(r);
+        while (depth >= 0) {
+            final int u = path[depth];
+            final IntEdgeCursor c = cursor(depth);
+            if (c.hasNext()) {
+                final int v = c.next();
+                if (tremaux[v] == -1) {
+                    path[++depth] = v;
+                    tremaux[v] = at[v] = tremauxNum++;
+                    stack[sp++] = v;
+                    cursor(depth).reset(v);
+                } else if (scc[v] == -1 && at[v] < at[u]) {
+                    at[u] = at[v];
+                }
+            } else {
+                if (at[u] == tremaux[u]) {
+                    int w;
+                    do {
+                        w = stack[--sp];
+                        scc[w] = sccNb;
+                    } while (w != u);
+                    sccNb++;
+                }
+                if (--depth >= 0) {
+                    final int p = path[depth];
+                    if (at[u] < at[p]) {
+                        at[p] = at[u];
+                    }
+                }
+            }
+        }
+    }
+
     /**
      * Returns the ordinal (arbitrary) 
      * of the SCC corresponding to this node (index).
@@ -463,36 +668,6 @@ public abstract class Graph {
     public final boolean sameSCC(int i, int j) {
         return scc[i] == scc[j];
     }
-    
-    private final void at(int u, int tu, int[] at) {
-        at[tu] = tu;
-        for (Iterator k = getEdgesIterator(u); k.hasNext();) {
-            final int v = ((Integer) k.next()).intValue();
-            final int tv = tremaux[v];
-            if (at[tv] == -1) {
-                at(v, tv, at);
-                if (at[tv] < at[tu]) {
-                    at[tu] = at[tv];
-                }
-            } else if (scc[v] == -1 && at[tv] < at[tu]) {
-                at[tu] = at[tv];
-            }
-        }
-        if (tremaux[u] == at[tu]) {
-            sccNb++;
-            mark(u, tu);
-        }
-    }
-    
-    private final void mark(int u, int tu) {
-        scc[u] = sccNb-1;
-        for (Iterator k = getEdgesIterator(u); k.hasNext();) {
-            final int v = ((Integer) k.next()).intValue();
-            if (tremaux[v] > tu && scc[v] == -1) {
-                mark(v, tremaux[v]);
-            }
-        }
-    }
 }
 /*
  * $Log$
@@ -0,0 +1,36 @@
+package com.koalog.util.graph;
+
+/**
+ * An interface describing listeners of the modifications of a graph
+ * (see <CODE>Graph.addGraphListener</CODE>).
+ *
+ * <P>The listeners are called after the modification.</P>
+ * @author Yan Georget
+ */
+public interface GraphListener {
+    /**
+     * Called when an edge has been added.
+     * @param g the graph
+     * @param a the index of the start node of the edge
+     * @param b the index of the end node of the edge
+     */
+    public void edgeAdded(Graph g, int a, int b);
+
+    /**
+     * Called when an edge has been removed.
+     * @param g the graph
+     * @param a the index of the start node of the edge
+     * @param b the index of the end node of the edge
+     */
+    public void edgeRemoved(Graph g, int a, int b);
+
+    /**
+     * Called when the edges adjacent to a node have been removed.
+     * @param g the graph
+     * @param a the index of the node
+     */
+    public void edgesCleared(Graph g, int a);
+}
+/*
+ * $Log$
+ */
@@ -29,6 +29,46 @@ public class GraphTest extends TestCase {
     //------------------------------------------------------------------------
     // METHODS
     //------------------------------------------------------------------------
+    /**
+     * Tests degree, forEachEdge and the edge cursors 
+     * of the implementations of Graph.
+     */
+    public void testEdgeCursor() {
+        cat.info("testEdgeCursor");
+        int[][] e = new int[][] {
+            new int[] {1,3},
+            new int[] {},
+            new int[] {0,1,2,3},
+            new int[] {2}
+        };
+        Graph[] graphs = new Graph[] {
+            new FastGraph(e), new MatrixGraph(e), new CsrGraph(e)
+        };
+        for (int g=0; g<graphs.length; g++) {
+            final Graph graph = graphs[g];
+            final IntEdgeCursor c = graph.edgeCursor();
+            for (int i=0; i<e.length; i++) {
+                assertEquals(e[i].length, graph.degree(i));
+                c.reset(i);
+                for (int j=0; j<e[i].length; j++) {
+                    assertTrue(c.hasNext());
+                    assertEquals(e[i][j], c.next());
+                }
+                assertFalse(c.hasNext());
+                final int[] count = new int[1];
+                final int node = i;
+                graph.forEachEdge(i, new EdgeVisitor() {
+                        public void visitEdge(int a, int b) {
+                            assertEquals(node, a);
+                            assertTrue(graph.hasEdge(a, b));
+                            count[0]++;
+                        }
+                    });
+                assertEquals(e[i].length, count[0]);
+            }
+        }
+    }
+
     /**
      * Tests the greedy matching.
      */
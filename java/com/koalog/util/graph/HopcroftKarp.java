@@ -0,0 +1,487 @@
+package com.koalog.util.graph;
+
+import java.util.Iterator;
+import java.util.Map;
+import org.apache.log4j.Category;
+
+/**
+ * A maximum matching engine (Hopcroft-Karp algorithm)
+ * for a bipartite graph whose edges go from the start nodes
+ * (the nodes smaller than <CODE>firstEnd</CODE>)
+ * to the end nodes (the other nodes).
+ *
+ * <P>The matching is an array of integers:
+ * <CODE>mate[u]</CODE> is the node matched with <CODE>u</CODE>,
+ * -1 if <CODE>u</CODE> is free.
+ * All the buffers are allocated once,
+ * so that the engine can be called repeatedly without creating objects
+ * (the augmenting paths are searched iteratively).</P>
+ * @author Yan Georget
+ */
+public class HopcroftKarp {
+    //------------------------------------------------------------------------
+    // STATIC PROPERTIES
+    //------------------------------------------------------------------------
+    private static Category cat = Category.getInstance(HopcroftKarp.class);
+    private static final int INFINITY = Integer.MAX_VALUE;
+
+    //------------------------------------------------------------------------
+    // PROPERTIES
+    //------------------------------------------------------------------------
+    private Graph graph;
+    private int firstEnd;
+    /** The matching. */
+    private int[] mate;
+    /** The size of the matching. */
+    private int size;
+    /** The layer of each start node. */
+    private int[] dist;
+    private int[] queue;
+    /** The start nodes of the current path. */
+    private int[] lpath;
+    /** The end nodes of the current path. */
+    private int[] rpath;
+    private IntEdgeCursorPool cursors;
+    /** The start nodes visited by augmentFrom (when equal to gen). */
+    private int[] stamp;
+    private int gen;
+    /** The heuristic computing the initial matching (null for greedy). */
+    private MatchingHeuristic heuristic;
+    /** The size of the last initial matching. */
+    private int initialSize;
+    /** The number of augmentations. */
+    private int augmentations;
+    /** The number of phases. */
+    private int phases;
+
+    //------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //------------------------------------------------------------------------
+    /**
+     * Constructs a matching engine (with an empty matching).
+     * @param graph a bipartite graph
+     * @param firstEnd the first index of end nodes
+     */
+    public HopcroftKarp(Graph graph, int firstEnd) {
+        this.graph = graph;
+        this.firstEnd = firstEnd;
+        final int n = graph.getNodesNb();
+        mate = new int[n];
+        dist = new int[firstEnd];
+        queue = new int[firstEnd];
+        lpath = new int[firstEnd];
+        rpath = new int[firstEnd];
+        stamp = new int[firstEnd];
+        cursors = new IntEdgeCursorPool(graph);
+        clear();
+    }
+
+    //------------------------------------------------------------------------
+    // ACCESSORS
+    //------------------------------------------------------------------------
+    /**
+     * Sets the first index of end nodes, emptying the matching 
+     * (the heuristic and the counters are kept).
+     * @param firstEnd the first index of end nodes
+     */
+    public final void setFirstEnd(int firstEnd) {
+        if (firstEnd != this.firstEnd) {
+            this.firstEnd = firstEnd;
+            dist = new int[firstEnd];
+            queue = new int[firstEnd];
+            lpath = new int[firstEnd];
+            rpath = new int[firstEnd];
+            stamp = new int[firstEnd];
+        }
+        clear();
+    }
+
+    /**
+     * Returns the graph.
+     * @return a graph
+     */
+    public final Graph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Returns the first index of end nodes.
+     * @return an integer
+     */
+    public final int getFirstEnd() {
+        return firstEnd;
+    }
+
+    /**
+     * Returns the matching (the array is not copied).
+     * @return an array of integers
+     */
+    public final int[] getMate() {
+        return mate;
+    }
+
+    /**
+     * Returns the size of the matching.
+     * @return an integer
+     */
+    public final int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the number of augmenting paths found so far.
+     * @return an integer
+     */
+    public final int getAugmentations() {
+        return augmentations;
+    }
+
+    /**
+     * Returns the number of phases (sets of shortest augmenting paths) 
+     * performed so far.
+     * @return an integer
+     */
+    public final int getPhases() {
+        return phases;
+    }
+
+    /**
+     * Returns the size of the initial matching of the last computation,
+     * ie the number of augmentations saved by the heuristic.
+     * @return an integer
+     */
+    public final int getInitialSize() {
+        return initialSize;
+    }
+
+    /**
+     * Sets the heuristic computing the initial matching.
+     * @param heuristic a heuristic, null for the default (greedy) one
+     */
+    public final void setHeuristic(MatchingHeuristic heuristic) {
+        this.heuristic = heuristic;
+    }
+
+    /**
+     * Returns the heuristic computing the initial matching.
+     * @return a heuristic, null for the default (greedy) one
+     */
+    public final MatchingHeuristic getHeuristic() {
+        return heuristic;
+    }
+
+    //------------------------------------------------------------------------
+    // STATIC METHODS
+    //------------------------------------------------------------------------
+    /**
+     * Returns a heuristic matching each start node, in index order,
+     * with its first free end node (the default heuristic).
+     * @return a heuristic
+     */
+    public static MatchingHeuristic greedyHeuristic() {
+        return new MatchingHeuristic() {
+                public int initialize(HopcroftKarp matcher) {
+                    matcher.clear();
+                    return matcher.greedy();
+                }
+            };
+    }
+
+    /**
+     * Returns a heuristic starting from the previous matching:
+     * the pairs which are still edges are kept, 
+     * then the matching is extended greedily.
+     * @return a heuristic
+     */
+    public static MatchingHeuristic previousHeuristic() {
+        return new MatchingHeuristic() {
+                public int initialize(HopcroftKarp matcher) {
+                    final Graph g = matcher.getGraph();
+                    final int[] mate = matcher.getMate();
+                    for (int u=matcher.getFirstEnd(); --u>=0;) {
+                        if (mate[u] != -1 && !g.hasEdge(u, mate[u])) {
+                            matcher.unmatch(u);
+                        }
+                    }
+                    return matcher.greedy();
+                }
+            };
+    }
+
+    /**
+     * Returns a heuristic matching the start nodes 
+     * by increasing degree, with their free end node of minimum degree
+     * (see <CODE>MinDegreeHeuristic</CODE>).
+     * @return a heuristic
+     */
+    public static MatchingHeuristic minDegreeHeuristic() {
+        return new MinDegreeHeuristic();
+    }
+
+    /**
+     * Returns the Karp-Sipser heuristic 
+     * (see <CODE>KarpSipserHeuristic</CODE>).
+     * @return a heuristic
+     */
+    public static MatchingHeuristic karpSipserHeuristic() {
+        return new KarpSipserHeuristic();
+    }
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /**
+     * Empties the matching.
+     */
+    public final void clear() {
+        for (int i=mate.length; --i>=0;) {
+            mate[i] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Matches two (free) nodes.
+     * @param u a start node
+     * @param v an end node
+     */
+    public final void match(int u, int v) {
+        mate[u] = v;
+        mate[v] = u;
+        size++;
+    }
+
+    /**
+     * Unmatches a node (if it is matched).
+     * @param u a node
+     */
+    public final void unmatch(int u) {
+        final int v = mate[u];
+        if (v != -1) {
+            mate[u] = mate[v] = -1;
+            size--;
+        }
+    }
+
+    /**
+     * Extends the matching greedily: each free start node
+     * is matched with its first free end node.
+     * @return the size of the matching
+     */
+    public final int greedy() {
+        final IntEdgeCursor c = cursors.get(0);
+        for (int u=0; u<firstEnd; u++) {
+            if (mate[u] != -1) {
+                continue;
+            }
+            for (c.reset(u); c.hasNext();) {
+                final int v = c.next();
+                if (mate[v] == -1) {
+                    match(u, v);
+                    break;
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Extends the matching to a maximum matching.
+     * @return the size of the matching
+     */
+    public final int maximize() {
+        while (layer()) {
+            phases++;
+            for (int u=0; u<firstEnd; u++) {
+                if (mate[u] == -1 && augment(u)) {
+                    size++;
+                    augmentations++;
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Computes a maximum matching, 
+     * starting from the matching computed by the heuristic
+     * (see <CODE>setHeuristic</CODE>).
+     * @return the size of the matching
+     */
+    public final int compute() {
+        return compute(heuristic);
+    }
+
+    /**
+     * Computes a maximum matching, 
+     * starting from the matching computed by a given heuristic.
+     * @param h a heuristic, null for the default (greedy) one
+     * @return the size of the matching
+     */
+    public final int compute(MatchingHeuristic h) {
+        if (h == null) {
+            clear();
+            greedy();
+        } else {
+            h.initialize(this);
+        }
+        initialSize = size;
+        return maximize();
+    }
+
+    /**
+     * Computes the layers of the start nodes
+     * (breadth first search from the free start nodes).
+     * @return true iff a free end node has been reached
+     */
+    private final boolean layer() {
+        int head = 0;
+        int tail = 0;
+        for (int u=0; u<firstEnd; u++) {
+            if (mate[u] == -1) {
+                dist[u] = 0;
+                queue[tail++] = u;
+            } else {
+                dist[u] = INFINITY;
+            }
+        }
+        boolean found = false;
+        final IntEdgeCursor c = cursors.get(0);
+        while (head < tail) {
+            final int u = queue[head++];
+            for (c.reset(u); c.hasNext();) {
+                final int w = mate[c.next()];
+                if (w == -1) {
+                    found = true;
+                } else if (dist[w] == INFINITY) {
+                    dist[w] = dist[u] + 1;
+                    queue[tail++] = w;
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Searches (depth first) an augmenting path along the layers,
+     * from a free start node, and augments the matching along it.
+     * @param root a free start node
+     * @return true iff an augmenting path has been found
+     */
+    private final boolean augment(int root) {
+        int depth = 0;
+        lpath[0] = root;
+        cursors.get(0).reset(root);
+        while (depth >= 0) {
+            final int u = lpath[depth];
+            final IntEdgeCursor c = cursors.get(depth);
+            if (c.hasNext()) {
+                final int v = c.next();
+                final int w = mate[v];
+                if (w == -1) {
+                    rpath[depth] = v;
+                    for (int d=depth; d>=0; d--) {
+                        mate[lpath[d]] = rpath[d];
+                        mate[rpath[d]] = lpath[d];
+                    }
+                    return true;
+                }
+                if (dist[w] == dist[u] + 1) {
+                    rpath[depth] = v;
+                    lpath[++depth] = w;
+                    cursors.get(depth).reset(w);
+                }
+            } else {
+                dist[u] = INFINITY;
+                depth--;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Searches (depth first) an augmenting path from a free start node, 
+     * and augments the matching along it.
+     *
+     * <P>Contrary to <CODE>maximize</CODE>, 
+     * only the alternating paths starting from this node are explored.
+     * If there is none, there will be none after further augmentations 
+     * (as long as the graph is not modified).</P>
+     * @param root a free start node
+     * @return true iff an augmenting path has been found
+     */
+    public final boolean augmentFrom(int root) {
+        if (++gen == 0) {
+            for (int u=firstEnd; --u>=0;) {
+                stamp[u] = 0;
+            }
+            gen = 1;
+        }
+        int depth = 0;
+        lpath[0] = root;
+        stamp[root] = gen;
+        cursors.get(0).reset(root);
+        while (depth >= 0) {
+            final IntEdgeCursor c = cursors.get(depth);
+            if (c.hasNext()) {
+                final int v = c.next();
+                final int w = mate[v];
+                if (w == -1) {
+                    rpath[depth] = v;
+                    for (int d=depth; d>=0; d--) {
+                        mate[lpath[d]] = rpath[d];
+                        mate[rpath[d]] = lpath[d];
+                    }
+                    size++;
+                    augmentations++;
+                    return true;
+                }
+                if (stamp[w] != gen) {
+                    stamp[w] = gen;
+                    rpath[depth] = v;
+                    lpath[++depth] = w;
+                    cursors.get(depth).reset(w);
+                }
+            } else {
+                depth--;
+            }
+        }
+        return false;
+    }
+
+
+    //------------------------------------------------------------------------
+    // METHODS (MAP ADAPTERS)
+    //------------------------------------------------------------------------
+    /**
+     * Sets the matching from a map.
+     * @param matching a map mapping end nodes to start nodes (Integer)
+     */
+    public final void fromMap(Map matching) {
+        clear();
+        for (Iterator i = matching.entrySet().iterator(); i.hasNext();) {
+            final Map.Entry e = (Map.Entry) i.next();
+            match(((Integer) e.getValue()).intValue(),
+                  ((Integer) e.getKey()).intValue());
+        }
+    }
+
+    /**
+     * Stores the matching in a map.
+     * @param matching a map, which is cleared and then filled
+     * with the end nodes mapped to their start nodes (Integer)
+     * @return the map
+     */
+    public final Map toMap(Map matching) {
+        matching.clear();
+        for (int v=firstEnd; v<mate.length; v++) {
+            if (mate[v] != -1) {
+                matching.put(graph.box(v), graph.box(mate[v]));
+            }
+        }
+        return matching;
+    }
+}
+/*
+ * $Log$
+ */
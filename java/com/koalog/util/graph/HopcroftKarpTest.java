@@ -0,0 +1,330 @@
+package com.koalog.util.graph;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import junit.framework.TestCase;
+import org.apache.log4j.Category;
+
+/**
+ * Tests the HopcroftKarp class.
+ *
+ * @author Yan Georget
+ */
+public class HopcroftKarpTest extends TestCase {
+    //------------------------------------------------------------------------
+    // CONSTANTS
+    //------------------------------------------------------------------------
+    private static Category cat = Category.getInstance(HopcroftKarpTest.class);
+
+    //------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //------------------------------------------------------------------------
+    /**
+     * Sole constructor.
+     * @param name a name
+     */
+    public HopcroftKarpTest(String name) {
+        super(name);
+    }
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /**
+     * Tests the engine and the map adapters on a small graph.
+     */
+    public void testSmall() {
+        cat.info("testSmall");
+        Graph g = new FastGraph(new int[][] {
+            new int[] {4,5},
+            new int[] {3,4},
+            new int[] {3},
+            new int[] {},
+            new int[] {},
+            new int[] {}
+        });
+        HopcroftKarp hk = new HopcroftKarp(g, 3);
+        assertEquals(2, hk.greedy());
+        assertEquals(3, hk.maximize());
+        int[] mate = hk.getMate();
+        for (int u=0; u<3; u++) {
+            assertTrue(g.hasEdge(u, mate[u]));
+            assertEquals(u, mate[mate[u]]);
+        }
+        Map m = hk.toMap(new HashMap());
+        assertEquals(3, m.size());
+        hk.unmatch(0);
+        assertEquals(2, hk.getSize());
+        assertEquals(-1, mate[0]);
+        hk.fromMap(m);
+        assertEquals(3, hk.getSize());
+        assertEquals(3, g.maximumMatching(3, g.greedyMatching(3)).size());
+    }
+
+    /**
+     * Compares the size of the matchings
+     * with the one computed by a simple augmenting path algorithm,
+     * on random graphs.
+     */
+    public void testRandom() {
+        cat.info("testRandom");
+        Random r = new Random(0);
+        for (int t=0; t<100; t++) {
+            final int left = 1 + r.nextInt(30);
+            final int right = 1 + r.nextInt(30);
+            final Graph g = t % 2 == 0
+                ? (Graph) new FastGraph(left + right)
+                : (Graph) new IntArrayGraph(left + right);
+            final int m = r.nextInt(3*left);
+            for (int k=0; k<m; k++) {
+                g.addEdge(r.nextInt(left), left + r.nextInt(right));
+            }
+            HopcroftKarp hk = new HopcroftKarp(g, left);
+            assertEquals(kuhn(g, left), hk.compute());
+            int[] mate = hk.getMate();
+            int size = 0;
+            for (int u=0; u<left; u++) {
+                if (mate[u] != -1) {
+                    assertTrue(g.hasEdge(u, mate[u]));
+                    assertEquals(u, mate[mate[u]]);
+                    size++;
+                }
+            }
+            assertEquals(size, hk.getSize());
+        }
+    }
+
+    /**
+     * Computes the size of a maximum matching
+     * (simple augmenting path algorithm).
+     */
+    private int kuhn(Graph g, int firstEnd) {
+        final int[] mate = new int[g.getNodesNb()];
+        Arrays.fill(mate, -1);
+        int size = 0;
+        for (int u=0; u<firstEnd; u++) {
+            if (kuhn(g, u, mate, new boolean[g.getNodesNb()])) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    private boolean kuhn(Graph g, int u, int[] mate, boolean[] seen) {
+        IntEdgeCursor c = g.edgeCursor();
+        for (c.reset(u); c.hasNext();) {
+            final int v = c.next();
+            if (!seen[v]) {
+                seen[v] = true;
+                if (mate[v] == -1 || kuhn(g, mate[v], mate, seen)) {
+                    mate[v] = u;
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks that the heuristics lead to maximum matchings,
+     * on random graphs.
+     */
+    public void testHeuristics() {
+        cat.info("testHeuristics");
+        Random r = new Random(0);
+        final MatchingHeuristic[] heuristics = new MatchingHeuristic[] {
+            HopcroftKarp.greedyHeuristic(),
+            HopcroftKarp.previousHeuristic(),
+            HopcroftKarp.minDegreeHeuristic(),
+            HopcroftKarp.karpSipserHeuristic()
+        };
+        for (int t=0; t<100; t++) {
+            final int left = 1 + r.nextInt(30);
+            final int right = 1 + r.nextInt(30);
+            final Graph g = new IntArrayGraph(left + right);
+            final int m = r.nextInt(3*left);
+            for (int k=0; k<m; k++) {
+                g.addEdge(r.nextInt(left), left + r.nextInt(right));
+            }
+            final int size = kuhn(g, left);
+            for (int h=0; h<heuristics.length; h++) {
+                HopcroftKarp hk = new HopcroftKarp(g, left);
+                hk.setHeuristic(heuristics[h]);
+                assertEquals(size, hk.compute());
+                assertTrue(hk.getInitialSize() <= size);
+                int[] mate = hk.getMate();
+                for (int u=0; u<left; u++) {
+                    if (mate[u] != -1) {
+                        assertTrue(g.hasEdge(u, mate[u]));
+                        assertEquals(u, mate[mate[u]]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests the Karp-Sipser heuristic on a graph
+     * where the greedy heuristic is not optimal.
+     */
+    public void testKarpSipser() {
+        cat.info("testKarpSipser");
+        Graph g = new FastGraph(new int[][] {
+            new int[] {3,4},
+            new int[] {3,5},
+            new int[] {3},
+            new int[] {},
+            new int[] {},
+            new int[] {}
+        });
+        HopcroftKarp hk = new HopcroftKarp(g, 3);
+        assertEquals(3, hk.compute());
+        assertEquals(2, hk.getInitialSize());
+        hk.setHeuristic(HopcroftKarp.karpSipserHeuristic());
+        assertEquals(3, hk.compute());
+        assertEquals(3, hk.getInitialSize());
+        hk.setHeuristic(HopcroftKarp.minDegreeHeuristic());
+        assertEquals(3, hk.compute());
+        assertEquals(3, hk.getInitialSize());
+    }
+
+    /**
+     * Tests the heuristics through the map based methods of the graph.
+     */
+    public void testGraphHeuristic() {
+        cat.info("testGraphHeuristic");
+        Graph g = new FastGraph(new int[][] {
+            new int[] {3,4},
+            new int[] {3,5},
+            new int[] {3},
+            new int[] {},
+            new int[] {},
+            new int[] {}
+        });
+        HopcroftKarp hk = g.getMatcher(3);
+        hk.setHeuristic(HopcroftKarp.karpSipserHeuristic());
+        assertEquals(3, g.maximumMatching(3, new HashMap()).size());
+        assertEquals(3, hk.getInitialSize());
+        assertEquals(0, hk.getAugmentations());
+        // the heuristic and the counters are kept
+        assertTrue(hk == g.getMatcher(2));
+        assertNotNull(hk.getHeuristic());
+        assertEquals(2, g.maximumMatching(2).size());
+        assertEquals(3, g.maximumMatching(3).size());
+        assertEquals(0, hk.getAugmentations());
+        Map m = g.maximumMatching(3, new HashMap(), 
+                                  HopcroftKarp.greedyHeuristic());
+        assertEquals(3, m.size());
+        assertEquals(2, hk.getInitialSize());
+        // the pairs which are still edges are kept
+        g.removeEdge(0, 4);
+        g.addEdge(0, 5);
+        m = g.maximumMatching(3, m, HopcroftKarp.previousHeuristic());
+        assertEquals(2, m.size());
+        assertEquals(2, hk.getInitialSize());
+    }
+
+    /**
+     * Tests the warm start from the previous matching.
+     */
+    public void testPrevious() {
+        cat.info("testPrevious");
+        Random r = new Random(0);
+        final int n = 50;
+        Graph g = new IntArrayGraph(2*n);
+        for (int u=0; u<n; u++) {
+            g.addEdge(u, n + u);
+            g.addEdge(u, n + r.nextInt(n));
+        }
+        HopcroftKarp hk = new HopcroftKarp(g, n);
+        hk.setHeuristic(HopcroftKarp.previousHeuristic());
+        assertEquals(n, hk.compute());
+        final int[] mate = hk.getMate();
+        final int v = mate[0];
+        g.removeEdge(0, v);
+        final int size = kuhn(g, n);
+        assertEquals(size, hk.compute());
+        assertTrue(hk.getInitialSize() >= n - 2);
+        g.addEdge(0, v);
+        assertEquals(n, hk.compute());
+        assertTrue(hk.getInitialSize() >= size);
+    }
+
+    /**
+     * Compares the map based and the array based methods,
+     * on repeated maximum matchings of a big graph.
+     */
+    public void testBigHopcroftKarp() {
+        final int n = 2000;
+        final int times = 50;
+        Random r = new Random(0);
+        Graph g = new IntArrayGraph(2*n);
+        for (int i=0; i<n; i++) {
+            for (int k=0; k<4; k++) {
+                g.addEdge(i, n + r.nextInt(n));
+            }
+        }
+        long time = System.currentTimeMillis();
+        int size = 0;
+        for (int t=0; t<times; t++) {
+            size = g.maximumMatching(n).size();
+        }
+        cat.info("maximumMatching: "
+                 + (System.currentTimeMillis() - time) + "ms");
+        time = System.currentTimeMillis();
+        HopcroftKarp hk = new HopcroftKarp(g, n);
+        for (int t=0; t<times; t++) {
+            hk.compute();
+        }
+        cat.info("HopcroftKarp: " + (System.currentTimeMillis() - time) + "ms");
+        assertEquals(size, hk.getSize());
+    }
+
+    /**
+     * Compares the heuristics (initial size, phases and time),
+     * on repeated maximum matchings of a big graph.
+     */
+    public void testBigHeuristics() {
+        final int n = 20000;
+        final int times = 10;
+        Random r = new Random(0);
+        Graph g = new IntArrayGraph(2*n);
+        for (int i=0; i<n; i++) {
+            final int d = 1 + r.nextInt(3);
+            for (int k=0; k<d; k++) {
+                g.addEdge(i, n + r.nextInt(n));
+            }
+        }
+        final MatchingHeuristic[] heuristics = new MatchingHeuristic[] {
+            HopcroftKarp.greedyHeuristic(),
+            HopcroftKarp.minDegreeHeuristic(),
+            HopcroftKarp.karpSipserHeuristic()
+        };
+        final String[] names = new String[] {
+            "greedy", "minDegree", "karpSipser"
+        };
+        int size = -1;
+        for (int h=0; h<heuristics.length; h++) {
+            HopcroftKarp hk = new HopcroftKarp(g, n);
+            hk.setHeuristic(heuristics[h]);
+            long time = System.currentTimeMillis();
+            for (int t=0; t<times; t++) {
+                hk.compute();
+            }
+            cat.info(names[h] + ": initial " + hk.getInitialSize()
+                     + "/" + hk.getSize()
+                     + ", phases " + hk.getPhases()/times
+                     + ", augmentations " + hk.getAugmentations()/times
+                     + ", " + (System.currentTimeMillis() - time) + "ms");
+            if (size == -1) {
+                size = hk.getSize();
+            }
+            assertEquals(size, hk.getSize());
+        }
+    }
+}
+/*
+ * $Log$
+ */
@@ -0,0 +1,362 @@
+package com.koalog.util.graph;
+
+import org.apache.log4j.Category;
+
+/**
+ * A minimum cost assignment engine (Hungarian algorithm, in O(n^3)).
+ *
+ * <P>Given a cost matrix (<CODE>cost[i][j]</CODE> being the cost
+ * of assigning the row <CODE>i</CODE> to the column <CODE>j</CODE>),
+ * it computes an assignment of the rows to distinct columns
+ * of minimum total cost.
+ * When the matrix is not square,
+ * it is completed by null costs (virtual rows or columns):
+ * the smallest dimension is then completely assigned.</P>
+ *
+ * <P>Each row is inserted by a shortest path computation
+ * on the reduced costs (<CODE>cost[i][j] - u[i] - v[j]</CODE>),
+ * the potentials <CODE>u</CODE> and <CODE>v</CODE> being updated
+ * so that the reduced costs remain non negative
+ * and null on the assigned pairs.
+ * The potentials are kept between calls:
+ * when the costs have changed a little,
+ * the <CODE>resolve</CODE> methods start from the previous assignment
+ * (the pairs which remain tight)
+ * and only insert the other rows.</P>
+ *
+ * <P>The <CODE>int</CODE> costs are handled exactly
+ * (as long as the sums of costs are smaller than 2^53).
+ * All the buffers are allocated once for a given size.</P>
+ * @author Yan Georget
+ */
+public class Hungarian {
+    //------------------------------------------------------------------------
+    // STATIC PROPERTIES
+    //------------------------------------------------------------------------
+    private static Category cat = Category.getInstance(Hungarian.class);
+    private static final double INFINITY = Double.POSITIVE_INFINITY;
+
+    //------------------------------------------------------------------------
+    // PROPERTIES
+    //------------------------------------------------------------------------
+    /** The number of rows and columns. */
+    private int rows;
+    private int cols;
+    /** The size of the (square) completed matrix. */
+    private int size;
+    /** The completed matrix, with null costs outside the rows and columns. */
+    private double[][] a;
+    /** The potentials of the rows and columns (starting from 1). */
+    private double[] u;
+    private double[] v;
+    /** The row (starting from 1) assigned to each column, 0 if none. */
+    private int[] p;
+    private int[] way;
+    private double[] minv;
+    private boolean[] used;
+    /** The rows to insert. */
+    private int[] free;
+    /** The column assigned to each row. */
+    private int[] assignment;
+    /** The number of inserted rows. */
+    private int augmentations;
+
+    //------------------------------------------------------------------------
+    // ACCESSORS
+    //------------------------------------------------------------------------
+    /**
+     * Returns the assignment:
+     * the column assigned to each row, -1 if none.
+     * @return an array of integers
+     */
+    public final int[] getAssignment() {
+        return assignment;
+    }
+
+    /**
+     * Returns the number of rows inserted so far
+     * (the number of shortest path computations).
+     * @return an integer
+     */
+    public final int getAugmentations() {
+        return augmentations;
+    }
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /**
+     * Computes a minimum cost assignment.
+     * @param cost a matrix of costs
+     * @return the cost of the assignment
+     */
+    public final long solve(int[][] cost) {
+        return (long) solve(cost, false);
+    }
+
+    /**
+     * Computes a minimum cost assignment,
+     * starting from the previous one (same dimensions).
+     * @param cost a matrix of costs
+     * @return the cost of the assignment
+     */
+    public final long resolve(int[][] cost) {
+        return (long) solve(cost, true);
+    }
+
+    /**
+     * Computes a minimum cost assignment.
+     * @param cost a matrix of costs
+     * @return the cost of the assignment
+     */
+    public final double solve(double[][] cost) {
+        return solve(cost, false);
+    }
+
+    /**
+     * Computes a minimum cost assignment,
+     * starting from the previous one (same dimensions).
+     * @param cost a matrix of costs
+     * @return the cost of the assignment
+     */
+    public final double resolve(double[][] cost) {
+        return solve(cost, true);
+    }
+
+    /**
+     * Computes a minimum cost matching of a bipartite graph,
+     * whose edges go from the start nodes
+     * (the rows, the nodes smaller than <CODE>firstEnd</CODE>)
+     * to the end nodes (the columns, the other nodes).
+     *
+     * <P>The matching is of maximum size,
+     * and of minimum cost among the matchings of maximum size.
+     * The start nodes which cannot be matched are assigned -1.</P>
+     * @param graph a bipartite graph
+     * @param firstEnd the first index of end nodes
+     * @param cost the costs of the edges:
+     * <CODE>cost[u][v-firstEnd]</CODE> is the cost of the edge (u,v)
+     * @return the cost of the matching
+     */
+    public final long solve(Graph graph, int firstEnd, int[][] cost) {
+        return solve(graph, firstEnd, cost, false);
+    }
+
+    /**
+     * Computes a minimum cost matching of a bipartite graph
+     * (see <CODE>solve</CODE>),
+     * starting from the previous one (same graph size).
+     * @param graph a bipartite graph
+     * @param firstEnd the first index of end nodes
+     * @param cost the costs of the edges
+     * @return the cost of the matching
+     */
+    public final long resolve(Graph graph, int firstEnd, int[][] cost) {
+        return solve(graph, firstEnd, cost, true);
+    }
+
+    private final double solve(int[][] cost, boolean warm) {
+        final int r = cost.length;
+        warm = init(r, r == 0 ? 0 : cost[0].length, warm);
+        for (int i=0; i<rows; i++) {
+            final int[] c = cost[i];
+            final double[] ai = a[i];
+            for (int j=0; j<cols; j++) {
+                ai[j] = c[j];
+            }
+        }
+        return run(warm);
+    }
+
+    private final double solve(double[][] cost, boolean warm) {
+        final int r = cost.length;
+        warm = init(r, r == 0 ? 0 : cost[0].length, warm);
+        for (int i=0; i<rows; i++) {
+            System.arraycopy(cost[i], 0, a[i], 0, cols);
+        }
+        return run(warm);
+    }
+
+    private final long solve(Graph graph,
+                             int firstEnd,
+                             int[][] cost,
+                             boolean warm) {
+        warm = init(firstEnd, graph.getNodesNb() - firstEnd, warm);
+        // a non edge costs more than any matching of the same size
+        long max = 0;
+        final IntEdgeCursor c = graph.edgeCursor();
+        for (int i=0; i<rows; i++) {
+            for (c.reset(i); c.hasNext();) {
+                final long w = Math.abs((long) cost[i][c.next() - firstEnd]);
+                if (w > max) {
+                    max = w;
+                }
+            }
+        }
+        final double forbidden = 2.0 * size * max + 1;
+        for (int i=0; i<rows; i++) {
+            final double[] ai = a[i];
+            for (int j=0; j<cols; j++) {
+                ai[j] = forbidden;
+            }
+            for (c.reset(i); c.hasNext();) {
+                final int j = c.next() - firstEnd;
+                ai[j] = cost[i][j];
+            }
+        }
+        run(warm);
+        long total = 0;
+        for (int i=0; i<rows; i++) {
+            final int j = assignment[i];
+            if (j != -1) {
+                if (a[i][j] == forbidden) {
+                    assignment[i] = -1;
+                } else {
+                    total += cost[i][j];
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Allocates the buffers if necessary.
+     * @return true iff the previous assignment can be used
+     */
+    private final boolean init(int rows, int cols, boolean warm) {
+        if (a != null && rows == this.rows && cols == this.cols) {
+            return warm;
+        }
+        this.rows = rows;
+        this.cols = cols;
+        size = Math.max(rows, cols);
+        a = new double[size][size];
+        u = new double[size+1];
+        v = new double[size+1];
+        p = new int[size+1];
+        way = new int[size+1];
+        minv = new double[size+1];
+        used = new boolean[size+1];
+        free = new int[size];
+        assignment = new int[rows];
+        return false;
+    }
+
+    /**
+     * Computes the assignment on the completed matrix.
+     * @return the cost of the assignment
+     */
+    private final double run(boolean warm) {
+        final int n = size;
+        int freeNb = 0;
+        if (warm) {
+            // the potentials of the rows are made feasible again,
+            // and only the pairs which remain tight are kept
+            for (int i=1; i<=n; i++) {
+                final double[] ai = a[i-1];
+                double m = INFINITY;
+                for (int j=1; j<=n; j++) {
+                    final double d = ai[j-1] - v[j];
+                    if (d < m) {
+                        m = d;
+                    }
+                }
+                u[i] = m;
+                used[i] = false;
+            }
+            for (int j=1; j<=n; j++) {
+                final int i = p[j];
+                if (i != 0) {
+                    if (a[i-1][j-1] - u[i] - v[j] == 0) {
+                        used[i] = true;
+                    } else {
+                        p[j] = 0;
+                    }
+                }
+            }
+            for (int i=1; i<=n; i++) {
+                if (!used[i]) {
+                    free[freeNb++] = i;
+                }
+            }
+        } else {
+            for (int i=0; i<=n; i++) {
+                u[i] = v[i] = 0;
+                p[i] = 0;
+            }
+            for (int i=1; i<=n; i++) {
+                free[freeNb++] = i;
+            }
+        }
+        for (int k=0; k<freeNb; k++) {
+            insert(free[k]);
+        }
+        double total = 0;
+        for (int i=0; i<rows; i++) {
+            assignment[i] = -1;
+        }
+        for (int j=1; j<=n; j++) {
+            final int i = p[j];
+            if (i <= rows && j <= cols) {
+                assignment[i-1] = j-1;
+                total += a[i-1][j-1];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Inserts a row:
+     * computes a shortest augmenting path from this row,
+     * updating the potentials.
+     * @param i a row (starting from 1)
+     */
+    private final void insert(int i) {
+        augmentations++;
+        final int n = size;
+        p[0] = i;
+        int j0 = 0;
+        for (int j=0; j<=n; j++) {
+            minv[j] = INFINITY;
+            used[j] = false;
+        }
+        do {
+            used[j0] = true;
+            final int i0 = p[j0];
+            final double[] ai = a[i0-1];
+            final double ui = u[i0];
+            double delta = INFINITY;
+            int j1 = 0;
+            for (int j=1; j<=n; j++) {
+                if (!used[j]) {
+                    final double cur = ai[j-1] - ui - v[j];
+                    if (cur < minv[j]) {
+                        minv[j] = cur;
+                        way[j] = j0;
+                    }
+                    if (minv[j] < delta) {
+                        delta = minv[j];
+                        j1 = j;
+                    }
+                }
+            }
+            for (int j=0; j<=n; j++) {
+                if (used[j]) {
+                    u[p[j]] += delta;
+                    v[j] -= delta;
+                } else {
+                    minv[j] -= delta;
+                }
+            }
+            j0 = j1;
+        } while (p[j0] != 0);
+        do {
+            final int j1 = way[j0];
+            p[j0] = p[j1];
+            j0 = j1;
+        } while (j0 != 0);
+    }
+}
+/*
+ * $Log$
+ */
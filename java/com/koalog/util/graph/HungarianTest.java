@@ -0,0 +1,219 @@
+package com.koalog.util.graph;
+
+import java.util.Random;
+import junit.framework.TestCase;
+import org.apache.log4j.Category;
+
+/**
+ * Tests the Hungarian class.
+ *
+ * @author Yan Georget
+ */
+public class HungarianTest extends TestCase {
+    //------------------------------------------------------------------------
+    // CONSTANTS
+    //------------------------------------------------------------------------
+    private static Category cat = Category.getInstance(HungarianTest.class);
+
+    //------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //------------------------------------------------------------------------
+    /**
+     * Sole constructor.
+     * @param name a name
+     */
+    public HungarianTest(String name) {
+        super(name);
+    }
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /**
+     * Tests a small assignment.
+     */
+    public void testSmall() {
+        cat.info("testSmall");
+        int[][] cost = new int[][] {
+            new int[] {4,1,3},
+            new int[] {2,0,5},
+            new int[] {3,2,2}
+        };
+        Hungarian h = new Hungarian();
+        assertEquals(5, h.solve(cost));
+        int[] a = h.getAssignment();
+        assertEquals(1, a[0]);
+        assertEquals(0, a[1]);
+        assertEquals(2, a[2]);
+        double[][] dcost = new double[][] {
+            new double[] {0.5,1.5},
+            new double[] {0.25,2.0}
+        };
+        assertEquals(1.75, h.solve(dcost), 0);
+        // more rows than columns
+        assertEquals(1, h.solve(new int[][] {
+            new int[] {3},
+            new int[] {1},
+            new int[] {2}
+        }));
+        a = h.getAssignment();
+        assertEquals(-1, a[0]);
+        assertEquals(0, a[1]);
+        assertEquals(-1, a[2]);
+    }
+
+    /**
+     * Compares the assignments with the ones computed by enumeration,
+     * on random matrices (from scratch and warm started).
+     */
+    public void testRandom() {
+        cat.info("testRandom");
+        Random r = new Random(0);
+        for (int t=0; t<200; t++) {
+            final int rows = 1 + r.nextInt(6);
+            final int cols = 1 + r.nextInt(6);
+            final int[][] cost = random(r, rows, cols, 20);
+            Hungarian h = new Hungarian();
+            final long best = brute(cost);
+            assertEquals(best, h.solve(cost));
+            check(cost, h.getAssignment(), best);
+            // a few costs change
+            for (int k=0; k<3; k++) {
+                cost[r.nextInt(rows)][r.nextInt(cols)] = r.nextInt(20) - 5;
+            }
+            final long warm = brute(cost);
+            assertEquals(warm, h.resolve(cost));
+            check(cost, h.getAssignment(), warm);
+        }
+    }
+
+    /**
+     * Tests the minimum cost matchings of bipartite graphs.
+     */
+    public void testGraph() {
+        cat.info("testGraph");
+        Random r = new Random(0);
+        for (int t=0; t<100; t++) {
+            final int left = 1 + r.nextInt(6);
+            final int right = 1 + r.nextInt(6);
+            final Graph g = t % 2 == 0
+                ? (Graph) new FastGraph(left + right)
+                : (Graph) new MatrixGraph(left + right);
+            final int m = r.nextInt(2*left);
+            for (int k=0; k<m; k++) {
+                g.addEdge(r.nextInt(left), left + r.nextInt(right));
+            }
+            final int[][] cost = random(r, left, right, 10);
+            Hungarian h = new Hungarian();
+            final long c = h.solve(g, left, cost);
+            final int[] a = h.getAssignment();
+            long total = 0;
+            int size = 0;
+            for (int u=0; u<left; u++) {
+                if (a[u] != -1) {
+                    assertTrue(g.hasEdge(u, left + a[u]));
+                    total += cost[u][a[u]];
+                    size++;
+                }
+            }
+            assertEquals(c, total);
+            assertEquals(g.maximumMatching(left).size(), size);
+        }
+    }
+
+    /**
+     * Returns a random matrix of costs.
+     */
+    static int[][] random(Random r, int rows, int cols, int max) {
+        final int[][] cost = new int[rows][cols];
+        for (int i=0; i<rows; i++) {
+            for (int j=0; j<cols; j++) {
+                cost[i][j] = r.nextInt(max);
+            }
+        }
+        return cost;
+    }
+
+    /**
+     * Checks that an assignment is valid and of a given cost.
+     */
+    static void check(int[][] cost, int[] a, long expected) {
+        final int cols = cost[0].length;
+        final boolean[] used = new boolean[cols];
+        long total = 0;
+        int size = 0;
+        for (int i=0; i<cost.length; i++) {
+            if (a[i] != -1) {
+                assertFalse(used[a[i]]);
+                used[a[i]] = true;
+                total += cost[i][a[i]];
+                size++;
+            }
+        }
+        assertEquals(Math.min(cost.length, cols), size);
+        assertEquals(expected, total);
+    }
+
+    /**
+     * Computes the cost of a minimum cost assignment by enumeration.
+     */
+    static long brute(int[][] cost) {
+        return brute(cost, 0, new boolean[cost[0].length],
+                     Math.min(cost.length, cost[0].length));
+    }
+
+    private static long brute(int[][] cost, int i, boolean[] used, int left) {
+        if (left == 0) {
+            return 0;
+        }
+        long best = Long.MAX_VALUE;
+        if (cost.length - i > left) {
+            // row i is not assigned
+            best = brute(cost, i+1, used, left);
+        }
+        for (int j=0; j<used.length; j++) {
+            if (!used[j]) {
+                used[j] = true;
+                final long c = cost[i][j] + brute(cost, i+1, used, left-1);
+                used[j] = false;
+                if (c < best) {
+                    best = c;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Compares solving from scratch and warm starting,
+     * on a big matrix whose costs change a little.
+     */
+    public void testBigHungarian() {
+        final int n = 400;
+        final int times = 10;
+        Random r = new Random(0);
+        final int[][] cost = random(r, n, n, 1000);
+        Hungarian h = new Hungarian();
+        Hungarian w = new Hungarian();
+        w.solve(cost);
+        long scratch = 0;
+        long warm = 0;
+        for (int t=0; t<times; t++) {
+            for (int k=0; k<n/20; k++) {
+                cost[r.nextInt(n)][r.nextInt(n)] = r.nextInt(1000);
+            }
+            long time = System.currentTimeMillis();
+            final long c = h.solve(cost);
+            scratch += System.currentTimeMillis() - time;
+            time = System.currentTimeMillis();
+            assertEquals(c, w.resolve(cost));
+            warm += System.currentTimeMillis() - time;
+        }
+        cat.info("solve: " + scratch + "ms");
+        cat.info("resolve: " + (w.getAugmentations() - n)
+                 + " rows inserted, " + warm + "ms");
+    }
+}
+/*
+ * $Log$
+ */
@@ -0,0 +1,224 @@
+package com.koalog.util.graph;
+
+import org.apache.log4j.Category;
+
+/**
+ * Maintains a maximum matching of a bipartite graph
+ * under edge insertions and deletions.
+ *
+ * <P>Once constructed, this object listens to the graph:
+ * when the edge of a pair of the matching is removed,
+ * only this pair is removed from the matching,
+ * and its start node is recorded as free.
+ * The matching is then repaired (see <CODE>repair</CODE>)
+ * by searching augmenting paths from the free start nodes only.
+ * When the matching was perfect (every start node matched),
+ * the free start nodes are the ones whose pair has been removed,
+ * and the repair stops as soon as one of them cannot be matched again
+ * (the matching cannot be perfect anymore).</P>
+ *
+ * <P>The graph must be bipartite:
+ * its edges go from the start nodes
+ * (the nodes smaller than <CODE>firstEnd</CODE>)
+ * to the end nodes (the other nodes).</P>
+ * @author Yan Georget
+ */
+public class IncrementalMatching implements GraphListener {
+    //------------------------------------------------------------------------
+    // STATIC PROPERTIES
+    //------------------------------------------------------------------------
+    private static Category cat =
+        Category.getInstance(IncrementalMatching.class);
+
+    //------------------------------------------------------------------------
+    // PROPERTIES
+    //------------------------------------------------------------------------
+    private Graph graph;
+    private int firstEnd;
+    /** The matching engine. */
+    private HopcroftKarp matcher;
+    /** The free start nodes. */
+    private int[] free;
+    private int freeNb;
+    /** The position (starting from 1) of each start node in free. */
+    private int[] pos;
+    /** The number of calls to repair. */
+    private int repairs;
+
+    //------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //------------------------------------------------------------------------
+    /**
+     * Constructs an object maintaining a maximum matching of a graph.
+     *
+     * <P>A maximum matching is computed,
+     * and this object is added to the listeners of the graph.</P>
+     * @param graph a bipartite graph
+     * @param firstEnd the first index of end nodes
+     */
+    public IncrementalMatching(Graph graph, int firstEnd) {
+        this.graph = graph;
+        this.firstEnd = firstEnd;
+        matcher = new HopcroftKarp(graph, firstEnd);
+        free = new int[firstEnd];
+        pos = new int[firstEnd];
+        reset();
+        graph.addGraphListener(this);
+    }
+
+    //------------------------------------------------------------------------
+    // ACCESSORS
+    //------------------------------------------------------------------------
+    /**
+     * Returns the matching engine.
+     * @return a matching engine
+     */
+    public final HopcroftKarp getMatcher() {
+        return matcher;
+    }
+
+    /**
+     * Returns the matching (see <CODE>HopcroftKarp.getMate</CODE>).
+     * @return an array of integers
+     */
+    public final int[] getMate() {
+        return matcher.getMate();
+    }
+
+    /**
+     * Returns the size of the matching.
+     * @return an integer
+     */
+    public final int getSize() {
+        return matcher.getSize();
+    }
+
+    /**
+     * Returns the number of free start nodes.
+     * @return an integer
+     */
+    public final int getFreeNb() {
+        return freeNb;
+    }
+
+    /**
+     * Returns the number of calls to repair.
+     * @return an integer
+     */
+    public final int getRepairs() {
+        return repairs;
+    }
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /**
+     * Computes a maximum matching from scratch.
+     */
+    public final void reset() {
+        matcher.compute();
+        final int[] mate = matcher.getMate();
+        freeNb = 0;
+        for (int u=0; u<firstEnd; u++) {
+            pos[u] = 0;
+            if (mate[u] == -1) {
+                addFree(u);
+            }
+        }
+    }
+
+    /**
+     * Detaches this object from the graph.
+     */
+    public final void dispose() {
+        graph.removeGraphListener(this);
+    }
+
+    /**
+     * Checks if the matching is perfect (every start node matched),
+     * repairing it if necessary.
+     * @return a boolean
+     */
+    public final boolean isPerfect() {
+        return repair();
+    }
+
+    /**
+     * Repairs the matching, searching augmenting paths
+     * from the free start nodes.
+     *
+     * <P>The repair stops at the first free start node
+     * which cannot be matched:
+     * the matching is then maximum only if <CODE>maximize</CODE> is called.
+     * </P>
+     * @return true iff the matching is perfect
+     */
+    public final boolean repair() {
+        repairs++;
+        final int[] mate = matcher.getMate();
+        while (freeNb > 0) {
+            final int u = free[freeNb-1];
+            if (mate[u] == -1 && !matcher.augmentFrom(u)) {
+                return false;
+            }
+            removeFree(u);
+        }
+        return true;
+    }
+
+    /**
+     * Repairs the matching completely,
+     * making it maximum.
+     * @return the size of the matching
+     */
+    public final int maximize() {
+        repairs++;
+        final int[] mate = matcher.getMate();
+        for (int k=freeNb; --k>=0;) {
+            final int u = free[k];
+            if (mate[u] != -1 || matcher.augmentFrom(u)) {
+                removeFree(u);
+            }
+        }
+        return matcher.getSize();
+    }
+
+    /** @see com.koalog.util.graph.GraphListener */
+    public void edgeAdded(Graph g, int a, int b) {
+        // the free start nodes are tried again by the next repair
+    }
+
+    /** @see com.koalog.util.graph.GraphListener */
+    public void edgeRemoved(Graph g, int a, int b) {
+        if (a < firstEnd && matcher.getMate()[a] == b) {
+            matcher.unmatch(a);
+            addFree(a);
+        }
+    }
+
+    /** @see com.koalog.util.graph.GraphListener */
+    public void edgesCleared(Graph g, int a) {
+        if (a < firstEnd && matcher.getMate()[a] != -1) {
+            matcher.unmatch(a);
+            addFree(a);
+        }
+    }
+
+    private final void addFree(int u) {
+        if (pos[u] == 0) {
+            free[freeNb++] = u;
+            pos[u] = freeNb;
+        }
+    }
+
+    private final void removeFree(int u) {
+        final int k = pos[u] - 1;
+        final int last = free[--freeNb];
+        free[k] = last;
+        pos[last] = k+1;
+        pos[u] = 0;
+    }
+}
+/*
+ * $Log$
+ */
@@ -0,0 +1,155 @@
+package com.koalog.util.graph;
+
+import java.util.Random;
+import junit.framework.TestCase;
+import org.apache.log4j.Category;
+
+/**
+ * Tests the IncrementalMatching class.
+ *
+ * @author Yan Georget
+ */
+public class IncrementalMatchingTest extends TestCase {
+    //------------------------------------------------------------------------
+    // CONSTANTS
+    //------------------------------------------------------------------------
+    private static Category cat =
+        Category.getInstance(IncrementalMatchingTest.class);
+
+    //------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //------------------------------------------------------------------------
+    /**
+     * Sole constructor.
+     * @param name a name
+     */
+    public IncrementalMatchingTest(String name) {
+        super(name);
+    }
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /**
+     * Tests removals on a small graph.
+     */
+    public void testSmall() {
+        cat.info("testSmall");
+        FastGraph g = new FastGraph(new int[][] {
+            new int[] {3,4},
+            new int[] {4,5},
+            new int[] {3,5},
+            new int[] {},
+            new int[] {},
+            new int[] {}
+        });
+        IncrementalMatching im = new IncrementalMatching(g, 3);
+        assertEquals(3, im.getSize());
+        assertTrue(im.isPerfect());
+        int[] mate = im.getMate();
+        g.removeEdge(0, mate[0]);
+        assertEquals(2, im.getSize());
+        assertEquals(1, im.getFreeNb());
+        assertTrue(im.repair());
+        assertEquals(3, im.getSize());
+        g.clearEdges(1);
+        assertFalse(im.repair());
+        assertEquals(2, im.maximize());
+        g.addEdge(1, 3);
+        assertEquals(3, im.maximize());
+        assertTrue(im.isPerfect());
+        im.dispose();
+    }
+
+    /**
+     * Compares the incremental matching
+     * with the matching computed from scratch,
+     * on random removals and insertions.
+     */
+    public void testRandom() {
+        cat.info("testRandom");
+        Random r = new Random(0);
+        final int n = 30;
+        Graph g = new IntArrayGraph(2*n, true);
+        for (int u=0; u<n; u++) {
+            g.addEdge(u, n + u);
+            for (int k=0; k<3; k++) {
+                g.addEdge(u, n + r.nextInt(n));
+            }
+        }
+        IncrementalMatching im = new IncrementalMatching(g, n);
+        HopcroftKarp hk = new HopcroftKarp(g, n);
+        for (int t=0; t<2000; t++) {
+            final int u = r.nextInt(n);
+            final int v = n + r.nextInt(n);
+            if (r.nextInt(2) == 0) {
+                g.removeEdge(u, v);
+            } else {
+                g.addEdge(u, v);
+            }
+            final int size = hk.compute();
+            assertEquals(size == n, im.repair());
+            assertEquals(size, im.maximize());
+            final int[] mate = im.getMate();
+            for (int i=0; i<n; i++) {
+                if (mate[i] != -1) {
+                    assertTrue(g.hasEdge(i, mate[i]));
+                    assertEquals(i, mate[mate[i]]);
+                }
+            }
+        }
+        im.dispose();
+    }
+
+    /**
+     * Compares the incremental matching
+     * with the matching computed from scratch,
+     * on a sequence of removals (and restorations).
+     */
+    public void testBigIncrementalMatching() {
+        final int n = 2000;
+        final int ops = 2000;
+        Random r = new Random(0);
+        Graph g = new IntArrayGraph(2*n, true);
+        for (int u=0; u<n; u++) {
+            g.addEdge(u, n + u);
+            for (int k=0; k<4; k++) {
+                g.addEdge(u, n + r.nextInt(n));
+            }
+        }
+        final int[] a = new int[ops];
+        final int[] b = new int[ops];
+        for (int k=0; k<ops; k++) {
+            a[k] = r.nextInt(n);
+            b[k] = n + a[k];
+        }
+        long time = System.currentTimeMillis();
+        int perfect = 0;
+        for (int k=0; k<ops; k++) {
+            g.removeEdge(a[k], b[k]);
+            if (g.maximumMatching(n).size() == n) {
+                perfect++;
+            }
+            g.addEdge(a[k], b[k]);
+        }
+        cat.info("maximumMatching: "
+                 + (System.currentTimeMillis() - time) + "ms");
+        time = System.currentTimeMillis();
+        IncrementalMatching im = new IncrementalMatching(g, n);
+        int incPerfect = 0;
+        for (int k=0; k<ops; k++) {
+            g.removeEdge(a[k], b[k]);
+            if (im.repair()) {
+                incPerfect++;
+            }
+            g.addEdge(a[k], b[k]);
+        }
+        cat.info("IncrementalMatching: "
+                 + (System.currentTimeMillis() - time) + "ms");
+        assertEquals(perfect, incPerfect);
+        im.dispose();
+    }
+}
+/*
+ * $Log$
+ */
@@ -0,0 +1,343 @@
+package com.koalog.util.graph;
+
+import java.util.Arrays;
+import org.apache.log4j.Category;
+
+/**
+ * Maintains the strongly connected components of a graph
+ * under edge insertions and deletions.
+ *
+ * <P>Once constructed, this object listens to the graph
+ * and keeps the SCC of the graph
+ * (see <CODE>Graph.getSCC</CODE>, <CODE>Graph.sameSCC</CODE>
+ * and <CODE>Graph.getSCCNb</CODE>) up to date.
+ * The ordinals of the SCC remain between 0 and the number of SCC minus 1,
+ * but they are not the ones <CODE>Graph.computeSCC</CODE> would compute.</P>
+ *
+ * <P>The nodes are kept in an order such that the nodes of a SCC
+ * are contiguous and every edge between two SCC goes from a node
+ * to a smaller node (a reverse topological order of the SCC).
+ * Then:
+ * <UL>
+ * <LI>removing an edge between two SCC does nothing,
+ * and removing an edge inside a SCC only recomputes the SCC of its nodes
+ * (which keep their positions);</LI>
+ * <LI>adding an edge going to a smaller node does nothing,
+ * otherwise the SCC of the nodes between the two ends of the edge
+ * are recomputed and reordered
+ * (these are the only nodes that can be on a new cycle).</LI>
+ * </UL></P>
+ *
+ * <P>Note that <CODE>Graph.computeSCC</CODE> must not be called
+ * while this object listens to the graph
+ * (<CODE>reset</CODE> should be called instead).</P>
+ * @author Yan Georget
+ */
+public class IncrementalSCC implements GraphListener {
+    //------------------------------------------------------------------------
+    // STATIC PROPERTIES
+    //------------------------------------------------------------------------
+    private static Category cat = Category.getInstance(IncrementalSCC.class);
+
+    //------------------------------------------------------------------------
+    // PROPERTIES
+    //------------------------------------------------------------------------
+    /** The graph. */
+    private Graph graph;
+    /** The position of each node. */
+    private int[] ord;
+    /** The node at each position. */
+    private int[] node;
+    /** The first position of each SCC. */
+    private int[] start;
+    /** The size of each SCC. */
+    private int[] size;
+    /** The number of local recomputations. */
+    private int updates;
+    /** The number of nodes visited by the local recomputations. */
+    private int visits;
+
+    // buffers of the (local) Tarjan algorithm
+    private int[] stamp;
+    private int gen;
+    private int[] index;
+    private int[] low;
+    private int[] path;
+    private int[] stack;
+    /** The nodes, in the order their SCC have been completed. */
+    private int[] done;
+    /** The end (in done) of each completed SCC. */
+    private int[] ends;
+    private int endsNb;
+    private IntEdgeCursorPool cursors;
+    private int[] freed;
+
+    //------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //------------------------------------------------------------------------
+    /**
+     * Constructs an object maintaining the SCC of a graph.
+     *
+     * <P>The SCC of the graph are computed,
+     * and this object is added to the listeners of the graph.</P>
+     * @param graph a graph
+     */
+    public IncrementalSCC(Graph graph) {
+        this.graph = graph;
+        final int n = graph.getNodesNb();
+        ord = new int[n];
+        node = new int[n];
+        start = new int[n];
+        size = new int[n];
+        stamp = new int[n];
+        index = new int[n];
+        low = new int[n];
+        path = new int[n];
+        stack = new int[n];
+        done = new int[n];
+        ends = new int[n];
+        freed = new int[n];
+        cursors = new IntEdgeCursorPool(graph);
+        reset();
+        graph.addGraphListener(this);
+    }
+
+    //------------------------------------------------------------------------
+    // ACCESSORS
+    //------------------------------------------------------------------------
+    /**
+     * Returns the graph.
+     * @return a graph
+     */
+    public final Graph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Returns the number of local recomputations performed so far.
+     * @return an integer
+     */
+    public final int getUpdates() {
+        return updates;
+    }
+
+    /**
+     * Returns the number of nodes visited
+     * by the local recomputations performed so far.
+     * @return an integer
+     */
+    public final int getVisits() {
+        return visits;
+    }
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /**
+     * Recomputes the SCC of the whole graph.
+     */
+    public final void reset() {
+        graph.computeSCC();
+        final int[] scc = graph.scc;
+        final int sccNb = graph.sccNb;
+        // the SCC ordinals computed by the Tarjan algorithm
+        // are a reverse topological order
+        for (int c=0; c<sccNb; c++) {
+            size[c] = 0;
+        }
+        for (int i=ord.length; --i>=0;) {
+            size[scc[i]]++;
+        }
+        int p = 0;
+        for (int c=0; c<sccNb; c++) {
+            start[c] = p;
+            p += size[c];
+        }
+        for (int i=ord.length; --i>=0;) {
+            final int c = scc[i];
+            ord[i] = start[c] + --size[c];
+            node[ord[i]] = i;
+        }
+        for (int c=0; c<sccNb; c++) {
+            size[c] = (c+1 < sccNb ? start[c+1] : ord.length) - start[c];
+        }
+    }
+
+    /**
+     * Detaches this object from the graph.
+     */
+    public final void dispose() {
+        graph.removeGraphListener(this);
+    }
+
+    /** @see com.koalog.util.graph.GraphListener */
+    public void edgeAdded(Graph g, int a, int b) {
+        final int[] scc = graph.scc;
+        final int ca = scc[a];
+        final int cb = scc[b];
+        if (ca == cb || start[ca] > start[cb]) {
+            return;
+        }
+        final int lo = start[ca];
+        final int hi = start[cb] + size[cb] - 1;
+        compute(lo, hi);
+        // moves the SCC, merging the ones which are now on a cycle
+        int freedNb = 0;
+        int p = lo;
+        int first = 0;
+        for (int k=0; k<endsNb; k++) {
+            final int last = ends[k];
+            final int c = scc[done[first]];
+            final int s = last - first;
+            if (size[c] != s) {
+                for (int j=first; j<last; j++) {
+                    final int old = scc[done[j]];
+                    if (old != c) {
+                        if (size[old] != 0) {
+                            size[old] = 0;
+                            freed[freedNb++] = old;
+                        }
+                        scc[done[j]] = c;
+                    }
+                }
+                size[c] = s;
+            }
+            start[c] = p;
+            for (int j=first; j<last; j++) {
+                ord[done[j]] = p;
+                node[p++] = done[j];
+            }
+            first = last;
+        }
+        // keeps the SCC ordinals contiguous
+        Arrays.sort(freed, 0, freedNb);
+        for (int k=freedNb; --k>=0;) {
+            final int f = freed[k];
+            final int last = --graph.sccNb;
+            if (f != last) {
+                start[f] = start[last];
+                size[f] = size[last];
+                for (int q=start[f], e=q+size[f]; q<e; q++) {
+                    scc[node[q]] = f;
+                }
+            }
+        }
+    }
+
+    /** @see com.koalog.util.graph.GraphListener */
+    public void edgeRemoved(Graph g, int a, int b) {
+        if (graph.scc[a] == graph.scc[b]) {
+            split(graph.scc[a]);
+        }
+    }
+
+    /** @see com.koalog.util.graph.GraphListener */
+    public void edgesCleared(Graph g, int a) {
+        split(graph.scc[a]);
+    }
+
+    /**
+     * Recomputes the SCC of the nodes of a SCC
+     * (when an edge inside it has been removed).
+     * @param c a SCC ordinal
+     */
+    private final void split(int c) {
+        if (size[c] == 1) {
+            return;
+        }
+        final int lo = start[c];
+        compute(lo, lo + size[c] - 1);
+        if (endsNb == 1) {
+            return;
+        }
+        final int[] scc = graph.scc;
+        int p = lo;
+        int first = 0;
+        for (int k=0; k<endsNb; k++) {
+            final int last = ends[k];
+            final int d = k == 0 ? c : graph.sccNb++;
+            start[d] = p;
+            size[d] = last - first;
+            for (int j=first; j<last; j++) {
+                final int v = done[j];
+                scc[v] = d;
+                ord[v] = p;
+                node[p++] = v;
+            }
+            first = last;
+        }
+    }
+
+    /**
+     * Computes the SCC of the subgraph made of the nodes
+     * whose positions are between two bounds (Tarjan algorithm).
+     *
+     * <P>The SCC are stored in <CODE>done</CODE> and <CODE>ends</CODE>,
+     * in the order they are completed (a reverse topological order).</P>
+     * @param lo the lower bound
+     * @param hi the upper bound
+     */
+    private final void compute(int lo, int hi) {
+        updates++;
+        visits += hi - lo + 1;
+        if (++gen == 0) {
+            Arrays.fill(stamp, 0);
+            gen = 1;
+        }
+        endsNb = 0;
+        int num = 0;
+        int doneNb = 0;
+        int sp = 0;
+        for (int q=lo; q<=hi; q++) {
+            final int r = node[q];
+            if (stamp[r] == gen) {
+                continue;
+            }
+            int depth = 0;
+            path[0] = r;
+            stamp[r] = gen;
+            index[r] = low[r] = num++;
+            stack[sp++] = r;
+            cursors.get(0).reset(r);
+            while (depth >= 0) {
+                final int u = path[depth];
+                final IntEdgeCursor c = cursors.get(depth);
+                if (c.hasNext()) {
+                    final int v = c.next();
+                    final int o = ord[v];
+                    if (o < lo || o > hi) {
+                        continue;
+                    }
+                    if (stamp[v] != gen) {
+                        path[++depth] = v;
+                        stamp[v] = gen;
+                        index[v] = low[v] = num++;
+                        stack[sp++] = v;
+                        cursors.get(depth).reset(v);
+                    } else if (index[v] >= 0 && low[v] < low[u]) {
+                        low[u] = low[v];
+                    }
+                } else {
+                    if (low[u] == index[u]) {
+                        int w;
+                        do {
+                            w = stack[--sp];
+                            index[w] = -1;
+                            done[doneNb++] = w;
+                        } while (w != u);
+                        ends[endsNb++] = doneNb;
+                    }
+                    if (--depth >= 0) {
+                        final int p = path[depth];
+                        if (low[u] < low[p]) {
+                            low[p] = low[u];
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
+/*
+ * $Log$
+ */
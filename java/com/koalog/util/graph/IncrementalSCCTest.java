@@ -0,0 +1,189 @@
+package com.koalog.util.graph;
+
+import java.util.Arrays;
+import java.util.Random;
+import junit.framework.TestCase;
+import org.apache.log4j.Category;
+
+/**
+ * Tests the IncrementalSCC class.
+ *
+ * @author Yan Georget
+ */
+public class IncrementalSCCTest extends TestCase {
+    //------------------------------------------------------------------------
+    // CONSTANTS
+    //------------------------------------------------------------------------
+    private static Category cat =
+        Category.getInstance(IncrementalSCCTest.class);
+
+    //------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //------------------------------------------------------------------------
+    /**
+     * Sole constructor.
+     * @param name a name
+     */
+    public IncrementalSCCTest(String name) {
+        super(name);
+    }
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /**
+     * Tests insertions and deletions on a small graph.
+     */
+    public void testSmall() {
+        cat.info("testSmall");
+        FastGraph g = new FastGraph(new int[][] {
+            new int[] {1},
+            new int[] {2},
+            new int[] {0},
+            new int[] {4},
+            new int[] {}
+        });
+        IncrementalSCC inc = new IncrementalSCC(g);
+        assertEquals(3, g.getSCCNb());
+        assertTrue(g.sameSCC(0, 2));
+        g.addEdge(4, 3);
+        assertEquals(2, g.getSCCNb());
+        assertTrue(g.sameSCC(3, 4));
+        g.addEdge(2, 3);
+        assertEquals(2, g.getSCCNb());
+        g.addEdge(4, 1);
+        assertEquals(1, g.getSCCNb());
+        g.removeEdge(4, 1);
+        assertEquals(2, g.getSCCNb());
+        assertFalse(g.sameSCC(0, 3));
+        g.removeEdge(1, 2);
+        assertEquals(4, g.getSCCNb());
+        assertTrue(g.sameSCC(3, 4));
+        for (int i=0; i<5; i++) {
+            assertTrue(g.getSCC(i) < g.getSCCNb());
+        }
+        g.clearEdges(3);
+        assertEquals(5, g.getSCCNb());
+        inc.dispose();
+        g.addEdge(1, 2);
+        assertEquals(5, g.getSCCNb());
+    }
+
+    /**
+     * Compares the incremental SCC with the SCC computed from scratch,
+     * on random insertions and deletions.
+     */
+    public void testRandom() {
+        cat.info("testRandom");
+        testRandom(new FastGraph(60));
+        testRandom(new IntArrayGraph(60, true));
+        testRandom(new MatrixGraph(60));
+        testRandom(new BitMatrixGraph(60));
+    }
+
+    private void testRandom(Graph g) {
+        final int n = g.getNodesNb();
+        Random r = new Random(0);
+        for (int k=0; k<n; k++) {
+            g.addEdge(r.nextInt(n), r.nextInt(n));
+        }
+        IncrementalSCC inc = new IncrementalSCC(g);
+        FastGraph f = new FastGraph(n);
+        for (int k=0; k<3000; k++) {
+            final int a = r.nextInt(n);
+            final int b = r.nextInt(n);
+            if (r.nextInt(3) == 0) {
+                g.removeEdge(a, b);
+            } else if (!g.hasEdge(a, b)) {
+                g.addEdge(a, b);
+            }
+            if (k % 10 == 0) {
+                check(g, f);
+            }
+        }
+        inc.dispose();
+    }
+
+    /**
+     * Checks that the SCC of a graph are the ones computed from scratch.
+     * @param g a graph
+     * @param f a graph used for computing the SCC from scratch
+     */
+    private void check(Graph g, FastGraph f) {
+        final int n = g.getNodesNb();
+        final int sccNb = g.getSCCNb();
+        final int[] scc = new int[n];
+        System.arraycopy(g.getSCC(), 0, scc, 0, n);
+        f.clear();
+        for (int i=0; i<n; i++) {
+            for (IntEdgeCursor c = cursor(g, i); c.hasNext();) {
+                f.addEdge(i, c.next());
+            }
+        }
+        f.computeSCC();
+        assertEquals(f.getSCCNb(), sccNb);
+        final int[] map = new int[sccNb];
+        Arrays.fill(map, -1);
+        for (int i=0; i<n; i++) {
+            assertTrue(scc[i] >= 0 && scc[i] < sccNb);
+            if (map[scc[i]] == -1) {
+                map[scc[i]] = f.getSCC(i);
+            } else {
+                assertEquals(map[scc[i]], f.getSCC(i));
+            }
+        }
+    }
+
+    private IntEdgeCursor cursor(Graph g, int n) {
+        IntEdgeCursor c = g.edgeCursor();
+        c.reset(n);
+        return c;
+    }
+
+    /**
+     * Compares the incremental SCC with the SCC computed from scratch,
+     * on a sequence of deletions.
+     */
+    public void testBigIncrementalSCC() {
+        final int n = 20000;
+        final int ops = 1000;
+        Random r = new Random(0);
+        FastGraph g = new FastGraph(n);
+        // a chain of SCC of 10 nodes
+        for (int i=0; i<n; i++) {
+            g.addEdge(i, i - i % 10 + (i + 1) % 10);
+            g.addEdge(i, i - i % 10 + (i + 3) % 10);
+            if (i >= 10) {
+                g.addEdge(i, i - 10);
+            }
+        }
+        int[] a = new int[ops];
+        int[] b = new int[ops];
+        for (int k=0; k<ops; k++) {
+            a[k] = r.nextInt(n);
+            b[k] = a[k] - a[k] % 10 + (a[k] + 1) % 10;
+        }
+        long time = System.currentTimeMillis();
+        for (int k=0; k<ops; k++) {
+            g.removeEdge(a[k], b[k]);
+            g.computeSCC();
+            g.addEdge(a[k], b[k]);
+        }
+        cat.info("computeSCC: " + (System.currentTimeMillis() - time) + "ms");
+        g.computeSCC();
+        final int sccNb = g.getSCCNb();
+        time = System.currentTimeMillis();
+        IncrementalSCC inc = new IncrementalSCC(g);
+        for (int k=0; k<ops; k++) {
+            g.removeEdge(a[k], b[k]);
+            g.addEdge(a[k], b[k]);
+        }
+        cat.info("IncrementalSCC: "
+                 + (System.currentTimeMillis() - time) + "ms");
+        assertEquals(sccNb, g.getSCCNb());
+        inc.dispose();
+    }
+}
+/*
+ * $Log$
+ */
@@ -0,0 +1,395 @@
+package com.koalog.util.graph;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.LinkedList;
+import org.apache.log4j.Category;
+
+/**
+ * A graph represented as an array of arrays of nodes.
+ *
+ * <P>The adjacent nodes of a node are stored in a growable array 
+ * of integers: adding an edge does not box the end node, 
+ * and removing an edge moves the last adjacent node into its slot 
+ * (so that the order of the edges is not preserved).</P>
+ *
+ * <P>When the graph is indexed, 
+ * the position of each edge in its array is also stored 
+ * (in a hash table of integers per node, with open addressing, 
+ * whose size is proportional to the degree of the node), 
+ * which makes <CODE>hasEdge</CODE> and <CODE>removeEdge</CODE> 
+ * constant time operations (in average).
+ * An indexed graph has no duplicate edges: 
+ * adding an existing edge does nothing.</P>
+ *
+ * <P>This class can be used instead of <CODE>FastGraph</CODE>, 
+ * except that <CODE>getEdges</CODE> returns a copy of the edges.</P>
+ * @author Yan Georget
+ */
+public class IntArrayGraph extends Graph {
+    //------------------------------------------------------------------------
+    // STATIC PROPERTIES
+    //------------------------------------------------------------------------
+    private static Category cat = Category.getInstance(IntArrayGraph.class);
+    private static final int[] EMPTY = new int[0];
+
+    //------------------------------------------------------------------------
+    // PROPERTIES
+    //------------------------------------------------------------------------
+    /** The adjacent nodes of each node. */
+    private int[][] adj;
+    /** The number of adjacent nodes of each node. */
+    private int[] deg;
+    /** 
+     * pos[a] is a hash table (linear probing) of the positions 
+     * (starting from 1) of the adjacent nodes of a, 
+     * 0 for an empty slot; null if the graph is not indexed.
+     */
+    private int[][] pos;
+
+    //------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //------------------------------------------------------------------------
+    /**
+     * Constructs a graph.
+     * @param n the size of the graph
+     * @param indexed true for an indexed graph
+     */
+    public IntArrayGraph(int n, boolean indexed) {
+        super(n);
+        adj = new int[n][];
+        for (int i=n; --i>=0;) {
+            adj[i] = EMPTY;
+        }
+        deg = new int[n];
+        if (indexed) {
+            pos = new int[n][];
+            for (int i=n; --i>=0;) {
+                pos[i] = EMPTY;
+            }
+        }
+    }
+
+    /**
+     * Constructs a graph (not indexed).
+     * @param n the size of the graph
+     */
+    public IntArrayGraph(int n) {
+        this(n, false);
+    }
+
+    /**
+     * Constructs a graph
+     * given, for each node, an array of adjacent nodes.
+     * @param e an array of arrays
+     * @param indexed true for an indexed graph
+     */
+    public IntArrayGraph(int[][] e, boolean indexed) {
+        this(e.length, indexed);
+        for (int i=0; i<e.length; i++) {
+            final int size = e[i].length;
+            for (int j=0; j<size; j++) {
+                addEdge(i, e[i][j]);
+            }
+        }
+    }
+
+    /**
+     * Constructs a graph (not indexed)
+     * given, for each node, an array of adjacent nodes.
+     * @param e an array of arrays
+     */
+    public IntArrayGraph(int[][] e) {
+        this(e, false);
+    }
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /**
+     * Checks if the graph is indexed.
+     * @return a boolean
+     */
+    public final boolean isIndexed() {
+        return pos != null;
+    }
+
+    /** @see com.koalog.util.graph.Graph */
+    public void clear() {
+        for (int i=nodesNb; --i>=0;) {
+            clearEdges(i);
+        }
+    }
+    
+    /** 
+     * Returns a copy of the list of edges adjacent to a given node.
+     * @param n a node
+     * @return a list
+     */
+    public final List getEdges(int n) {
+        final List l = new LinkedList();
+        final int[] a = adj[n];
+        for (int k=0, d=deg[n]; k<d; k++) {
+            l.add(box(a[k]));
+        }
+        return l;
+    }
+
+    /** @see com.koalog.util.graph.Graph */
+    public final Iterator getEdgesIterator(final int n) {
+        return new Iterator() {
+                int index = 0;
+
+                public boolean hasNext() {
+                    return index < deg[n];
+                }
+                
+                public Object next() {
+                    return box(adj[n][index++]);
+                }
+
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+    }
+
+    /** @see com.koalog.util.graph.Graph */
+    public final void clearEdges(int n) {
+        if (pos != null) {
+            final int[] p = pos[n];
+            for (int k=p.length; --k>=0;) {
+                p[k] = 0;
+            }
+        }
+        deg[n] = 0;
+        if (hasGraphListeners()) {
+            fireEdgesCleared(n);
+        }
+    }
+    
+    /** @see com.koalog.util.graph.Graph */
+    public final void removeEdge(int a, int b) {
+        final int[] e = adj[a];
+        int k;
+        if (pos != null) {
+            final int s = slot(a, b);
+            if (s == -1) {
+                return;
+            }
+            k = pos[a][s] - 1;
+            unhash(a, s);
+        } else {
+            k = deg[a];
+            while (--k >= 0 && e[k] != b) {
+            }
+        }
+        if (k >= 0) {
+            final int last = e[deg[a]-1];
+            if (pos != null && last != b) {
+                pos[a][slot(a, last)] = k+1;
+            }
+            e[k] = last;
+            deg[a]--;
+            if (hasGraphListeners()) {
+                fireEdgeRemoved(a, b);
+            }
+        }
+    }
+
+    /** @see com.koalog.util.graph.Graph */
+    public final void removeEdge(int a, Integer b) {
+        removeEdge(a, b.intValue());
+    }
+
+    /** @see com.koalog.util.graph.Graph */
+    public final void addEdge(int a, int b) {
+        if (pos != null && slot(a, b) != -1) {
+            return;
+        }
+        int[] e = adj[a];
+        final int d = deg[a];
+        if (d == e.length) {
+            e = new int[2*d + 4];
+            System.arraycopy(adj[a], 0, e, 0, d);
+            adj[a] = e;
+        }
+        e[d] = b;
+        deg[a] = d+1;
+        if (pos != null) {
+            hash(a, d);
+        }
+        if (hasGraphListeners()) {
+            fireEdgeAdded(a, b);
+        }
+    }
+
+    /** @see com.koalog.util.graph.Graph */
+    public final void addEdge(int a, Integer b) {
+        addEdge(a, b.intValue());
+    }
+
+    /** @see com.koalog.util.graph.Graph */
+    public final boolean hasEdge(int a, int b) {
+        if (pos != null) {
+            return slot(a, b) != -1;
+        }
+        final int[] e = adj[a];
+        for (int k=deg[a]; --k>=0;) {
+            if (e[k] == b) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** @see com.koalog.util.graph.Graph */
+    public final boolean hasEdge(int a, Integer b) {
+        return hasEdge(a, b.intValue());
+    }
+
+    /** @see com.koalog.util.graph.Graph */
+    public final void addEdgeIfNecessary(int a, int b) {
+        if (!hasEdge(a, b)) {
+            addEdge(a, b);
+        }
+    }
+
+    /** @see com.koalog.util.graph.Graph */
+    public final void addEdgeIfNecessary(int a, Integer b) {
+        addEdgeIfNecessary(a, b.intValue());
+    }
+
+    /** @see com.koalog.util.graph.Graph */
+    public final int degree(int n) {
+        return deg[n];
+    }
+
+    /** @see com.koalog.util.graph.Graph */
+    public final void forEachEdge(int n, EdgeVisitor visitor) {
+        final int[] e = adj[n];
+        for (int k=0, d=deg[n]; k<d; k++) {
+            visitor.visitEdge(n, e[k]);
+        }
+    }
+
+    /** @see com.koalog.util.graph.Graph */
+    public final IntEdgeCursor edgeCursor() {
+        return new IntEdgeCursor() {
+                int[] e;
+                int index;
+                int end;
+
+                public void reset(int n) {
+                    e = adj[n];
+                    index = 0;
+                    end = deg[n];
+                }
+
+                public boolean hasNext() {
+                    return index < end;
+                }
+
+                public int next() {
+                    return e[index++];
+                }
+            };
+    }
+
+    /**
+     * Hashes a node (for the hash tables).
+     */
+    private static final int hash(int b) {
+        final int h = b * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Returns the slot of an adjacent node in the hash table of a node.
+     * @param a a node
+     * @param b a node
+     * @return a slot, -1 if there is no edge
+     */
+    private final int slot(int a, int b) {
+        final int[] p = pos[a];
+        if (p.length == 0) {
+            return -1;
+        }
+        final int[] e = adj[a];
+        final int mask = p.length - 1;
+        for (int s = hash(b) & mask; p[s] != 0; s = (s+1) & mask) {
+            if (e[p[s]-1] == b) {
+                return s;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Inserts the position of an adjacent node 
+     * in the hash table of a node, growing it if necessary.
+     * @param a a node
+     * @param k a position (starting from 0) in adj[a]
+     */
+    private final void hash(int a, int k) {
+        int[] p = pos[a];
+        if (2*deg[a] > p.length) {
+            // the load factor is kept under 1/2
+            p = new int[Math.max(4, 2*p.length)];
+            pos[a] = p;
+            for (int i=0; i<k; i++) {
+                insert(p, adj[a], i);
+            }
+        }
+        insert(p, adj[a], k);
+    }
+
+    private static final void insert(int[] p, int[] e, int k) {
+        final int mask = p.length - 1;
+        int s = hash(e[k]) & mask;
+        while (p[s] != 0) {
+            s = (s+1) & mask;
+        }
+        p[s] = k+1;
+    }
+
+    /**
+     * Empties a slot of the hash table of a node 
+     * (backward shift deletion).
+     * @param a a node
+     * @param s a slot
+     */
+    private final void unhash(int a, int s) {
+        final int[] p = pos[a];
+        final int[] e = adj[a];
+        final int mask = p.length - 1;
+        int i = s;
+        for (int j = (i+1) & mask; p[j] != 0; j = (j+1) & mask) {
+            final int h = hash(e[p[j]-1]) & mask;
+            // the entry of j moves to i unless its home is in (i,j]
+            if (i <= j ? (h <= i || h > j) : (h <= i && h > j)) {
+                p[i] = p[j];
+                i = j;
+            }
+        }
+        p[i] = 0;
+    }
+
+    /**
+     * Returns the graph as a string.
+     * @return a string
+     */
+    public String toString() {
+        StringBuffer buf = new StringBuffer();
+        for (int i=0; i<nodesNb; i++) {
+            buf.append(i);
+            buf.append("\n");
+            buf.append(getEdges(i));
+            buf.append("\n");
+        }
+        return buf.toString();
+    }
+}
+/*
+ * $Log$
+ */
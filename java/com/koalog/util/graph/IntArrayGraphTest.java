@@ -0,0 +1,198 @@
+package com.koalog.util.graph;
+
+import java.util.LinkedList;
+import java.util.Random;
+import junit.framework.TestCase;
+import org.apache.log4j.Category;
+
+/**
+ * Tests the IntArrayGraph class.
+ *
+ * @author Yan Georget
+ */
+public class IntArrayGraphTest extends TestCase {
+    //------------------------------------------------------------------------
+    // CONSTANTS
+    //------------------------------------------------------------------------
+    private static Category cat = Category.getInstance(IntArrayGraphTest.class);
+
+    //------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //------------------------------------------------------------------------
+    /**
+     * Sole constructor.
+     * @param name a name
+     */
+    public IntArrayGraphTest(String name) {
+        super(name);
+    }
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /**
+     * Tests the constructor.
+     */
+    public void testConstructor() {
+        cat.info("testConstructor");
+        IntArrayGraph g = new IntArrayGraph(new int[][] {
+            new int[] {2,3},
+            new int[] {2},
+            new int[] {3},
+            new int[] {1}
+        });
+        assertFalse(g.isIndexed());
+        assertEquals(2, g.getEdges(0).size());
+        assertEquals(1, g.degree(1));
+        assertTrue(g.hasEdge(0, 3));
+        assertFalse(g.hasEdge(3, 0));
+    }
+
+    /**
+     * Tests the SCC and the paths.
+     */
+    public void testSCCAndPath() {
+        cat.info("testSCCAndPath");
+        IntArrayGraph g = new IntArrayGraph(new int[][] {
+            new int[] {2,3},
+            new int[] {2},
+            new int[] {3},
+            new int[] {1}
+        }, true);
+        g.computeTremaux();
+        g.computeSCC();
+        assertEquals(1, g.getSCC(0));
+        for (int i=1; i<g.getNodesNb(); i++) {
+            assertEquals(0, g.getSCC(i));
+        }
+        assertEquals(2, g.getSCCNb());
+        LinkedList start = new LinkedList();
+        start.add(new Integer(1));
+        assertEquals(2, g.computePath(start, 3).size());
+    }
+
+    /**
+     * Tests addEdge, removeEdge and hasEdge against a FastGraph, 
+     * for indexed and non indexed graphs.
+     */
+    public void testRandom() {
+        testRandom(false);
+        testRandom(true);
+    }
+
+    private void testRandom(boolean indexed) {
+        final int n = 50;
+        Random r = new Random(0);
+        IntArrayGraph g = new IntArrayGraph(n, indexed);
+        FastGraph f = new FastGraph(n);
+        for (int k=0; k<20000; k++) {
+            int a = r.nextInt(n);
+            int b = r.nextInt(n);
+            switch (r.nextInt(3)) {
+            case 0:
+                g.addEdgeIfNecessary(a, b);
+                f.addEdgeIfNecessary(a, b);
+                break;
+            case 1:
+                g.removeEdge(a, b);
+                f.removeEdge(a, b);
+                break;
+            default:
+                assertEquals(f.hasEdge(a, b), g.hasEdge(a, b));
+            }
+        }
+        for (int a=0; a<n; a++) {
+            assertEquals(f.degree(a), g.degree(a));
+            for (int b=0; b<n; b++) {
+                assertEquals(f.hasEdge(a, b), g.hasEdge(a, b));
+            }
+        }
+        g.clear();
+        for (int a=0; a<n; a++) {
+            assertEquals(0, g.degree(a));
+            for (int b=0; b<n; b++) {
+                assertFalse(g.hasEdge(a, b));
+            }
+        }
+    }
+
+    /**
+     * Tests a large sparse indexed graph 
+     * (the index grows with the degrees of the nodes), 
+     * against a graph which is not indexed.
+     */
+    public void testSparseIndexed() {
+        cat.info("testSparseIndexed");
+        final int n = 200000;
+        Random r = new Random(0);
+        IntArrayGraph g = new IntArrayGraph(n, true);
+        IntArrayGraph f = new IntArrayGraph(n);
+        for (int k=0; k<4*n; k++) {
+            int a = r.nextInt(n);
+            int b = r.nextInt(n);
+            if (r.nextInt(4) == 0) {
+                g.removeEdge(a, b);
+                f.removeEdge(a, b);
+            } else {
+                g.addEdge(a, b);
+                f.addEdgeIfNecessary(a, b);
+            }
+        }
+        // a few nodes of high degree
+        for (int k=0; k<1000; k++) {
+            g.addEdge(k % 3, n - 1 - k);
+            f.addEdgeIfNecessary(k % 3, n - 1 - k);
+        }
+        for (int a=0; a<n; a++) {
+            assertEquals(f.degree(a), g.degree(a));
+            final IntEdgeCursor c = f.edgeCursor();
+            for (c.reset(a); c.hasNext();) {
+                assertTrue(g.hasEdge(a, c.next()));
+            }
+        }
+        for (int k=0; k<1000; k++) {
+            assertTrue(g.hasEdge(k % 3, n - 1 - k));
+            g.removeEdge(k % 3, n - 1 - k);
+            f.removeEdge(k % 3, n - 1 - k);
+            assertFalse(g.hasEdge(k % 3, n - 1 - k));
+        }
+        for (int k=0; k<10000; k++) {
+            int a = r.nextInt(n);
+            int b = r.nextInt(n);
+            assertEquals(f.hasEdge(a, b), g.hasEdge(a, b));
+        }
+    }
+
+    /**
+     * Compares the FastGraph and IntArrayGraph classes
+     * on a sequence of edge additions, checks and removals.
+     */
+    public void testBigIntArrayGraph() {
+        final int n = 500;
+        final int ops = 200000;
+        Graph[] graphs = new Graph[] {
+            new FastGraph(n), 
+            new IntArrayGraph(n), 
+            new IntArrayGraph(n, true)
+        };
+        for (int g=0; g<graphs.length; g++) {
+            Random r = new Random(0);
+            long time = System.currentTimeMillis();
+            for (int k=0; k<ops; k++) {
+                int a = r.nextInt(n);
+                int b = r.nextInt(n);
+                if (r.nextBoolean()) {
+                    graphs[g].addEdgeIfNecessary(a, b);
+                } else {
+                    graphs[g].removeEdge(a, b);
+                }
+            }
+            cat.info(graphs[g].getClass().getName() 
+                     + (g == 2 ? " (indexed)" : "") + ": " 
+                     + (System.currentTimeMillis() - time) + "ms");
+        }
+    }
+}
+/*
+ * $Log$
+ */
@@ -0,0 +1,125 @@
+package com.koalog.util.graph;
+
+import com.koalog.util.heap.Indexed;
+import com.koalog.util.heap.MonotoneQueue;
+import com.koalog.util.heap.RadixHeap;
+import com.koalog.util.heap.BucketQueue;
+
+/**
+ * A queue for Dijkstra algorithms 
+ * based on a monotone queue of integer priorities 
+ * (a radix heap or a bucket queue).
+ *
+ * <P>It can only be used when the costs of the edges 
+ * are non negative integers: the distances are then integers,
+ * and are used as priorities. 
+ * The nodes at an infinite distance are not stored in the queue, 
+ * they enter it when their distance decreases.</P>
+ * @author Yan Georget
+ */
+public class IntDijkstraQueue implements DijkstraQueue {
+    //------------------------------------------------------------------------
+    // PROPERTIES
+    //------------------------------------------------------------------------
+    private float[] distance;
+    private NGraph graph;
+    private MonotoneQueue queue;
+
+    //------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //------------------------------------------------------------------------
+    /**
+     * Sole constructor.
+     * @param distance the distances to the origin
+     * @param graph the graph
+     * @param queue an empty monotone queue, 
+     * whose capacity is the number of nodes
+     */
+    public IntDijkstraQueue(float[] distance, 
+                            NGraph graph, 
+                            MonotoneQueue queue) {
+        this.distance = distance;
+        this.graph = graph;
+        this.queue = queue;
+    }
+
+    //------------------------------------------------------------------------
+    // STATIC METHODS
+    //------------------------------------------------------------------------
+    /**
+     * Returns a factory of queues based on radix heaps.
+     * @return a factory
+     */
+    public static DijkstraQueueFactory radixFactory() {
+        return new DijkstraQueueFactory() {
+                public DijkstraQueue createQueue(float[] distance, 
+                                                 NGraph graph) {
+                    return new IntDijkstraQueue(
+                        distance, 
+                        graph, 
+                        new RadixHeap(graph.getNodesNb()));
+                }
+            };
+    }
+
+    /**
+     * Returns a factory of queues based on bucket queues.
+     * @param maxCost the maximum cost of an edge
+     * @return a factory
+     */
+    public static DijkstraQueueFactory bucketFactory(final int maxCost) {
+        return new DijkstraQueueFactory() {
+                public DijkstraQueue createQueue(float[] distance, 
+                                                 NGraph graph) {
+                    return new IntDijkstraQueue(
+                        distance, 
+                        graph, 
+                        new BucketQueue(graph.getNodesNb(), maxCost));
+                }
+            };
+    }
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /** @see com.koalog.util.graph.DijkstraQueue */
+    public final void buildFrom(Indexed[] a) {
+        queue.clear();
+        for (int i=0; i<a.length; i++) {
+            add(a[i]);
+        }
+    }
+
+    /** @see com.koalog.util.graph.DijkstraQueue */
+    public final void add(Indexed o) {
+        final int id = o.getIndex();
+        final float d = distance[id];
+        if (d != Float.MAX_VALUE) {
+            queue.push(id, (int) d);
+        }
+    }
+
+    /** @see com.koalog.util.graph.DijkstraQueue */
+    public final void up(Indexed o) {
+        final int id = o.getIndex();
+        if (queue.contains(id)) {
+            queue.decreaseKey(id, (int) distance[id]);
+        } else {
+            queue.push(id, (int) distance[id]);
+        }
+    }
+
+    /** @see com.koalog.util.graph.DijkstraQueue */
+    public final Object pop() {
+        final int id = queue.popMin();
+        return id == -1 ? null : graph.getNode(id);
+    }
+
+    /** @see com.koalog.util.graph.DijkstraQueue */
+    public final boolean isEmpty() {
+        return queue.isEmpty();
+    }
+}
+/*
+ * $Log$
+ */
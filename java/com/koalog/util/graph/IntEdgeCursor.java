@@ -0,0 +1,35 @@
+package com.koalog.util.graph;
+
+/**
+ * A reusable cursor on the edges adjacent to a node, 
+ * returning the end nodes as primitive integers.
+ *
+ * <P>Contrary to an <CODE>Iterator</CODE>, 
+ * a cursor is created once (see <CODE>Graph.edgeCursor</CODE>)
+ * and reset for each node, so that traversing a graph creates no garbage
+ * (except for <CODE>FastGraph</CODE>, whose lists of edges are linked).
+ * The graph must not be modified while a cursor is used.</P>
+ * @author Yan Georget
+ */
+public abstract class IntEdgeCursor {
+    /**
+     * Positions the cursor before the first edge adjacent to a node.
+     * @param n a node
+     */
+    public abstract void reset(int n);
+
+    /**
+     * Checks if there is a next edge.
+     * @return a boolean
+     */
+    public abstract boolean hasNext();
+
+    /**
+     * Returns the end node of the next edge.
+     * @return a node
+     */
+    public abstract int next();
+}
+/*
+ * $Log$
+ */
@@ -0,0 +1,51 @@
+package com.koalog.util.graph;
+
+/**
+ * A pool of edge cursors on a graph, indexed by recursion depth.
+ *
+ * <P>The iterative algorithms use a cursor per level of their explicit 
+ * stack: the cursors are created on demand, then reused.</P>
+ * @author Yan Georget
+ */
+final class IntEdgeCursorPool {
+    //------------------------------------------------------------------------
+    // PROPERTIES
+    //------------------------------------------------------------------------
+    private Graph graph;
+    private IntEdgeCursor[] cursors;
+
+    //------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //------------------------------------------------------------------------
+    /**
+     * Constructs a pool of cursors on a graph.
+     * @param graph a graph
+     */
+    IntEdgeCursorPool(Graph graph) {
+        this.graph = graph;
+        cursors = new IntEdgeCursor[16];
+    }
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /**
+     * Returns the cursor used at a given depth.
+     * @param depth a depth
+     * @return a cursor
+     */
+    final IntEdgeCursor get(int depth) {
+        if (depth >= cursors.length) {
+            final IntEdgeCursor[] tmp = new IntEdgeCursor[2*depth + 16];
+            System.arraycopy(cursors, 0, tmp, 0, cursors.length);
+            cursors = tmp;
+        }
+        if (cursors[depth] == null) {
+            cursors[depth] = graph.edgeCursor();
+        }
+        return cursors[depth];
+    }
+}
+/*
+ * $Log$
+ */
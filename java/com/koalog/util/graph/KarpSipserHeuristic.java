@@ -0,0 +1,161 @@
+package com.koalog.util.graph;
+
+/**
+ * The Karp-Sipser matching heuristic.
+ *
+ * <P>While there is a free node with a single free neighbor,
+ * this node is matched with it (this choice is always optimal);
+ * otherwise an arbitrary free start node is matched
+ * with its first free neighbor.
+ * The degrees count the free neighbors,
+ * they are updated each time a pair is matched.</P>
+ *
+ * <P>The end nodes being only known by their predecessors,
+ * a reverse adjacency (compressed rows) is built at each call.
+ * The buffers are allocated once for a given graph size.</P>
+ * @author Yan Georget
+ */
+public class KarpSipserHeuristic implements MatchingHeuristic {
+    //------------------------------------------------------------------------
+    // PROPERTIES
+    //------------------------------------------------------------------------
+    /** The number of free neighbors of each node. */
+    private int[] deg;
+    /** The nodes whose degree is 1. */
+    private int[] queue;
+    /** The offsets of the predecessors of the end nodes. */
+    private int[] offsets;
+    /** The predecessors of the end nodes. */
+    private int[] sources;
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /** @see com.koalog.util.graph.MatchingHeuristic */
+    public int initialize(HopcroftKarp matcher) {
+        final Graph g = matcher.getGraph();
+        final int firstEnd = matcher.getFirstEnd();
+        final int n = g.getNodesNb();
+        final int[] mate = matcher.getMate();
+        if (deg == null
+            || deg.length != n
+            || offsets.length != n - firstEnd + 1) {
+            deg = new int[n];
+            queue = new int[n];
+            offsets = new int[n - firstEnd + 1];
+        }
+        matcher.clear();
+        for (int v=firstEnd; v<n; v++) {
+            deg[v] = 0;
+        }
+        final IntEdgeCursor c = g.edgeCursor();
+        int m = 0;
+        for (int u=0; u<firstEnd; u++) {
+            int d = 0;
+            for (c.reset(u); c.hasNext();) {
+                deg[c.next()]++;
+                d++;
+            }
+            deg[u] = d;
+            m += d;
+        }
+        if (sources == null || sources.length < m) {
+            sources = new int[m];
+        }
+        offsets[0] = 0;
+        for (int v=firstEnd; v<n; v++) {
+            offsets[v - firstEnd + 1] = offsets[v - firstEnd] + deg[v];
+        }
+        for (int u=0; u<firstEnd; u++) {
+            for (c.reset(u); c.hasNext();) {
+                final int v = c.next() - firstEnd;
+                sources[offsets[v+1] - deg[v + firstEnd]--] = u;
+            }
+        }
+        int tail = 0;
+        for (int u=0; u<firstEnd; u++) {
+            if (deg[u] == 1) {
+                queue[tail++] = u;
+            }
+        }
+        for (int v=firstEnd; v<n; v++) {
+            deg[v] = offsets[v - firstEnd + 1] - offsets[v - firstEnd];
+            if (deg[v] == 1) {
+                queue[tail++] = v;
+            }
+        }
+        int head = 0;
+        int next = 0;
+        while (true) {
+            while (head < tail) {
+                final int x = queue[head++];
+                if (mate[x] != -1 || deg[x] == 0) {
+                    continue;
+                }
+                if (x < firstEnd) {
+                    tail = match(matcher, c, x, firstFree(c, mate, x), tail);
+                } else {
+                    int u = -1;
+                    final int end = offsets[x - firstEnd + 1];
+                    for (int k=offsets[x - firstEnd]; k<end; k++) {
+                        if (mate[sources[k]] == -1) {
+                            u = sources[k];
+                            break;
+                        }
+                    }
+                    tail = match(matcher, c, u, x, tail);
+                }
+            }
+            while (next < firstEnd && (mate[next] != -1 || deg[next] == 0)) {
+                next++;
+            }
+            if (next == firstEnd) {
+                break;
+            }
+            tail = match(matcher, c, next, firstFree(c, mate, next), tail);
+        }
+        return matcher.getSize();
+    }
+
+    private static final int firstFree(IntEdgeCursor c, int[] mate, int u) {
+        for (c.reset(u); c.hasNext();) {
+            final int v = c.next();
+            if (mate[v] == -1) {
+                return v;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Matches a pair and decrements the degrees of the free neighbors
+     * of its nodes.
+     * @return the new tail of the queue
+     */
+    private final int match(HopcroftKarp matcher,
+                            IntEdgeCursor c,
+                            int u,
+                            int v,
+                            int tail) {
+        final int firstEnd = matcher.getFirstEnd();
+        final int[] mate = matcher.getMate();
+        matcher.match(u, v);
+        for (c.reset(u); c.hasNext();) {
+            final int w = c.next();
+            if (mate[w] == -1 && --deg[w] == 1) {
+                queue[tail++] = w;
+            }
+        }
+        final int end = offsets[v - firstEnd + 1];
+        for (int k=offsets[v - firstEnd]; k<end; k++) {
+            final int w = sources[k];
+            if (mate[w] == -1 && --deg[w] == 1) {
+                queue[tail++] = w;
+            }
+        }
+        return tail;
+    }
+}
+/*
+ * $Log$
+ */
@@ -0,0 +1,27 @@
+package com.koalog.util.graph;
+
+/**
+ * An interface describing heuristics computing the initial matching
+ * of a maximum matching engine (see <CODE>HopcroftKarp.compute</CODE>).
+ *
+ * <P>The better the initial matching,
+ * the fewer augmenting paths remain to be found.</P>
+ * @author Yan Georget
+ */
+public interface MatchingHeuristic {
+    /**
+     * Computes the initial matching of an engine.
+     *
+     * <P>When called, the matching of the engine is the previous one
+     * (its pairs may not be edges anymore if the graph has been modified).
+     * The heuristic must modify it using the methods
+     * <CODE>clear</CODE>, <CODE>match</CODE> and <CODE>unmatch</CODE>
+     * of the engine.</P>
+     * @param matcher a matching engine
+     * @return the size of the matching
+     */
+    public int initialize(HopcroftKarp matcher);
+}
+/*
+ * $Log$
+ */
@@ -52,11 +52,8 @@ public class MatrixGraph extends Graph {
     //------------------------------------------------------------------------
     /** @see com.koalog.util.graph.Graph */
     public void clear() {
-        final int n = m.length;
-        for (int i=n; --i>=0;) {
-            for (int j=n; --j>=0;) {
-                m[i][j] = false;
-            }
+        for (int i=m.length; --i>=0;) {
+            clearEdges(i);
         }
     }
     
@@ -65,7 +62,7 @@ public class MatrixGraph extends Graph {
         final List l = new LinkedList();
         for (int j=0; j<m.length; j++) {
             if (m[n][j]) {
-                l.add(new Integer(j));
+                l.add(box(j));
             }
         }
         return l;
@@ -86,7 +83,7 @@ public class MatrixGraph extends Graph {
                 }
                 
                 public Object next() {
-                    return new Integer(index);
+                    return box(index);
                 }
 
                 public void remove() {
@@ -100,11 +97,19 @@ public class MatrixGraph extends Graph {
         for (int j=m.length; --j>=0;) {
             m[n][j] = false;
         }
+        if (hasGraphListeners()) {
+            fireEdgesCleared(n);
+        }
     }
     
     /** @see com.koalog.util.graph.Graph */
     public final void removeEdge(int a, int b) {
-        m[a][b] = false;
+        if (m[a][b]) {
+            m[a][b] = false;
+            if (hasGraphListeners()) {
+                fireEdgeRemoved(a, b);
+            }
+        }
     }
 
     /** @see com.koalog.util.graph.Graph */
@@ -114,7 +119,12 @@ public class MatrixGraph extends Graph {
 
     /** @see com.koalog.util.graph.Graph */
     public final void addEdge(int a, int b) {
-        m[a][b] = true;
+        if (!m[a][b]) {
+            m[a][b] = true;
+            if (hasGraphListeners()) {
+                fireEdgeAdded(a, b);
+            }
+        }
     }
 
     /** @see com.koalog.util.graph.Graph */
@@ -134,13 +144,64 @@ public class MatrixGraph extends Graph {
 
     /** @see com.koalog.util.graph.Graph */
     public final void addEdgeIfNecessary(int a, int b) {
-        m[a][b] = true;
+        addEdge(a, b);
     }
 
         /** @see com.koalog.util.graph.Graph */
     public final void addEdgeIfNecessary(int a, Integer b) {
         addEdgeIfNecessary(a, b.intValue());
     }
+
+    /** @see com.koalog.util.graph.Graph */
+    public final int degree(int n) {
+        final boolean[] row = m[n];
+        int d = 0;
+        for (int j=row.length; --j>=0;) {
+            if (row[j]) {
+                d++;
+            }
+        }
+        return d;
+    }
+
+    /** @see com.koalog.util.graph.Graph */
+    public final void forEachEdge(int n, EdgeVisitor visitor) {
+        final boolean[] row = m[n];
+        for (int j=0; j<row.length; j++) {
+            if (row[j]) {
+                visitor.visitEdge(n, j);
+            }
+        }
+    }
+
+    /** @see com.koalog.util.graph.Graph */
+    public final IntEdgeCursor edgeCursor() {
+        return new IntEdgeCursor() {
+                boolean[] row;
+                int index;
+
+                public void reset(int n) {
+                    row = m[n];
+                    index = -1;
+                    advance();
+                }
+
+                public boolean hasNext() {
+                    return index < row.length;
+                }
+
+                public int next() {
+                    final int j = index;
+                    advance();
+                    return j;
+                }
+
+                private void advance() {
+                    while (++index < row.length && !row[index]) {
+                    }
+                }
+            };
+    }
 }
 /*
  * $Log$
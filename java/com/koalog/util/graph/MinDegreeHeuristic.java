@@ -0,0 +1,89 @@
+package com.koalog.util.graph;
+
+/**
+ * A degree-aware greedy matching heuristic:
+ * the start nodes are matched by increasing degree,
+ * each one with its free end node of minimum degree.
+ *
+ * <P>Matching the most constrained nodes first
+ * leaves more choices to the other ones,
+ * so that the initial matching is usually larger than the greedy one.
+ * The buffers are allocated once for a given graph size.</P>
+ * @author Yan Georget
+ */
+public class MinDegreeHeuristic implements MatchingHeuristic {
+    //------------------------------------------------------------------------
+    // PROPERTIES
+    //------------------------------------------------------------------------
+    /** The degree of each node. */
+    private int[] deg;
+    /** The start nodes sorted by increasing degree. */
+    private int[] order;
+    private int[] count;
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /** @see com.koalog.util.graph.MatchingHeuristic */
+    public int initialize(HopcroftKarp matcher) {
+        final Graph g = matcher.getGraph();
+        final int firstEnd = matcher.getFirstEnd();
+        final int n = g.getNodesNb();
+        final int[] mate = matcher.getMate();
+        if (deg == null || deg.length != n || order.length != firstEnd) {
+            deg = new int[n];
+            order = new int[firstEnd];
+        }
+        matcher.clear();
+        for (int v=firstEnd; v<n; v++) {
+            deg[v] = 0;
+        }
+        final IntEdgeCursor c = g.edgeCursor();
+        int max = 0;
+        for (int u=0; u<firstEnd; u++) {
+            int d = 0;
+            for (c.reset(u); c.hasNext();) {
+                deg[c.next()]++;
+                d++;
+            }
+            deg[u] = d;
+            if (d > max) {
+                max = d;
+            }
+        }
+        // counting sort of the start nodes
+        if (count == null || count.length < max + 2) {
+            count = new int[max + 2];
+        } else {
+            for (int d=max+2; --d>=0;) {
+                count[d] = 0;
+            }
+        }
+        for (int u=0; u<firstEnd; u++) {
+            count[deg[u] + 1]++;
+        }
+        for (int d=1; d<=max; d++) {
+            count[d] += count[d-1];
+        }
+        for (int u=0; u<firstEnd; u++) {
+            order[count[deg[u]]++] = u;
+        }
+        for (int k=0; k<firstEnd; k++) {
+            final int u = order[k];
+            int best = -1;
+            for (c.reset(u); c.hasNext();) {
+                final int v = c.next();
+                if (mate[v] == -1 && (best == -1 || deg[v] < deg[best])) {
+                    best = v;
+                }
+            }
+            if (best != -1) {
+                matcher.match(u, best);
+            }
+        }
+        return matcher.getSize();
+    }
+}
+/*
+ * $Log$
+ */
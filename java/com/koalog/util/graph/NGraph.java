@@ -1,5 +1,6 @@
 package com.koalog.util.graph;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.LinkedList;
 import java.util.ArrayList;
@@ -28,6 +29,13 @@ public class NGraph {
     /** The Tremaux ordinal of the nodes. */
     protected int[] tremaux;
     private int tremauxNum;
+    private int[] at;
+    /** The stack of the depth first searches (created on demand). */
+    private int[] path;
+    /** The index of the next edge to explore, for each node of the path. */
+    private int[] edge;
+    /** The stack of the Tarjan algorithm (created on demand). */
+    private int[] stack;
 
     //------------------------------------------------------------------------
     // CONSTRUCTORS
@@ -210,6 +218,9 @@ public class NGraph {
     /**
      * Checks if there is a path (no cycle allowed, BFS) 
      * from a set of nodes to a node.
+     *
+     * <P>The nodes are marked as visited when they are queued,
+     * so that each node is queued at most once.</P>
      * @param frontier the set of nodes we are starting from
      * @param iy the goal node
      * @param visited the set of nodes visited so far
@@ -221,21 +232,27 @@ public class NGraph {
                     int iy, 
                     boolean[] visited, 
                     NEdge[] parent) {
-        while (!frontier.isEmpty()) {
-            Node x = (Node) frontier.removeFirst();
-            int ix = x.getIndex();
+        for (Iterator i = frontier.iterator(); i.hasNext();) {
+            final int ix = ((Node) i.next()).getIndex();
             if (ix == iy) {
                 return true;
             }
             visited[ix] = true;
+        }
+        while (!frontier.isEmpty()) {
+            Node x = (Node) frontier.removeFirst();
             NEdge[] edges = x.getEdges();
             for (int i=0; i<edges.length; i++) {
                 NEdge e = (NEdge) edges[i];
                 Node z = e.getEndNode();
                 int iz = z.getIndex();
                 if (!visited[iz]) {
-                    frontier.addLast(z);
+                    visited[iz] = true;
                     parent[iz] = e;
+                    if (iz == iy) {
+                        return true;
+                    }
+                    frontier.addLast(z);
                 }
             }
         }
@@ -263,37 +280,52 @@ public class NGraph {
 
     /**
      * Computes the Tremaux ordinals.
+     *
+     * <P>The depth first search is iterative 
+     * (it does not overflow the stack on long paths).</P>
      */
     public void computeTremaux() {
-        tremaux = new int[nodes.length];
-        for (int i=0; i<nodes.length; i++) {
+        final int n = nodes.length;
+        tremaux = buffer(tremaux, n);
+        for (int i=0; i<n; i++) {
             tremaux[i] = -1;
         }
         tremauxNum = 0;
-        int i;
-        while ((i = freeIndex()) != -1) {
-            computeTremaux(i);
-        }
-    }
-
-    private int freeIndex() {
-        for (int i=0; i<nodes.length; i++) {
-            if (tremaux[i] == -1) {
-                return i;
+        path = buffer(path, n);
+        edge = buffer(edge, n);
+        for (int r=0; r<n; r++) {
+            if (tremaux[r] != -1) {
+                continue;
+            }
+            int depth = 0;
+            path[0] = r;
+            edge[0] = 0;
+            tremaux[r] = tremauxNum++;
+            while (depth >= 0) {
+                final NEdge[] edges = nodes[path[depth]].getEdges();
+                if (edge[depth] < edges.length) {
+                    final int v = 
+                        edges[edge[depth]++].getEndNode().getIndex();
+                    if (tremaux[v] == -1) {
+                        path[++depth] = v;
+                        edge[depth] = 0;
+                        tremaux[v] = tremauxNum++;
+                    }
+                } else {
+                    depth--;
+                }
             }
         }
-        return -1;
     }
 
-    private void computeTremaux(int i) {
-        tremaux[i] = tremauxNum++;
-        NEdge[] edges = nodes[i].getEdges();
-        for (int k=0; k<edges.length; k++) {
-            int v =  edges[k].getEndNode().getIndex();
-            if (tremaux[v] == -1) {
-                computeTremaux(v);
-            }
-        }
+    /**
+     * Returns a buffer of a given size, reusing a buffer if possible.
+     * @param buf a buffer (may be null)
+     * @param n a size
+     * @return an array of integers
+     */
+    private static int[] buffer(int[] buf, int n) {
+        return buf != null && buf.length == n ? buf : new int[n];
     }
 
     //------------------------------------------------------------------------
@@ -301,21 +333,74 @@ public class NGraph {
     //------------------------------------------------------------------------
     /**
      * Computes the SCC (Tarjan algorithm).
+     *
+     * <P>The Tremaux ordinals are computed as well.
+     * The depth first search is iterative 
+     * (it does not overflow the stack on long paths) 
+     * and its buffers are reused from one call to the next.</P>
      */
     public void computeSCC() {
-        if (tremaux == null) {
-            computeTremaux();
-        }
-        scc = new int[nodes.length];
-        int[] at = new int[nodes.length];
-        for (int i=0; i<nodes.length; i++) {
-            scc[i] = -1;
-            at[i] = -1;
+        final int n = nodes.length;
+        tremaux = buffer(tremaux, n);
+        scc = buffer(scc, n);
+        for (int i=0; i<n; i++) {
+            tremaux[i] = scc[i] = -1;
         }
+        tremauxNum = 0;
         sccNb = 0;
-        for (int i=0; i<nodes.length; i++) {
-            if (scc[i] == -1 && at[tremaux[i]] == -1) {
-                at(i, tremaux[i], at);
+        at = buffer(at, n);
+        path = buffer(path, n);
+        edge = buffer(edge, n);
+        stack = buffer(stack, n);
+        for (int r=0; r<n; r++) {
+            if (tremaux[r] == -1) {
+                computeSCC(r);
+            }
+        }
+    }
+
+    /**
+     * Computes the SCC of the nodes reachable from a root.
+     * 
+     * <P><CODE>at[u]</CODE> is the smallest Tremaux ordinal 
+     * of a node of the stack reachable from <CODE>u</CODE>.</P>
+     * @param r the root
+     */
+    private void computeSCC(int r) {
+        int sp = 0;
+        int depth = 0;
+        path[0] = r;
+        edge[0] = 0;
+        tremaux[r] = at[r] = tremauxNum++;
+        stack[sp++] = r;
+        while (depth >= 0) {
+            final int u = path[depth];
+            final NEdge[] edges = nodes[u].getEdges();
+            if (edge[depth] < edges.length) {
+                final int v = edges[edge[depth]++].getEndNode().getIndex();
+                if (tremaux[v] == -1) {
+                    path[++depth] = v;
+                    edge[depth] = 0;
+                    tremaux[v] = at[v] = tremauxNum++;
+                    stack[sp++] = v;
+                } else if (scc[v] == -1 && at[v] < at[u]) {
+                    at[u] = at[v];
+                }
+            } else {
+                if (at[u] == tremaux[u]) {
+                    int w;
+                    do {
+                        w = stack[--sp];
+                        scc[w] = sccNb;
+                    } while (w != u);
+                    sccNb++;
+                }
+                if (--depth >= 0) {
+                    final int p = path[depth];
+                    if (at[u] < at[p]) {
+                        at[p] = at[u];
+                    }
+                }
             }
         }
     }
@@ -340,43 +425,6 @@ public class NGraph {
         return scc[i] == scc[j];
     }
     
-    private void at(int u, int tu, int[] at) {
-        at[tu] = tu;
-        NEdge[] edges = nodes[u].getEdges();
-        for (int k=0; k<edges.length; k++) {
-            Node n = edges[k].getEndNode();
-            int v = n.getIndex();
-            if (at[tremaux[v]] == -1) {
-                at(v, tremaux[v], at);
-                if (at[tremaux[v]] < at[tremaux[u]]) {
-                    at[tremaux[u]] = at[tremaux[v]];
-                }
-            } else {
-                if (scc[v] == -1) {
-                    if (at[tremaux[v]] < at[tremaux[u]]) {
-                        at[tremaux[u]] = at[tremaux[v]];
-                    }
-                }
-            }
-        }
-        if (tremaux[u] == at[tremaux[u]]) {
-            sccNb++;
-            mark(u, tremaux[u]);
-        }
-    }
-    
-    private void mark(int u, int tu) {
-        scc[u] = sccNb-1;
-        NEdge[] edges = nodes[u].getEdges();
-        for (int k=0; k<edges.length; k++) {
-            Node n = edges[k].getEndNode();
-            int v = n.getIndex();
-            if (tremaux[v] > tremaux[u] && scc[v] == -1) {
-                mark(v, tremaux[v]);
-            }
-        }
-    }
-    
     //------------------------------------------------------------------------
     // ACCESSORS
     //------------------------------------------------------------------------
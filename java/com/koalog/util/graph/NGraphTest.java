@@ -244,6 +244,31 @@ public class NGraphTest extends TestCase {
         start.add(g.getNode(1));
         assertEquals(2, g.computePath(start, 3).size());
     }
+
+    /**
+     * Tests the SCC of long paths.
+     */
+    public void testSCC4() {
+        cat.info("testSCC4");
+        final int n = 100000;
+        int[][] a = new int[n][];
+        for (int i=0; i<n-1; i++) {
+            a[i] = new int[] {i+1};
+        }
+        a[n-1] = new int[] {};
+        NGraph g = new NGraph(a);
+        g.computeSCC();
+        assertEquals(n, g.getSCCNb());
+        assertEquals(n-1, g.getTremaux(n-1));
+        assertEquals(n-1, g.getSCC(0));
+        a[n-1] = new int[] {0};
+        g = new NGraph(a);
+        g.computeTremaux();
+        assertEquals(n-1, g.getTremaux(n-1));
+        g.computeSCC();
+        assertEquals(1, g.getSCCNb());
+        assertTrue(g.sameSCC(0, n-1));
+    }
 }
 /*
  * $Log$
@@ -0,0 +1,96 @@
+package com.koalog.util.graph;
+
+import com.koalog.util.heap.Indexed;
+import com.koalog.util.heap.PairingHeap;
+
+/**
+ * A queue for Dijkstra algorithms based on a pairing heap.
+ *
+ * <P>Decreasing the distance of a node is a constant time operation. 
+ * The nodes at an infinite distance are not stored in the queue, 
+ * they enter it when their distance decreases.</P>
+ * @author Yan Georget
+ */
+public class PairingDijkstraQueue extends PairingHeap 
+    implements DijkstraQueue {
+    //------------------------------------------------------------------------
+    // PROPERTIES
+    //------------------------------------------------------------------------
+    private float[] distance;
+    private PairingHeap.Handle[] handles;
+
+    //------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //------------------------------------------------------------------------
+    /**
+     * Sole constructor.
+     * @param distance the distances to the origin
+     * @param graph the graph
+     */
+    public PairingDijkstraQueue(float[] distance, NGraph graph) {
+        this.distance = distance;
+        handles = new PairingHeap.Handle[graph.getNodesNb()];
+    }
+
+    //------------------------------------------------------------------------
+    // STATIC METHODS
+    //------------------------------------------------------------------------
+    /**
+     * Returns a factory of queues based on pairing heaps.
+     * @return a factory
+     */
+    public static DijkstraQueueFactory factory() {
+        return new DijkstraQueueFactory() {
+                public DijkstraQueue createQueue(float[] distance, 
+                                                 NGraph graph) {
+                    return new PairingDijkstraQueue(distance, graph);
+                }
+            };
+    }
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /** @see com.koalog.util.heap.PairingHeap */
+    public boolean smaller(Object i, Object j) {
+        return distance[((Indexed) i).getIndex()] 
+            < distance[((Indexed) j).getIndex()];
+    }
+
+    /** @see com.koalog.util.graph.DijkstraQueue */
+    public final void buildFrom(Indexed[] a) {
+        clear();
+        for (int i=handles.length; --i>=0;) {
+            handles[i] = null;
+        }
+        for (int i=0; i<a.length; i++) {
+            add(a[i]);
+        }
+    }
+
+    /** @see com.koalog.util.graph.DijkstraQueue */
+    public final void add(Indexed o) {
+        final int id = o.getIndex();
+        if (distance[id] != Float.MAX_VALUE) {
+            handles[id] = insert(o);
+        }
+    }
+
+    /** @see com.koalog.util.graph.DijkstraQueue */
+    public final void up(Indexed o) {
+        final PairingHeap.Handle h = handles[o.getIndex()];
+        if (h == null || !h.isInHeap()) {
+            handles[o.getIndex()] = insert(o);
+        } else {
+            decreaseKey(h);
+        }
+    }
+
+    /** @see com.koalog.util.graph.DijkstraQueue */
+    public final Object pop() {
+        return deleteMin();
+    }
+}
+/*
+ * $Log$
+ */
@@ -0,0 +1,623 @@
+package com.koalog.util.graph;
+
+import java.util.LinkedList;
+import org.apache.log4j.Category;
+
+/**
+ * Computes the strongly connected components of a graph
+ * using several threads.
+ *
+ * <P>The algorithm is the forward-backward algorithm with trimming:
+ * <UL>
+ * <LI>the nodes without predecessors or without successors
+ * are SCC by themselves, they are removed (repeatedly)
+ * from the graph, and then from each set of nodes
+ * (considering only the edges inside the set);</LI>
+ * <LI>given a set of nodes, the nodes both reachable from a pivot
+ * and reaching it form the SCC of the pivot;
+ * the nodes only reachable from the pivot,
+ * the nodes only reaching it, and the other nodes form three sets
+ * which are processed independently
+ * (no SCC spans two of these sets).</LI>
+ * </UL>
+ * The sets are processed in parallel by worker threads;
+ * the sets smaller than a cutoff are processed sequentially
+ * (Tarjan algorithm).</P>
+ *
+ * <P>The result is stored in the graph
+ * (see <CODE>Graph.getSCC</CODE>, <CODE>Graph.sameSCC</CODE>
+ * and <CODE>Graph.getSCCNb</CODE>),
+ * but the SCC ordinals are not the ones
+ * <CODE>Graph.computeSCC</CODE> would compute.
+ * The graph must not be modified during the computation.</P>
+ * @author Yan Georget
+ */
+public class ParallelSCC {
+    //------------------------------------------------------------------------
+    // STATIC PROPERTIES
+    //------------------------------------------------------------------------
+    private static Category cat = Category.getInstance(ParallelSCC.class);
+
+    //------------------------------------------------------------------------
+    // CONSTANTS
+    //------------------------------------------------------------------------
+    /** The default cutoff. */
+    public static final int DEFAULT_CUTOFF = 1024;
+
+    //------------------------------------------------------------------------
+    // PROPERTIES
+    //------------------------------------------------------------------------
+    private Graph graph;
+    private int threads;
+    private int cutoff;
+    /** The graph, in CSR form. */
+    private int[] offsets;
+    private int[] targets;
+    /** The reverse graph, in CSR form. */
+    private int[] roffsets;
+    private int[] rtargets;
+    /** The set each node belongs to (the node is done when negative). */
+    private int[] color;
+    /** The Tarjan numbers of the nodes (for the sequential algorithm). */
+    private int[] index;
+    private int[] low;
+    /** The degrees of the nodes inside their sets (for trimming). */
+    private int[] din;
+    private int[] dout;
+    /** The sets to process. */
+    private LinkedList tasks;
+    /** The number of sets being processed. */
+    private int active;
+    private int colors;
+    private int sccNb;
+    /** The first failure of a worker. */
+    private Throwable failure;
+
+    //------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //------------------------------------------------------------------------
+    /**
+     * Constructs an object computing the SCC of a graph.
+     * @param graph a graph
+     * @param threads the number of threads
+     * @param cutoff the size under which a set of nodes
+     * is processed sequentially
+     */
+    public ParallelSCC(Graph graph, int threads, int cutoff) {
+        this.graph = graph;
+        this.threads = threads;
+        this.cutoff = cutoff;
+    }
+
+    /**
+     * Auxilliary constructor (with the default cutoff).
+     * @param graph a graph
+     * @param threads the number of threads
+     */
+    public ParallelSCC(Graph graph, int threads) {
+        this(graph, threads, DEFAULT_CUTOFF);
+    }
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /**
+     * Computes the SCC of the graph.
+     *
+     * <P>The first failure of a worker (exception or error) stops 
+     * the other workers, and is thrown 
+     * (wrapped in a <CODE>RuntimeException</CODE> if it is checked).</P>
+     */
+    public final void compute() {
+        final int n = graph.getNodesNb();
+        init(n);
+        final int[] scc = graph.scc;
+        for (int i=n; --i>=0;) {
+            scc[i] = -1;
+            color[i] = 0;
+        }
+        sccNb = 0;
+        colors = 1;
+        failure = null;
+        final int rest = trim(n);
+        if (rest > 0) {
+            final int[] nodes = new int[rest];
+            int k = 0;
+            for (int i=0; i<n; i++) {
+                if (color[i] == 0) {
+                    nodes[k++] = i;
+                }
+            }
+            tasks = new LinkedList();
+            active = 0;
+            tasks.add(new Task(nodes, rest, 0));
+            if (threads <= 1) {
+                new Worker().run();
+            } else {
+                final Worker[] workers = new Worker[threads];
+                for (int i=0; i<threads; i++) {
+                    workers[i] = new Worker();
+                    workers[i].start();
+                }
+                for (int i=0; i<threads; i++) {
+                    try {
+                        workers[i].join();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RuntimeException(e);
+                    }
+                }
+            }
+            tasks = null;
+            if (failure != null) {
+                final Throwable t = failure;
+                failure = null;
+                if (t instanceof Error) {
+                    throw (Error) t;
+                } else if (t instanceof RuntimeException) {
+                    throw (RuntimeException) t;
+                } else {
+                    throw new RuntimeException(t);
+                }
+            }
+        }
+        graph.sccNb = sccNb;
+    }
+
+    /**
+     * Builds the CSR representations of the graph and of its reverse.
+     * @param n the number of nodes
+     */
+    private final void init(int n) {
+        if (graph instanceof CsrGraph) {
+            offsets = ((CsrGraph) graph).getOffsets();
+            targets = ((CsrGraph) graph).getTargets();
+        } else {
+            offsets = new int[n+1];
+            for (int i=0; i<n; i++) {
+                offsets[i+1] = offsets[i] + graph.degree(i);
+            }
+            targets = new int[offsets[n]];
+            final IntEdgeCursor c = graph.edgeCursor();
+            for (int i=0, k=0; i<n; i++) {
+                for (c.reset(i); c.hasNext();) {
+                    targets[k++] = c.next();
+                }
+            }
+        }
+        final int m = offsets[n];
+        roffsets = new int[n+1];
+        for (int k=0; k<m; k++) {
+            roffsets[targets[k]+1]++;
+        }
+        for (int i=0; i<n; i++) {
+            roffsets[i+1] += roffsets[i];
+        }
+        rtargets = new int[m];
+        final int[] fill = new int[n];
+        for (int i=0; i<n; i++) {
+            for (int k=offsets[i], e=offsets[i+1]; k<e; k++) {
+                final int j = targets[k];
+                rtargets[roffsets[j] + fill[j]++] = i;
+            }
+        }
+        if (color == null || color.length != n) {
+            color = new int[n];
+            index = new int[n];
+            low = new int[n];
+            din = new int[n];
+            dout = new int[n];
+        }
+    }
+
+    /**
+     * Removes (repeatedly) the nodes without predecessors
+     * or without successors, which are SCC by themselves.
+     * @param n the number of nodes
+     * @return the number of remaining nodes
+     */
+    private final int trim(int n) {
+        final int[] scc = graph.scc;
+        final int[] in = new int[n];
+        final int[] out = new int[n];
+        final int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        for (int i=0; i<n; i++) {
+            in[i] = roffsets[i+1] - roffsets[i];
+            out[i] = offsets[i+1] - offsets[i];
+            // self loops do not count
+            for (int k=offsets[i], e=offsets[i+1]; k<e; k++) {
+                if (targets[k] == i) {
+                    in[i]--;
+                    out[i]--;
+                }
+            }
+            if (in[i] == 0 || out[i] == 0) {
+                color[i] = -1;
+                queue[tail++] = i;
+            }
+        }
+        while (head < tail) {
+            final int u = queue[head++];
+            scc[u] = sccNb++;
+            for (int k=offsets[u], e=offsets[u+1]; k<e; k++) {
+                final int v = targets[k];
+                if (color[v] == 0 && --in[v] == 0) {
+                    color[v] = -1;
+                    queue[tail++] = v;
+                }
+            }
+            for (int k=roffsets[u], e=roffsets[u+1]; k<e; k++) {
+                final int v = rtargets[k];
+                if (color[v] == 0 && --out[v] == 0) {
+                    color[v] = -1;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        return n - tail;
+    }
+
+    /**
+     * Returns a new set identifier.
+     * @return an integer
+     */
+    private synchronized int newColor() {
+        return colors++;
+    }
+
+    /**
+     * Returns new SCC ordinals.
+     * @param nb the number of ordinals
+     * @return the first ordinal
+     */
+    private synchronized int newSCC(int nb) {
+        final int first = sccNb;
+        sccNb += nb;
+        return first;
+    }
+
+    /**
+     * Adds a set of nodes to process.
+     * @param t a task
+     */
+    private synchronized void put(Task t) {
+        tasks.add(t);
+        notify();
+    }
+
+    /**
+     * Returns a set of nodes to process,
+     * waiting until one is available.
+     * @return a task, null when there is nothing left to do
+     */
+    private synchronized Task take() {
+        while (tasks.isEmpty() && active > 0 && failure == null) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+        if (tasks.isEmpty() || failure != null) {
+            notifyAll();
+            return null;
+        }
+        active++;
+        return (Task) tasks.removeFirst();
+    }
+
+    /**
+     * Called when a set of nodes has been processed.
+     */
+    private synchronized void done() {
+        if (--active == 0 && tasks.isEmpty()) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Called when the processing of a set of nodes has failed.
+     * @param t a throwable
+     */
+    private synchronized void fail(Throwable t) {
+        if (failure == null) {
+            failure = t;
+        }
+        notifyAll();
+    }
+
+    /**
+     * Processes a set of nodes (forward-backward algorithm).
+     * @param t a task
+     */
+    private final void process(Task t) {
+        if (t.size < cutoff) {
+            tarjan(t);
+            return;
+        }
+        trim(t);
+        if (t.size < cutoff) {
+            if (t.size > 0) {
+                tarjan(t);
+            }
+            return;
+        }
+        final int[] nodes = t.nodes;
+        final int c = t.color;
+        final int fw = newColor();
+        final int bw = newColor();
+        final int[] queue = new int[t.size];
+        final int pivot = nodes[0];
+        // forward search
+        int head = 0;
+        int tail = 0;
+        color[pivot] = fw;
+        queue[tail++] = pivot;
+        while (head < tail) {
+            final int u = queue[head++];
+            for (int k=offsets[u], e=offsets[u+1]; k<e; k++) {
+                final int v = targets[k];
+                if (color[v] == c) {
+                    color[v] = fw;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        // backward search: the SCC of the pivot is marked done
+        final int s = newSCC(1);
+        final int[] scc = graph.scc;
+        head = 0;
+        tail = 0;
+        color[pivot] = -1;
+        scc[pivot] = s;
+        queue[tail++] = pivot;
+        while (head < tail) {
+            final int u = queue[head++];
+            for (int k=roffsets[u], e=roffsets[u+1]; k<e; k++) {
+                final int v = rtargets[k];
+                final int cv = color[v];
+                if (cv == fw) {
+                    color[v] = -1;
+                    scc[v] = s;
+                    queue[tail++] = v;
+                } else if (cv == c) {
+                    color[v] = bw;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        // partitions the remaining nodes
+        int fwNb = 0;
+        int bwNb = 0;
+        int restNb = 0;
+        for (int k=0; k<t.size; k++) {
+            final int cv = color[nodes[k]];
+            if (cv == fw) {
+                fwNb++;
+            } else if (cv == bw) {
+                bwNb++;
+            } else if (cv == c) {
+                restNb++;
+            }
+        }
+        final Task tf = fwNb == 0 ? null : new Task(new int[fwNb], 0, fw);
+        final Task tb = bwNb == 0 ? null : new Task(new int[bwNb], 0, bw);
+        final Task tr = restNb == 0 ? null : new Task(new int[restNb], 0, c);
+        for (int k=0; k<t.size; k++) {
+            final int v = nodes[k];
+            final int cv = color[v];
+            if (cv == fw) {
+                tf.nodes[tf.size++] = v;
+            } else if (cv == bw) {
+                tb.nodes[tb.size++] = v;
+            } else if (cv == c) {
+                tr.nodes[tr.size++] = v;
+            }
+        }
+        if (tf != null) {
+            put(tf);
+        }
+        if (tb != null) {
+            put(tb);
+        }
+        if (tr != null) {
+            put(tr);
+        }
+    }
+
+    /**
+     * Removes (repeatedly) the nodes of a set without predecessors
+     * or without successors in the set, which are SCC by themselves.
+     * @param t a task, whose remaining nodes are compacted
+     */
+    private final void trim(Task t) {
+        final int[] nodes = t.nodes;
+        final int c = t.color;
+        final int size = t.size;
+        for (int q=0; q<size; q++) {
+            final int u = nodes[q];
+            int d = 0;
+            for (int k=offsets[u], e=offsets[u+1]; k<e; k++) {
+                final int v = targets[k];
+                if (v != u && color[v] == c) {
+                    d++;
+                }
+            }
+            dout[u] = d;
+            d = 0;
+            for (int k=roffsets[u], e=roffsets[u+1]; k<e; k++) {
+                final int v = rtargets[k];
+                if (v != u && color[v] == c) {
+                    d++;
+                }
+            }
+            din[u] = d;
+        }
+        final int[] queue = new int[size];
+        int head = 0;
+        int tail = 0;
+        for (int q=0; q<size; q++) {
+            final int u = nodes[q];
+            if (din[u] == 0 || dout[u] == 0) {
+                color[u] = -1;
+                queue[tail++] = u;
+            }
+        }
+        while (head < tail) {
+            final int u = queue[head++];
+            for (int k=offsets[u], e=offsets[u+1]; k<e; k++) {
+                final int v = targets[k];
+                if (color[v] == c && --din[v] == 0) {
+                    color[v] = -1;
+                    queue[tail++] = v;
+                }
+            }
+            for (int k=roffsets[u], e=roffsets[u+1]; k<e; k++) {
+                final int v = rtargets[k];
+                if (color[v] == c && --dout[v] == 0) {
+                    color[v] = -1;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        if (tail == 0) {
+            return;
+        }
+        final int first = newSCC(tail);
+        final int[] scc = graph.scc;
+        for (int k=0; k<tail; k++) {
+            scc[queue[k]] = first + k;
+        }
+        int j = 0;
+        for (int q=0; q<size; q++) {
+            if (color[nodes[q]] == c) {
+                nodes[j++] = nodes[q];
+            }
+        }
+        t.size = j;
+    }
+
+    /**
+     * Processes a set of nodes sequentially (Tarjan algorithm).
+     * @param t a task
+     */
+    private final void tarjan(Task t) {
+        final int[] nodes = t.nodes;
+        final int c = t.color;
+        final int size = t.size;
+        final int[] scc = graph.scc;
+        for (int k=0; k<size; k++) {
+            index[nodes[k]] = -1;
+        }
+        final int[] path = new int[size];
+        final int[] edge = new int[size];
+        final int[] stack = new int[size];
+        int found = 0;
+        int num = 0;
+        int sp = 0;
+        for (int q=0; q<size; q++) {
+            final int r = nodes[q];
+            if (index[r] != -1) {
+                continue;
+            }
+            int depth = 0;
+            path[0] = r;
+            edge[0] = offsets[r];
+            index[r] = low[r] = num++;
+            stack[sp++] = r;
+            while (depth >= 0) {
+                final int u = path[depth];
+                if (edge[depth] < offsets[u+1]) {
+                    final int v = targets[edge[depth]++];
+                    if (color[v] != c) {
+                        continue;
+                    }
+                    if (index[v] == -1) {
+                        path[++depth] = v;
+                        edge[depth] = offsets[v];
+                        index[v] = low[v] = num++;
+                        stack[sp++] = v;
+                    } else if (scc[v] == -1 && low[v] < low[u]) {
+                        low[u] = low[v];
+                    }
+                } else {
+                    if (low[u] == index[u]) {
+                        // local ordinal, made global at the end
+                        int w;
+                        do {
+                            w = stack[--sp];
+                            scc[w] = found;
+                        } while (w != u);
+                        found++;
+                    }
+                    if (--depth >= 0) {
+                        final int p = path[depth];
+                        if (low[u] < low[p]) {
+                            low[p] = low[u];
+                        }
+                    }
+                }
+            }
+        }
+        final int first = newSCC(found);
+        for (int k=0; k<size; k++) {
+            final int v = nodes[k];
+            scc[v] += first;
+            color[v] = -1;
+        }
+    }
+
+    //------------------------------------------------------------------------
+    // INNER CLASSES
+    //------------------------------------------------------------------------
+    /**
+     * A set of nodes to process.
+     */
+    private static final class Task {
+        int[] nodes;
+        int size;
+        /** The color of the nodes of the set. */
+        int color;
+
+        Task(int[] nodes, int size, int color) {
+            this.nodes = nodes;
+            this.size = size;
+            this.color = color;
+        }
+    }
+
+    /**
+     * A thread processing sets of nodes.
+     */
+    private class Worker extends Thread {
+        /**
+         * Sole constructor.
+         */
+        Worker() {
+            super("ParallelSCC Worker");
+        }
+
+        /**
+         * Processes sets of nodes until there is nothing left to do.
+         */
+        public void run() {
+            Task t;
+            while ((t = take()) != null) {
+                try {
+                    process(t);
+                } catch (Throwable e) {
+                    fail(e);
+                } finally {
+                    // the other workers must not wait for this one
+                    done();
+                }
+            }
+        }
+    }
+}
+/*
+ * $Log$
+ */
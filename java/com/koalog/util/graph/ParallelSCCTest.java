@@ -0,0 +1,139 @@
+package com.koalog.util.graph;
+
+import java.util.Arrays;
+import java.util.Random;
+import junit.framework.TestCase;
+import org.apache.log4j.Category;
+
+/**
+ * Tests the ParallelSCC class.
+ *
+ * @author Yan Georget
+ */
+public class ParallelSCCTest extends TestCase {
+    //------------------------------------------------------------------------
+    // CONSTANTS
+    //------------------------------------------------------------------------
+    private static Category cat = Category.getInstance(ParallelSCCTest.class);
+
+    //------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //------------------------------------------------------------------------
+    /**
+     * Sole constructor.
+     * @param name a name
+     */
+    public ParallelSCCTest(String name) {
+        super(name);
+    }
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /**
+     * Tests the SCC of a small graph.
+     */
+    public void testSmall() {
+        cat.info("testSmall");
+        FastGraph g = new FastGraph(new int[][] {
+            new int[] {13,1,2,3,4,5,6,7},
+            new int[] {8},
+            new int[] {9},
+            new int[] {8},
+            new int[] {9},
+            new int[] {10},
+            new int[] {11},
+            new int[] {12},
+            new int[] {2,4,5,13},
+            new int[] {1,3,5,6,13},
+            new int[] {6,7},
+            new int[] {13},
+            new int[] {6,13},
+            new int[] {11,12}
+        });
+        new ParallelSCC(g, 2, 0).compute();
+        assertEquals(6, g.getSCCNb());
+        new ParallelSCC(g, 1).compute();
+        assertEquals(6, g.getSCCNb());
+    }
+
+    /**
+     * Compares the SCC with the ones computed by Graph.computeSCC,
+     * on random graphs.
+     */
+    public void testRandom() {
+        cat.info("testRandom");
+        Random r = new Random(0);
+        for (int t=0; t<50; t++) {
+            final int n = 1 + r.nextInt(200);
+            FastGraph f = new FastGraph(n);
+            final int m = r.nextInt(3*n);
+            for (int k=0; k<m; k++) {
+                f.addEdge(r.nextInt(n), r.nextInt(n));
+            }
+            CsrGraph g = new CsrGraph(f);
+            f.computeSCC();
+            final int[] expected = new int[n];
+            System.arraycopy(f.getSCC(), 0, expected, 0, n);
+            final int sccNb = f.getSCCNb();
+            final int threads = 1 + t % 4;
+            final int cutoff = t % 3 == 0 ? 0 : r.nextInt(n);
+            new ParallelSCC(f, threads, cutoff).compute();
+            check(expected, sccNb, f);
+            new ParallelSCC(g, threads, cutoff).compute();
+            check(expected, sccNb, g);
+        }
+    }
+
+    /**
+     * Checks that the SCC of a graph are the expected ones
+     * (up to a renumbering).
+     * @param expected the expected SCC
+     * @param sccNb the expected number of SCC
+     * @param g a graph
+     */
+    private void check(int[] expected, int sccNb, Graph g) {
+        assertEquals(sccNb, g.getSCCNb());
+        final int[] map = new int[sccNb];
+        Arrays.fill(map, -1);
+        for (int i=0; i<expected.length; i++) {
+            final int c = g.getSCC(i);
+            assertTrue(c >= 0 && c < sccNb);
+            if (map[c] == -1) {
+                map[c] = expected[i];
+            } else {
+                assertEquals(map[c], expected[i]);
+            }
+        }
+    }
+
+    /**
+     * Compares Graph.computeSCC with ParallelSCC
+     * using from 1 to 4 threads, on a big random graph.
+     */
+    public void testBigParallelSCC() {
+        final int n = 200000;
+        Random r = new Random(0);
+        CsrGraph.Builder b = new CsrGraph.Builder(n);
+        for (int k=0; k<5*n; k++) {
+            b.addEdge(r.nextInt(n), r.nextInt(n));
+        }
+        CsrGraph g = b.build();
+        long time = System.currentTimeMillis();
+        g.computeSCC();
+        cat.info("computeSCC: " + (System.currentTimeMillis() - time) + "ms");
+        final int[] expected = new int[n];
+        System.arraycopy(g.getSCC(), 0, expected, 0, n);
+        final int sccNb = g.getSCCNb();
+        for (int threads=1; threads<=4; threads++) {
+            time = System.currentTimeMillis();
+            new ParallelSCC(g, threads).compute();
+            cat.info("ParallelSCC (" + threads + " threads): "
+                     + (System.currentTimeMillis() - time) + "ms");
+            check(expected, sccNb, g);
+        }
+    }
+}
+/*
+ * $Log$
+ */
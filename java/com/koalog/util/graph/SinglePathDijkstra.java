@@ -66,7 +66,7 @@ public class SinglePathDijkstra extends AbstractDijkstra {
 
     /** @see com.koalog.util.graph.AbstractDijkstra */
     protected void checkEdge(NEdge edge, 
-                             DijkstraHeap heap, 
+                             DijkstraQueue heap, 
                              int cnIndex) {
         
         float dist = distance[cnIndex] + graph.getCost(edge);
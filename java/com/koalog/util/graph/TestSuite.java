@@ -27,6 +27,16 @@ public class TestSuite extends junit.framework.TestSuite {
         addTestSuite(FastGraphTest.class);
         addTestSuite(GraphTest.class);
         addTestSuite(MatrixGraphTest.class);
+        addTestSuite(CsrGraphTest.class);
+        addTestSuite(IntArrayGraphTest.class);
+        addTestSuite(BitMatrixGraphTest.class);
+        addTestSuite(IncrementalSCCTest.class);
+        addTestSuite(ParallelSCCTest.class);
+        addTestSuite(HopcroftKarpTest.class);
+        addTestSuite(IncrementalMatchingTest.class);
+        addTestSuite(HungarianTest.class);
+        addTestSuite(AuctionTest.class);
+        addTestSuite(BreadthFirstSearchTest.class);
     }
 
     /**
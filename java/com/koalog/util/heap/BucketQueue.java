@@ -0,0 +1,168 @@
+package com.koalog.util.heap;
+
+/**
+ * A bucket queue (Dial algorithm), 
+ * for monotone non negative integer priorities 
+ * that never exceed the last popped priority by more than 
+ * a given maximum (typically the maximum cost of an edge).
+ *
+ * <P>There is one bucket per priority, modulo <CODE>maxDelta+1</CODE>: 
+ * pushes and decrease-keys are in constant time, 
+ * pops are in amortized constant time 
+ * (the buckets are scanned circularly).</P>
+ *
+ * <P>Buckets are doubly linked lists stored in arrays indexed by ids 
+ * (which range from 0 to capacity-1): 
+ * no object is allocated after construction.</P>
+ * @author Yan Georget
+ */
+public class BucketQueue implements MonotoneQueue {
+    //------------------------------------------------------------------------
+    // CONSTANTS
+    //------------------------------------------------------------------------
+    private static final int NONE = -1;
+
+    //------------------------------------------------------------------------
+    // PROPERTIES
+    //------------------------------------------------------------------------
+    /** The first id of each bucket. */
+    private int[] head;
+    /** The next id in the bucket of an id. */
+    private int[] next;
+    /** The previous id in the bucket of an id. */
+    private int[] prev;
+    /** The bucket of an id, -1 if the id is not in the queue. */
+    private int[] bucket;
+    /** The priority of an id. */
+    private int[] key;
+    /** The current (smallest possible) priority. */
+    private int current;
+    /** The size of the queue. */
+    private int size;
+
+    //------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //------------------------------------------------------------------------
+    /**
+     * Sole constructor.
+     * @param capacity the queue capacity 
+     * (the ids range from 0 to capacity-1)
+     * @param maxDelta the maximum difference 
+     * between a priority and the last popped priority
+     */
+    public BucketQueue(int capacity, int maxDelta) {
+        head = new int[maxDelta+1];
+        next = new int[capacity];
+        prev = new int[capacity];
+        bucket = new int[capacity];
+        key = new int[capacity];
+        for (int b=head.length; --b>=0;) {
+            head[b] = NONE;
+        }
+        for (int i=capacity; --i>=0;) {
+            bucket[i] = NONE;
+        }
+    }
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /** @see com.koalog.util.heap.MonotoneQueue */
+    public final int size() {
+        return size;
+    }
+
+    /** @see com.koalog.util.heap.MonotoneQueue */
+    public final boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** 
+     * Clears the queue (the current priority is reset to 0).
+     */
+    public final void clear() {
+        for (int b=head.length; --b>=0;) {
+            for (int i=head[b]; i!=NONE; i=next[i]) {
+                bucket[i] = NONE;
+            }
+            head[b] = NONE;
+        }
+        size = 0;
+        current = 0;
+    }
+
+    /** @see com.koalog.util.heap.MonotoneQueue */
+    public final boolean contains(int id) {
+        return bucket[id] != NONE;
+    }
+
+    /** @see com.koalog.util.heap.MonotoneQueue */
+    public final int getKey(int id) {
+        return key[id];
+    }
+
+    /** @see com.koalog.util.heap.MonotoneQueue */
+    public final void push(int id, int k) {
+        key[id] = k;
+        link(id, k % head.length);
+        size++;
+    }
+
+    /** @see com.koalog.util.heap.MonotoneQueue */
+    public final void decreaseKey(int id, int k) {
+        key[id] = k;
+        unlink(id);
+        link(id, k % head.length);
+    }
+
+    /** @see com.koalog.util.heap.MonotoneQueue */
+    public final void remove(int id) {
+        unlink(id);
+        bucket[id] = NONE;
+        size--;
+    }
+
+    /** @see com.koalog.util.heap.MonotoneQueue */
+    public final int popMin() {
+        if (size == 0) {
+            return NONE;
+        }
+        int b = current % head.length;
+        while (head[b] == NONE) {
+            current++;
+            if (++b == head.length) {
+                b = 0;
+            }
+        }
+        final int id = head[b];
+        remove(id);
+        return id;
+    }
+
+    private final void link(int id, int b) {
+        final int h = head[b];
+        next[id] = h;
+        prev[id] = NONE;
+        if (h != NONE) {
+            prev[h] = id;
+        }
+        head[b] = id;
+        bucket[id] = b;
+    }
+
+    private final void unlink(int id) {
+        final int n = next[id];
+        final int p = prev[id];
+        if (p != NONE) {
+            next[p] = n;
+        } else {
+            head[bucket[id]] = n;
+        }
+        if (n != NONE) {
+            prev[n] = p;
+        }
+    }
+}
+/*
+ * $Log$
+ */
@@ -0,0 +1,147 @@
+package com.koalog.util.heap;
+
+/**
+ * A d-ary heap: each element has <CODE>arity</CODE> sons 
+ * (instead of 2 for <CODE>Heap</CODE>).
+ *
+ * <P>The tree is shallower than a binary one 
+ * and the sons of an element are contiguous in memory, 
+ * which makes pops slightly more expensive in comparisons 
+ * but cheaper in memory accesses, and pushes cheaper.</P>
+ *
+ * <P>The layout starts at index 1, as for <CODE>Heap</CODE>: 
+ * the sons of <CODE>i</CODE> range 
+ * from <CODE>arity*(i-1)+2</CODE> to <CODE>arity*i+1</CODE>.
+ * Note that <CODE>getLeft</CODE>, <CODE>getRight</CODE>, 
+ * <CODE>getFather</CODE>, <CODE>isNotLeaf</CODE> 
+ * and <CODE>smallestSon</CODE> refer to the binary layout 
+ * and should not be used on a d-ary heap.</P>
+ * @author Yan Georget
+ */
+public abstract class DaryHeap extends Heap {
+    //------------------------------------------------------------------------
+    // PROPERTIES
+    //------------------------------------------------------------------------
+    /** The arity, a power of 2. */
+    private int arity;
+    /** The logarithm (base 2) of the arity. */
+    private int shift;
+
+    //------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //------------------------------------------------------------------------
+    /**
+     * Main constructor.
+     * @param capacity the heap capacity
+     * @param arity the arity, a power of 2 (typically 4 or 8)
+     */
+    public DaryHeap(int capacity, int arity) {
+        super(capacity);
+        this.shift = log2(arity);
+        this.arity = arity;
+    }
+
+    /**
+     * Auxilliary constructor (for a heap of default capacity).
+     * @param arity the arity, a power of 2 (typically 4 or 8)
+     */
+    public DaryHeap(int arity) {
+        this(DEFAULT_CAPACITY, arity);
+    }
+
+    //------------------------------------------------------------------------
+    // STATIC METHODS
+    //------------------------------------------------------------------------
+    /**
+     * Returns the logarithm (base 2) of an arity.
+     * @param arity a power of 2, at least 2
+     * @return an integer
+     */
+    static int log2(int arity) {
+        if (arity < 2 || (arity & (arity-1)) != 0) {
+            throw new IllegalArgumentException("arity must be a power of 2: " 
+                                               + arity);
+        }
+        int shift = 0;
+        while ((1<<shift) < arity) {
+            shift++;
+        }
+        return shift;
+    }
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /**
+     * Returns the arity.
+     * @return an integer
+     */
+    public final int getArity() {
+        return arity;
+    }
+
+    /** @see com.koalog.util.heap.Heap */
+    public final void up(int pos) {
+        final Object o = elements[pos];
+        final int start = pos;
+        int depth = 0;
+        while (pos > 1) {
+            final int father = ((pos-2)>>shift) + 1;
+            final Object f = elements[father];
+            if (smaller(o, f)) {
+                set(pos, f);
+                pos = father;
+                depth++;
+            } else {
+                break;
+            }
+        }
+        if (pos != start) {
+            set(pos, o);
+        }
+        if (HeapStats.ENABLED && stats != null) {
+            stats.sifted(pos > 1 ? depth+1 : depth, depth);
+        }
+    }
+
+    /** @see com.koalog.util.heap.Heap */
+    public final void down(int pos) {
+        final Object o = elements[pos];
+        final int start = pos;
+        int depth = 0;
+        int comparisons = 0;
+        int first;
+        while ((first = ((pos-1)<<shift) + 2) <= size) {
+            int last = first + arity - 1;
+            if (last > size) {
+                last = size;
+            }
+            comparisons += last - first + 1;
+            int son = first;
+            Object s = elements[first];
+            for (int i=first+1; i<=last; i++) {
+                final Object e = elements[i];
+                if (smaller(e, s)) {
+                    son = i;
+                    s = e;
+                }
+            }
+            if (smaller(s, o)) {
+                set(pos, s);
+                pos = son;
+                depth++;
+            } else {
+                break;
+            }
+        }
+        if (pos != start) {
+            set(pos, o);
+        }
+        if (HeapStats.ENABLED && stats != null) {
+            stats.sifted(comparisons, depth);
+        }
+    }
+}
+/*
+ * $Log$
+ */
@@ -0,0 +1,669 @@
+package com.koalog.util.heap;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * An external memory priority queue 
+ * of entries made of a <CODE>long</CODE> key and a <CODE>long</CODE> payload.
+ *
+ * <P>The entries are first added to a buffer, 
+ * a binary heap of bounded capacity stored in arrays of primitives.
+ * When the buffer is full, its entries are sorted 
+ * and written to a temporary file (a run).
+ * The runs are written and read through memory mappings 
+ * of a bounded number of entries (a window), 
+ * so that their size is not limited by the size of a mapping.
+ * The smallest entry is the smallest among the top of the buffer 
+ * and the heads of the runs, which are kept in a heap: 
+ * the runs are merged lazily, when popping.</P>
+ *
+ * <P>Each run is kept open, hence the runs are also merged eagerly
+ * so that their number remains small:
+ * the runs written by spills are of level 0, and as soon as there are
+ * <CODE>fanIn</CODE> runs of a given level, they are merged
+ * into a single run of the next level.
+ * There are thus less than <CODE>fanIn</CODE> runs per level,
+ * and each entry is written at most once per level.
+ * When a spill or a merge fails, the entries remain in the queue.</P>
+ *
+ * <P>The memory footprint of the queue thus only depends 
+ * on the buffer capacity and on the number of runs.
+ * The temporary files are deleted by <CODE>close</CODE>.</P>
+ * @author Yan Georget
+ */
+public class ExternalHeap {
+    //------------------------------------------------------------------------
+    // CONSTANTS
+    //------------------------------------------------------------------------
+    /** The size in bytes of an entry in a run. */
+    private static final int ENTRY_SIZE = 16;
+    /** The default number of runs merged together. */
+    public static final int DEFAULT_FAN_IN = 64;
+    /** The default number of entries mapped at once (16MB). */
+    public static final int DEFAULT_WINDOW = 1<<20;
+    /** 
+     * The maximum number of levels 
+     * (2^31 spills would be needed to reach it).
+     */
+    private static final int MAX_LEVELS = 32;
+
+    //------------------------------------------------------------------------
+    // PROPERTIES
+    //------------------------------------------------------------------------
+    /** The keys of the buffer, used starting from position 1. */
+    private long[] keys;
+    /** The payloads of the buffer, used starting from position 1. */
+    private long[] payloads;
+    /** The size of the buffer. */
+    private int bufferSize;
+    /** The runs, ordered by their heads. */
+    private Heap runs;
+    /** The directory of the temporary files, null for the default one. */
+    private File directory;
+    /** The number of entries. */
+    private long size;
+    /** The number of runs merged together. */
+    private int fanIn;
+    /** The number of entries mapped at once. */
+    private int window;
+    /** The number of runs of each level. */
+    private int[] levels;
+    /** The number of runs written so far. */
+    private int spills;
+    /** The number of merges performed so far. */
+    private int merges;
+
+    //------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //------------------------------------------------------------------------
+    /**
+     * Main constructor.
+     * @param bufferCapacity the number of entries kept in memory (at least 1)
+     * @param directory the directory of the temporary files, 
+     * null for the default temporary directory
+     * @param fanIn the number of runs merged together (at least 2)
+     * @param window the number of entries mapped at once (at least 1)
+     * @throws IllegalArgumentException if the buffer capacity, 
+     * the fan-in or the window is too small
+     */
+    public ExternalHeap(int bufferCapacity, 
+                        File directory, 
+                        int fanIn, 
+                        int window) {
+        if (bufferCapacity < 1) {
+            throw new IllegalArgumentException("buffer capacity " 
+                                               + bufferCapacity 
+                                               + " < 1");
+        }
+        if (fanIn < 2) {
+            throw new IllegalArgumentException("fan-in " + fanIn + " < 2");
+        }
+        if (window < 1) {
+            throw new IllegalArgumentException("window " + window + " < 1");
+        }
+        keys = new long[bufferCapacity+1];
+        payloads = new long[bufferCapacity+1];
+        this.directory = directory;
+        this.fanIn = fanIn;
+        this.window = window;
+        levels = new int[MAX_LEVELS];
+        runs = createRuns();
+    }
+
+    /**
+     * Auxilliary constructor (using the default window).
+     * @param bufferCapacity the number of entries kept in memory (at least 1)
+     * @param directory the directory of the temporary files, 
+     * null for the default temporary directory
+     * @param fanIn the number of runs merged together (at least 2)
+     */
+    public ExternalHeap(int bufferCapacity, File directory, int fanIn) {
+        this(bufferCapacity, directory, fanIn, DEFAULT_WINDOW);
+    }
+
+    /**
+     * Auxilliary constructor (using the default fan-in and window).
+     * @param bufferCapacity the number of entries kept in memory (at least 1)
+     * @param directory the directory of the temporary files, 
+     * null for the default temporary directory
+     */
+    public ExternalHeap(int bufferCapacity, File directory) {
+        this(bufferCapacity, directory, DEFAULT_FAN_IN);
+    }
+
+    /**
+     * Auxilliary constructor 
+     * (using the default temporary directory and the default fan-in).
+     * @param bufferCapacity the number of entries kept in memory (at least 1)
+     */
+    public ExternalHeap(int bufferCapacity) {
+        this(bufferCapacity, null);
+    }
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /**
+     * Returns the number of entries.
+     * @return a long
+     */
+    public final long size() {
+        return size;
+    }
+
+    /**
+     * Checks if the queue is empty.
+     * @return a boolean
+     */
+    public final boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of runs written so far.
+     * @return an integer
+     */
+    public final int getSpills() {
+        return spills;
+    }
+
+    /**
+     * Returns the number of merges performed so far.
+     * @return an integer
+     */
+    public final int getMerges() {
+        return merges;
+    }
+
+    /**
+     * Returns the number of runs (and of temporary files).
+     * @return an integer
+     */
+    public final int getRuns() {
+        return runs.size();
+    }
+
+    /**
+     * Adds an entry.
+     * @param key the key
+     * @param payload the payload
+     * @throws IOException if the buffer cannot be written to a run
+     */
+    public final void push(long key, long payload) throws IOException {
+        if (bufferSize == keys.length-1) {
+            spill();
+        }
+        up(++bufferSize, key, payload);
+        size++;
+    }
+
+    /**
+     * Returns the smallest key (the queue must not be empty).
+     * @return a key
+     */
+    public final long minKey() {
+        final Run run = (Run) runs.peek();
+        if (bufferSize > 0 && (run == null || keys[1] <= run.key)) {
+            return keys[1];
+        } else {
+            return run.key;
+        }
+    }
+
+    /**
+     * Returns the payload of the entry of smallest key 
+     * (the queue must not be empty).
+     * @return a payload
+     */
+    public final long minPayload() {
+        final Run run = (Run) runs.peek();
+        if (bufferSize > 0 && (run == null || keys[1] <= run.key)) {
+            return payloads[1];
+        } else {
+            return run.payload;
+        }
+    }
+
+    /**
+     * Pops the entry of smallest key (the queue must not be empty).
+     * @return its payload
+     * @throws IOException if a run cannot be read 
+     * (the entry is then not popped), 
+     * or if an exhausted run cannot be closed
+     */
+    public final long pop() throws IOException {
+        final Run run = (Run) runs.peek();
+        if (bufferSize > 0 && (run == null || keys[1] <= run.key)) {
+            size--;
+            final long payload = payloads[1];
+            final long lastKey = keys[bufferSize];
+            final long lastPayload = payloads[bufferSize--];
+            if (bufferSize > 0) {
+                down(1, lastKey, lastPayload);
+            }
+            return payload;
+        } else {
+            final long payload = run.payload;
+            final boolean more = run.next();
+            size--;
+            if (more) {
+                runs.down(1);
+            } else {
+                runs.pop();
+                levels[run.level]--;
+                run.close();
+            }
+            return payload;
+        }
+    }
+
+    /**
+     * Removes all the entries and deletes the temporary files.
+     * @throws IOException if a temporary file cannot be closed
+     */
+    public final void close() throws IOException {
+        IOException failure = null;
+        while (!runs.isEmpty()) {
+            try {
+                ((Run) runs.pop()).close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        for (int i=0; i<MAX_LEVELS; i++) {
+            levels[i] = 0;
+        }
+        bufferSize = 0;
+        size = 0;
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Sorts the buffer and writes it to a new run.
+     * @throws IOException if the run cannot be written 
+     * (the buffer is then kept)
+     */
+    private final void spill() throws IOException {
+        final int n = bufferSize;
+        // heap sort in place: the smallest entry is moved 
+        // to the position freed at each step
+        while (bufferSize > 1) {
+            final long minKey = keys[1];
+            final long minPayload = payloads[1];
+            final long lastKey = keys[bufferSize];
+            final long lastPayload = payloads[bufferSize];
+            keys[bufferSize] = minKey;
+            payloads[bufferSize--] = minPayload;
+            down(1, lastKey, lastPayload);
+        }
+        Output out = null;
+        Run run = null;
+        try {
+            out = new Output(n);
+            for (int i=n; i>0; i--) {
+                out.put(keys[i], payloads[i]);
+            }
+            run = out.toRun(0);
+        } finally {
+            if (run == null) {
+                if (out != null) {
+                    out.delete();
+                }
+                // the buffer is restored
+                bufferSize = n;
+                for (int i=n>>1; i>0; i--) {
+                    down(i, keys[i], payloads[i]);
+                }
+            }
+        }
+        bufferSize = 0;
+        runs.add(run);
+        levels[0]++;
+        spills++;
+        for (int level=0; levels[level] == fanIn; level++) {
+            merge(level);
+        }
+    }
+
+    /**
+     * Merges the runs of a given level into a new run of the next level.
+     * @param level a level
+     * @throws IOException if the new run cannot be written 
+     * (the runs of the level are then kept)
+     */
+    private final void merge(int level) throws IOException {
+        final Heap merged = createRuns();
+        final Run[] sources = new Run[fanIn];
+        final long[] heads = new long[fanIn];
+        int sourcesNb = 0;
+        final Run[] others = new Run[runs.size()];
+        int othersNb = 0;
+        long n = 0;
+        while (!runs.isEmpty()) {
+            final Run run = (Run) runs.pop();
+            if (run.level == level) {
+                heads[sourcesNb] = run.head();
+                sources[sourcesNb++] = run;
+                merged.add(run);
+                n += run.remaining();
+            } else {
+                others[othersNb++] = run;
+            }
+        }
+        for (int k=0; k<othersNb; k++) {
+            runs.add(others[k]);
+        }
+        Output out = null;
+        Run run = null;
+        try {
+            out = new Output(n);
+            while (!merged.isEmpty()) {
+                final Run source = (Run) merged.peek();
+                out.put(source.key, source.payload);
+                if (source.next()) {
+                    merged.down(1);
+                } else {
+                    merged.pop();
+                }
+            }
+            run = out.toRun(level+1);
+        } finally {
+            if (run == null) {
+                if (out != null) {
+                    out.delete();
+                }
+                // the runs of the level are restored
+                for (int k=0; k<sourcesNb; k++) {
+                    try {
+                        sources[k].seek(heads[k]);
+                    } catch (IOException e) {
+                        // the original failure is reported
+                    }
+                    runs.add(sources[k]);
+                }
+            }
+        }
+        IOException failure = null;
+        for (int k=0; k<sourcesNb; k++) {
+            try {
+                sources[k].close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        runs.add(run);
+        levels[level] = 0;
+        levels[level+1]++;
+        merges++;
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Maps a window of a run.
+     * @param channel the channel of the run
+     * @param mode the mapping mode
+     * @param position the position of the window
+     * @param length the size of the run
+     * @return a mapping of at most <CODE>window</CODE> entries
+     * @throws IOException if the window cannot be mapped
+     */
+    private final MappedByteBuffer map(FileChannel channel, 
+                                       FileChannel.MapMode mode, 
+                                       long position, 
+                                       long length) throws IOException {
+        return channel.map(mode, 
+                           position, 
+                           Math.min((long) window*ENTRY_SIZE, 
+                                    length - position));
+    }
+
+    /**
+     * Creates a heap of runs, ordered by their heads.
+     * @return a heap
+     */
+    private static Heap createRuns() {
+        return new Heap() {
+                public boolean smaller(Object i, Object j) {
+                    return ((Run) i).key < ((Run) j).key;
+                }
+            };
+    }
+
+    /**
+     * Moves an entry of the buffer up, starting from a given position.
+     * @param p a position (the hole)
+     * @param key the key of the entry to be placed
+     * @param payload its payload
+     */
+    private final void up(int p, long key, long payload) {
+        while (p > 1) {
+            final int father = p>>1;
+            if (key < keys[father]) {
+                keys[p] = keys[father];
+                payloads[p] = payloads[father];
+                p = father;
+            } else {
+                break;
+            }
+        }
+        keys[p] = key;
+        payloads[p] = payload;
+    }
+
+    /**
+     * Moves an entry of the buffer down, starting from a given position.
+     * @param p a position (the hole)
+     * @param key the key of the entry to be placed
+     * @param payload its payload
+     */
+    private final void down(int p, long key, long payload) {
+        int son;
+        while ((son = p<<1) <= bufferSize) {
+            if (son < bufferSize && keys[son+1] < keys[son]) {
+                son++;
+            }
+            if (keys[son] < key) {
+                keys[p] = keys[son];
+                payloads[p] = payloads[son];
+                p = son;
+            } else {
+                break;
+            }
+        }
+        keys[p] = key;
+        payloads[p] = payload;
+    }
+
+    //------------------------------------------------------------------------
+    // INNER CLASSES
+    //------------------------------------------------------------------------
+    /**
+     * A sorted run, stored in a temporary file read window by window.
+     */
+    private final class Run {
+        /** The file. */
+        private File file;
+        /** The file, opened. */
+        private RandomAccessFile raf;
+        /** The size of the file in bytes. */
+        private long length;
+        /** The current window, positioned after the head. */
+        private MappedByteBuffer buffer;
+        /** The position of the end of the current window. */
+        private long end;
+        /** The key of the head. */
+        long key;
+        /** The payload of the head. */
+        long payload;
+        /** The level (0 for a spilled buffer). */
+        int level;
+
+        /**
+         * Sole constructor.
+         * @param file a file
+         * @param raf the file, opened
+         * @param length the size of the file in bytes (not null)
+         * @param level the level
+         * @throws IOException if the first window cannot be mapped
+         */
+        Run(File file, RandomAccessFile raf, long length, int level) 
+            throws IOException {
+            this.file = file;
+            this.raf = raf;
+            this.length = length;
+            this.level = level;
+            seek(0);
+        }
+
+        /**
+         * Returns the position of the head.
+         * @return a position in bytes
+         */
+        long head() {
+            return end - buffer.remaining() - ENTRY_SIZE;
+        }
+
+        /**
+         * Reads the entry at a given position into the head.
+         * @param position a position in bytes
+         * @throws IOException if the window cannot be mapped
+         */
+        void seek(long position) throws IOException {
+            buffer = map(raf.getChannel(), 
+                         FileChannel.MapMode.READ_ONLY, 
+                         position, 
+                         length);
+            end = position + buffer.capacity();
+            key = buffer.getLong();
+            payload = buffer.getLong();
+        }
+
+        /**
+         * Returns the number of entries, including the head.
+         * @return a long
+         */
+        long remaining() {
+            return 1 + (length - end + buffer.remaining())/ENTRY_SIZE;
+        }
+
+        /**
+         * Reads the next entry into the head.
+         * @return false if the run is exhausted
+         * @throws IOException if the next window cannot be mapped 
+         * (the head is then unchanged)
+         */
+        boolean next() throws IOException {
+            if (!buffer.hasRemaining()) {
+                if (end == length) {
+                    return false;
+                }
+                buffer = map(raf.getChannel(), 
+                             FileChannel.MapMode.READ_ONLY, 
+                             end, 
+                             length);
+                end += buffer.capacity();
+            }
+            key = buffer.getLong();
+            payload = buffer.getLong();
+            return true;
+        }
+
+        /**
+         * Closes and deletes the file.
+         * @throws IOException if the file cannot be closed
+         */
+        void close() throws IOException {
+            buffer = null;
+            try {
+                raf.close();
+            } finally {
+                file.delete();
+            }
+        }
+    }
+
+    /**
+     * A run being written, window by window.
+     */
+    private final class Output {
+        /** The file. */
+        private File file;
+        /** The file, opened. */
+        private RandomAccessFile raf;
+        /** The size of the file in bytes. */
+        private long length;
+        /** The current window. */
+        private MappedByteBuffer buffer;
+        /** The position of the end of the current window. */
+        private long end;
+
+        /**
+         * Sole constructor.
+         * @param n the number of entries to write (at least 1)
+         * @throws IOException if the file cannot be created
+         */
+        Output(long n) throws IOException {
+            length = n*ENTRY_SIZE;
+            file = File.createTempFile("heap", ".run", directory);
+            try {
+                raf = new RandomAccessFile(file, "rw");
+            } catch (IOException e) {
+                file.delete();
+                throw e;
+            }
+        }
+
+        /**
+         * Writes an entry.
+         * @param key the key
+         * @param payload the payload
+         * @throws IOException if the next window cannot be mapped
+         */
+        void put(long key, long payload) throws IOException {
+            if (buffer == null || !buffer.hasRemaining()) {
+                buffer = map(raf.getChannel(), 
+                             FileChannel.MapMode.READ_WRITE, 
+                             end, 
+                             length);
+                end += buffer.capacity();
+            }
+            buffer.putLong(key);
+            buffer.putLong(payload);
+        }
+
+        /**
+         * Returns the written run.
+         * @param level its level
+         * @return a run
+         * @throws IOException if the run cannot be read
+         */
+        Run toRun(int level) throws IOException {
+            buffer = null;
+            return new Run(file, raf, length, level);
+        }
+
+        /**
+         * Closes and deletes the file, ignoring the failures.
+         */
+        void delete() {
+            buffer = null;
+            try {
+                raf.close();
+            } catch (IOException e) {
+                // nothing more can be done
+            }
+            file.delete();
+        }
+    }
+}
+/*
+ * $Log$
+ */
@@ -0,0 +1,241 @@
+package com.koalog.util.heap;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import junit.framework.TestCase;
+import org.apache.log4j.Category;
+
+/**
+ * Tests the ExternalHeap class.
+ * @author Yan Georget
+ */
+public class ExternalHeapTest extends TestCase {
+    //------------------------------------------------------------------------
+    // CONSTANTS
+    //------------------------------------------------------------------------
+    private static Category cat = Category.getInstance(ExternalHeapTest.class);
+
+    //------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //------------------------------------------------------------------------
+    /**
+     * Sole constructor.
+     * @param name a name
+     */
+    public ExternalHeapTest(String name) {
+        super(name);
+    }
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /**
+     * Tests pushes and pops, with spills, against a sort.
+     * @throws IOException if a run cannot be written
+     */
+    public void testExternalHeap() throws IOException {
+        final int n = 10000;
+        File dir = createDirectory();
+        ExternalHeap heap = new ExternalHeap(100, dir);
+        Random r = new Random(0);
+        long[] keys = new long[n];
+        for (int i=0; i<n; i++) {
+            keys[i] = r.nextLong();
+            // the payload is the opposite of the key
+            heap.push(keys[i], -keys[i]);
+        }
+        assertEquals(n, heap.size());
+        assertTrue(heap.getSpills() > 0);
+        assertEquals(heap.getRuns(), dir.list().length);
+        Arrays.sort(keys);
+        for (int i=0; i<n; i++) {
+            assertEquals(keys[i], heap.minKey());
+            assertEquals(-keys[i], heap.minPayload());
+            assertEquals(-keys[i], heap.pop());
+        }
+        assertTrue(heap.isEmpty());
+        assertEquals(0, dir.list().length);
+        dir.delete();
+    }
+
+    /**
+     * Tests the merges of the runs.
+     * @throws IOException if a run cannot be written
+     */
+    public void testMerge() throws IOException {
+        final int n = 10000;
+        final int fanIn = 4;
+        File dir = createDirectory();
+        ExternalHeap heap = new ExternalHeap(10, dir, fanIn);
+        Random r = new Random(0);
+        long[] keys = new long[n];
+        for (int i=0; i<n; i++) {
+            keys[i] = r.nextLong();
+            heap.push(keys[i], -keys[i]);
+            // less than fanIn runs per level
+            assertTrue(heap.getRuns() 
+                       < fanIn * (1 + (int) (Math.log(heap.getSpills()+1) 
+                                             / Math.log(fanIn))));
+        }
+        assertEquals(999, heap.getSpills());
+        assertTrue(heap.getMerges() > 0);
+        assertEquals(heap.getRuns(), dir.list().length);
+        Arrays.sort(keys);
+        for (int i=0; i<n/2; i++) {
+            assertEquals(-keys[i], heap.pop());
+        }
+        // merges while some runs are partially consumed
+        for (int i=0; i<n/2; i++) {
+            keys[i] = keys[n/2] + r.nextInt(1000);
+            heap.push(keys[i], -keys[i]);
+        }
+        Arrays.sort(keys);
+        for (int i=0; i<n; i++) {
+            assertEquals(keys[i], heap.minKey());
+            assertEquals(-keys[i], heap.pop());
+        }
+        assertTrue(heap.isEmpty());
+        assertEquals(0, dir.list().length);
+        dir.delete();
+    }
+
+    /**
+     * Tests runs read and written through several windows.
+     * @throws IOException if a run cannot be written
+     */
+    public void testWindow() throws IOException {
+        final int n = 10000;
+        File dir = createDirectory();
+        // windows of 3 entries, runs of 10 entries and more
+        ExternalHeap heap = new ExternalHeap(10, dir, 4, 3);
+        Random r = new Random(0);
+        long[] keys = new long[n];
+        for (int i=0; i<n; i++) {
+            keys[i] = r.nextLong();
+            heap.push(keys[i], -keys[i]);
+        }
+        assertTrue(heap.getMerges() > 0);
+        Arrays.sort(keys);
+        for (int i=0; i<n; i++) {
+            assertEquals(keys[i], heap.minKey());
+            assertEquals(-keys[i], heap.pop());
+        }
+        assertTrue(heap.isEmpty());
+        assertEquals(0, dir.list().length);
+        dir.delete();
+    }
+
+    /**
+     * Tests that the entries are kept when a spill fails.
+     * @throws IOException if a run cannot be written
+     */
+    public void testFailure() throws IOException {
+        File dir = createDirectory();
+        File moved = new File(dir.getPath() + ".moved");
+        ExternalHeap heap = new ExternalHeap(10, dir, 2, 3);
+        for (int i=0; i<20; i++) {
+            heap.push(20-i, i);
+        }
+        assertEquals(1, heap.getRuns());
+        // the temporary files cannot be created anymore
+        assertTrue(dir.renameTo(moved));
+        try {
+            heap.push(0, 20);
+            fail();
+        } catch (IOException e) {
+        }
+        assertTrue(moved.renameTo(dir));
+        assertEquals(20, heap.size());
+        assertEquals(1, heap.getRuns());
+        heap.push(0, 20);
+        assertEquals(1, heap.getMerges());
+        for (int i=0; i<=20; i++) {
+            assertEquals(i, heap.minKey());
+            assertEquals(20-i, heap.pop());
+        }
+        assertEquals(0, dir.list().length);
+        dir.delete();
+    }
+
+    /**
+     * Tests the arguments of the constructor.
+     */
+    public void testArguments() {
+        try {
+            new ExternalHeap(0);
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+        try {
+            new ExternalHeap(10, null, 1);
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+        try {
+            new ExternalHeap(10, null, 2, 0);
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    /**
+     * Tests interleaved pushes and pops, and close.
+     * @throws IOException if a run cannot be written
+     */
+    public void testInterleaved() throws IOException {
+        File dir = createDirectory();
+        ExternalHeap heap = new ExternalHeap(10, dir);
+        Random r = new Random(0);
+        long last = Long.MIN_VALUE;
+        for (int i=0; i<1000; i++) {
+            // pushes keys not smaller than the last popped one
+            heap.push(last + r.nextInt(100), i);
+            heap.push(last + r.nextInt(100), i);
+            long key = heap.minKey();
+            heap.pop();
+            assertTrue(last <= key);
+            last = key;
+        }
+        assertEquals(1000, heap.size());
+        heap.close();
+        assertTrue(heap.isEmpty());
+        assertEquals(0, dir.list().length);
+        dir.delete();
+    }
+
+    /**
+     * Measures pushes and pops of entries spilled to disk.
+     * @throws IOException if a run cannot be written
+     */
+    public void testBigExternalHeap() throws IOException {
+        final int n = 4000000;
+        Random r = new Random(0);
+        long time = System.currentTimeMillis();
+        ExternalHeap heap = new ExternalHeap(1<<16);
+        for (int i=0; i<n; i++) {
+            heap.push(r.nextLong(), i);
+        }
+        long last = Long.MIN_VALUE;
+        while (!heap.isEmpty()) {
+            long key = heap.minKey();
+            heap.pop();
+            assertTrue(last <= key);
+            last = key;
+        }
+        cat.info("ExternalHeap (" + heap.getSpills() + " runs): " 
+                 + (System.currentTimeMillis() - time) + "ms");
+        heap.close();
+    }
+
+    private static File createDirectory() throws IOException {
+        File dir = File.createTempFile("heap", "");
+        dir.delete();
+        dir.mkdir();
+        return dir;
+    }
+}
+/*
+ * $Log$
+ */
@@ -11,6 +11,12 @@ import java.util.Iterator;
  * @author Yan Georget
  */
 public abstract class Heap {
+    //------------------------------------------------------------------------
+    // CONSTANTS
+    //------------------------------------------------------------------------
+    /** The default capacity. */
+    public static final int DEFAULT_CAPACITY = 10;
+
     //------------------------------------------------------------------------
     // STATIC PROPERTIES
     //------------------------------------------------------------------------
@@ -23,16 +29,46 @@ public abstract class Heap {
     protected Object[] elements;
     /** The size of the heap. */
     protected int size;
+    /** Indicates if the storage is shrunk when the heap becomes sparse. */
+    private boolean shrinkOnPop;
+    /** The statistics, null if they are not gathered. */
+    protected HeapStats stats;
 
     //------------------------------------------------------------------------
     // CONSTRUCTORS
     //------------------------------------------------------------------------
     /** 
-     * Sole constructor.
+     * Main constructor.
+     *
+     * <P>The capacity is only an initial capacity: 
+     * the heap grows when needed.</P>
      * @param capacity the heap capacity
      */
     public Heap(int capacity) {
         elements = new Object[capacity+1];
+        if (HeapStats.ENABLED) {
+            stats = new HeapStats();
+        }
+    }
+
+    /** 
+     * Auxilliary constructor (for a heap of default capacity).
+     */
+    public Heap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /** 
+     * Auxilliary constructor (for a heap built from a collection).
+     *
+     * <P>The heap is built bottom-up, in linear time.
+     * Note that <CODE>smaller</CODE> is called during the construction, 
+     * so it must not depend on properties of a subclass.</P>
+     * @param col a collection
+     */
+    public Heap(Collection col) {
+        this(col.size());
+        addAll(col);
     }
     
     //------------------------------------------------------------------------
@@ -42,9 +78,90 @@ public abstract class Heap {
      * Clears the heap.
      */
     public final void clear() {
+        for (int i=size; i>0; i--) {
+            removed(elements[i]);
+            elements[i] = null;
+        }
         size = 0;
     }
 
+    /**
+     * Returns the size of the heap.
+     * @return an integer
+     */
+    public final int size() {
+        return size;
+    }
+
+    /**
+     * Returns the capacity of the heap 
+     * (the number of elements it can hold without growing).
+     * @return an integer
+     */
+    public final int getCapacity() {
+        return elements.length-1;
+    }
+
+    /**
+     * Ensures that the heap can hold a given number of elements 
+     * without growing.
+     * @param capacity the minimum capacity
+     */
+    public final void ensureCapacity(int capacity) {
+        final int oldCapacity = elements.length-1;
+        if (capacity > oldCapacity) {
+            final int newCapacity = (oldCapacity*3)/2 + 1;
+            setCapacity(newCapacity < capacity ? capacity : newCapacity);
+        }
+    }
+
+    /**
+     * Shrinks the storage of the heap to its size.
+     */
+    public final void trimToSize() {
+        if (size < elements.length-1) {
+            setCapacity(size);
+        }
+    }
+
+    /**
+     * Returns the statistics of the heap.
+     * @return the statistics, 
+     * null if they are not gathered (see <CODE>HeapStats</CODE>)
+     */
+    public final HeapStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Sets the statistics of the heap 
+     * (only used when <CODE>HeapStats.ENABLED</CODE> is true).
+     * @param stats the statistics, possibly shared with other heaps
+     */
+    public final void setStats(HeapStats stats) {
+        this.stats = stats;
+    }
+
+    /**
+     * Sets the shrink policy: 
+     * when set, the storage is halved 
+     * each time the heap becomes less than one quarter full.
+     * @param shrinkOnPop a boolean
+     */
+    public final void setShrinkOnPop(boolean shrinkOnPop) {
+        this.shrinkOnPop = shrinkOnPop;
+    }
+
+    /**
+     * Reallocates the storage of the heap.
+     * @param capacity the new capacity, not smaller than the size
+     */
+    protected void setCapacity(int capacity) {
+        final Object[] tmp = new Object[capacity+1];
+        System.arraycopy(elements, 1, tmp, 1, size);
+        elements = tmp;
+    }
+
     /**
      * Returns the heap as a string.
      * @return a string
@@ -59,21 +176,97 @@ public abstract class Heap {
 
     /**
      * Adds a collection to the heap.
+     *
+     * <P>When the collection is larger than the heap, 
+     * the elements are appended and the heap is rebuilt bottom-up 
+     * (Floyd algorithm), in linear time.</P>
      * @param col a collection
      */
     public final void addAll(Collection col) {
-        for (Iterator i = col.iterator(); i.hasNext();) {
-            add(i.next());
+        final int n = col.size();
+        ensureCapacity(size+n);
+        if (n > size) {
+            for (Iterator i = col.iterator(); i.hasNext();) {
+                set(++size, i.next());
+            }
+            heapify();
+        } else {
+            for (Iterator i = col.iterator(); i.hasNext();) {
+                add(i.next());
+            }
         }
     }
 
+    /**
+     * Melds a heap into this one.
+     *
+     * <P>When the other heap is larger than this one, 
+     * its elements are appended and the heap is rebuilt bottom-up, 
+     * in linear time; otherwise they are added one by one.
+     * The other heap is emptied.
+     * Both heaps must order their elements the same way.</P>
+     * @param heap a heap
+     */
+    public final void meld(Heap heap) {
+        if (heap == this) {
+            return;
+        }
+        final int n = heap.size;
+        ensureCapacity(size+n);
+        if (n > size) {
+            for (int i=1; i<=n; i++) {
+                set(++size, heap.elements[i]);
+            }
+            heapify();
+        } else {
+            for (int i=1; i<=n; i++) {
+                add(heap.elements[i]);
+            }
+        }
+        heap.clear();
+    }
+
+    /**
+     * Rebuilds the heap bottom-up (Floyd algorithm), in linear time.
+     */
+    public final void heapify() {
+        for (int i=size>>1; i>0; i--) {
+            down(i);
+        }
+        if (HeapStats.ENABLED && stats != null) {
+            stats.sized(size);
+        }
+    }
+
+    /**
+     * Puts an element at a given position.
+     * @param i an index
+     * @param o an object
+     */
+    protected void set(int i, Object o) {
+        elements[i] = o;
+    }
+
+    /**
+     * Called when an element leaves the heap (popped, removed or cleared).
+     * @param o an object
+     */
+    protected void removed(Object o) {
+    }
+
     /**
      * Adds an object to the heap.
      * @param o an object
      */
     public void add(Object o) {
-        elements[++size] = o; // TODO: check capacity
+        if (size+1 == elements.length) {
+            ensureCapacity(size+1);
+        }
+        set(++size, o);
         up(size);
+        if (HeapStats.ENABLED && stats != null) {
+            stats.added(size);
+        }
     }
 
     /**
@@ -84,18 +277,62 @@ public abstract class Heap {
         return size == 0;
     }
 
+    /**
+     * Returns the top element, without removing it.
+     * @return an object, null if the heap is empty
+     */
+    public final Object peek() {
+        return size > 0 ? elements[1] : null;
+    }
+
     /**
      * Pops an element (the top).
      * @return an object 
      */
     public final Object pop() {
-        if (size > 0) {
-            final Object tmp = elements[1];
-            elements[1] = elements[size--];
-            down(1);
-            return tmp;
-        } else {
-            return null;
+        if (HeapStats.ENABLED && stats != null && size > 0) {
+            stats.popped();
+        }
+        return size > 0 ? remove(1) : null;
+    }
+
+    /**
+     * Removes the element at a given position.
+     *
+     * <P>The last element fills the hole, 
+     * and is pushed up or down to restore the heap.</P>
+     * @param pos an index between 1 and the size of the heap
+     * @return the removed element
+     */
+    public final Object remove(int pos) {
+        final Object o = elements[pos];
+        final Object last = elements[size];
+        elements[size--] = null;
+        removed(o);
+        if (pos <= size) {
+            set(pos, last);
+            update(pos);
+        }
+        if (shrinkOnPop 
+            && size < (elements.length>>2) 
+            && elements.length > DEFAULT_CAPACITY) {
+            setCapacity(elements.length>>1);
+        }
+        return o;
+    }
+
+    /**
+     * Pushes an element up or down, 
+     * after its position in the order has changed.
+     * @param pos an index
+     */
+    public final void update(int pos) {
+        final Object o = elements[pos];
+        if (pos > 1) {
+            up(pos);
+        }
+        if (elements[pos] == o) {
+            down(pos);
         }
     }
     
@@ -173,29 +410,71 @@ public abstract class Heap {
     
     /**
      * Pushes an element up.
+     *
+     * <P>The element is not swapped at each level: 
+     * the fathers are moved down into the hole 
+     * and the element is written once, at its final position.</P>
      * @param pos an index
      */
-    public final void up(int pos) {
-        if (pos > 1) {
+    public void up(int pos) {
+        final Object o = elements[pos];
+        final int start = pos;
+        int depth = 0;
+        while (pos > 1) {
             final int father = pos>>1;
-            if (smaller(pos, father)) {
-                swap(pos, father);
-                up(father);
-            } 
+            final Object f = elements[father];
+            if (smaller(o, f)) {
+                set(pos, f);
+                pos = father;
+                depth++;
+            } else {
+                break;
+            }
+        }
+        if (pos != start) {
+            set(pos, o);
+        }
+        if (HeapStats.ENABLED && stats != null) {
+            stats.sifted(pos > 1 ? depth+1 : depth, depth);
         }
     }
     
     /**
      * Pushes an element down.
+     *
+     * <P>The element is not swapped at each level: 
+     * the smallest sons are moved up into the hole 
+     * and the element is written once, at its final position.</P>
      * @param pos an index
      */
-    public final void down(int pos) {
-        if (isNotLeaf(pos)) {
-            final int son = smallestSon(pos);
-            if (smaller(son, pos)) {
-                swap(pos, son);
-                down(son);
+    public void down(int pos) {
+        final Object o = elements[pos];
+        final int start = pos;
+        int depth = 0;
+        int comparisons = 0;
+        int son;
+        while ((son = pos<<1) <= size) {
+            if (son < size) {
+                comparisons++;
+                if (smaller(elements[son+1], elements[son])) {
+                    son++;
+                }
             }
+            final Object s = elements[son];
+            comparisons++;
+            if (smaller(s, o)) {
+                set(pos, s);
+                pos = son;
+                depth++;
+            } else {
+                break;
+            }
+        }
+        if (pos != start) {
+            set(pos, o);
+        }
+        if (HeapStats.ENABLED && stats != null) {
+            stats.sifted(comparisons, depth);
         }
     }
 
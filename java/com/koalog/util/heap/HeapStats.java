@@ -0,0 +1,192 @@
+package com.koalog.util.heap;
+
+/**
+ * The statistics of a heap: 
+ * the work done when sifting elements up and down.
+ *
+ * <P>The statistics are only gathered 
+ * when the system property <CODE>com.koalog.util.heap.stats</CODE> 
+ * is set to <CODE>true</CODE>: each heap then gets its own statistics
+ * (see <CODE>Heap.getStats</CODE>).
+ * Otherwise, the instrumentation code is guarded 
+ * by a constant false condition and removed by the JIT compiler.</P>
+ *
+ * <P>The counters are not synchronized: 
+ * they are updated by the thread using the heap, 
+ * and may be read approximately by another one.</P>
+ * @author Yan Georget
+ */
+public class HeapStats {
+    //------------------------------------------------------------------------
+    // CONSTANTS
+    //------------------------------------------------------------------------
+    /** Indicates if the statistics are gathered. */
+    public static final boolean ENABLED = 
+        Boolean.getBoolean("com.koalog.util.heap.stats");
+    /** The last depth of the histogram. */
+    public static final int MAX_DEPTH = 32;
+
+    //------------------------------------------------------------------------
+    // PROPERTIES
+    //------------------------------------------------------------------------
+    private long comparisons;
+    private long moves;
+    private long sifts;
+    private long adds;
+    private long pops;
+    private int maxSize;
+    private long[] depths;
+
+    //------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //------------------------------------------------------------------------
+    /**
+     * Sole constructor.
+     */
+    public HeapStats() {
+        depths = new long[MAX_DEPTH+1];
+    }
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /**
+     * Returns the number of comparisons performed when sifting elements.
+     * @return a long
+     */
+    public final long getComparisons() {
+        return comparisons;
+    }
+
+    /**
+     * Returns the number of element moves (writes in the heap array).
+     * @return a long
+     */
+    public final long getMoves() {
+        return moves;
+    }
+
+    /**
+     * Returns the number of sifts (up or down).
+     * @return a long
+     */
+    public final long getSifts() {
+        return sifts;
+    }
+
+    /**
+     * Returns the number of additions.
+     * @return a long
+     */
+    public final long getAdds() {
+        return adds;
+    }
+
+    /**
+     * Returns the number of pops.
+     * @return a long
+     */
+    public final long getPops() {
+        return pops;
+    }
+
+    /**
+     * Returns the maximum size reached by the heap.
+     * @return an integer
+     */
+    public final int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the histogram of the sift depths: 
+     * the element <CODE>d</CODE> is the number of sifts 
+     * which moved an element by <CODE>d</CODE> levels 
+     * (the last element counting deeper sifts).
+     * @return an array of longs
+     */
+    public final long[] getDepthHistogram() {
+        return (long[]) depths.clone();
+    }
+
+    /**
+     * Resets the statistics.
+     */
+    public final void reset() {
+        comparisons = 0;
+        moves = 0;
+        sifts = 0;
+        adds = 0;
+        pops = 0;
+        maxSize = 0;
+        for (int d=0; d<=MAX_DEPTH; d++) {
+            depths[d] = 0;
+        }
+    }
+
+    /**
+     * Records a sift.
+     * @param comparisons the number of comparisons
+     * @param depth the number of levels the element moved by
+     */
+    public final void sifted(int comparisons, int depth) {
+        this.comparisons += comparisons;
+        if (depth > 0) {
+            // the moved elements, and the sifted one
+            moves += depth + 1;
+        }
+        sifts++;
+        depths[depth < MAX_DEPTH ? depth : MAX_DEPTH]++;
+    }
+
+    /**
+     * Records an addition.
+     * @param size the size of the heap after the addition
+     */
+    public final void added(int size) {
+        adds++;
+        sized(size);
+    }
+
+    /**
+     * Records a pop.
+     */
+    public final void popped() {
+        pops++;
+    }
+
+    /**
+     * Records the size of the heap.
+     * @param size the size of the heap
+     */
+    public final void sized(int size) {
+        if (size > maxSize) {
+            maxSize = size;
+        }
+    }
+
+    /**
+     * Returns the statistics as a string.
+     * @return a string
+     */
+    public String toString() {
+        StringBuffer b = new StringBuffer();
+        b.append(comparisons + " comparisons, " 
+                 + moves + " moves, " 
+                 + sifts + " sifts, " 
+                 + adds + " adds, " 
+                 + pops + " pops, max size " 
+                 + maxSize + ", depths");
+        int last = MAX_DEPTH;
+        while (last > 0 && depths[last] == 0) {
+            last--;
+        }
+        for (int d=0; d<=last; d++) {
+            b.append(" " + d + ":" + depths[d]);
+        }
+        return b.toString();
+    }
+}
+/*
+ * $Log$
+ */
@@ -3,6 +3,7 @@ package com.koalog.util.heap;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Random;
 import junit.framework.TestCase;
 import org.apache.log4j.Category;
 
@@ -60,6 +61,83 @@ public class HeapTest extends TestCase {
         assertEquals(heap.pop(), null);
     }
 
+    /**
+     * Tests the HeapStats class, and the statistics of a heap 
+     * when they are enabled.
+     */
+    public void testStats() {
+        HeapStats stats = new HeapStats();
+        stats.sifted(3, 2);
+        stats.sifted(1, 0);
+        stats.sifted(40, 40);
+        stats.added(5);
+        stats.added(3);
+        stats.popped();
+        assertEquals(44, stats.getComparisons());
+        assertEquals(44, stats.getMoves());
+        assertEquals(3, stats.getSifts());
+        assertEquals(2, stats.getAdds());
+        assertEquals(1, stats.getPops());
+        assertEquals(5, stats.getMaxSize());
+        long[] depths = stats.getDepthHistogram();
+        assertEquals(1, depths[0]);
+        assertEquals(1, depths[2]);
+        assertEquals(1, depths[HeapStats.MAX_DEPTH]);
+        stats.reset();
+        assertEquals(0, stats.getComparisons());
+        assertEquals(0, stats.getDepthHistogram()[2]);
+        Heap heap = new Heap() {
+                public boolean smaller(Object i, Object j) {
+                    return ((Integer) i).intValue() 
+                        < ((Integer) j).intValue();
+                }
+            };
+        if (HeapStats.ENABLED) {
+            // pushes 7 decreasing integers: each one goes up to the root
+            for (int i=7; i>0; i--) {
+                heap.add(new Integer(i));
+            }
+            heap.pop();
+            stats = heap.getStats();
+            cat.info(stats);
+            assertEquals(7, stats.getAdds());
+            assertEquals(1, stats.getPops());
+            assertEquals(7, stats.getMaxSize());
+            // 0+1+1+2+2+2+2 when adding, 2+1 when popping
+            assertEquals(13, stats.getComparisons());
+            assertEquals(8, stats.getSifts());
+        } else {
+            assertEquals(null, heap.getStats());
+        }
+    }
+
+    /**
+     * Tests the meld method of the Heap class.
+     */
+    public void testMeld() {
+        Heap[] heaps = new Heap[3];
+        for (int h=0; h<heaps.length; h++) {
+            heaps[h] = new Heap() {
+                    public boolean smaller(Object i, Object j) {
+                        return ((Integer) i).intValue() 
+                            < ((Integer) j).intValue();
+                    }
+                };
+        }
+        // sizes 2, 20 and 5
+        for (int i=0; i<27; i++) {
+            heaps[i < 2 ? 0 : (i < 22 ? 1 : 2)].add(new Integer(26-i));
+        }
+        heaps[0].meld(heaps[1]);
+        heaps[0].meld(heaps[2]);
+        assertTrue(heaps[1].isEmpty());
+        assertTrue(heaps[2].isEmpty());
+        assertEquals(27, heaps[0].size());
+        for (int i=0; i<27; i++) {
+            assertEquals(i, ((Integer) heaps[0].pop()).intValue());
+        }
+    }
+
     /**
      * Tests the ReverseHeap class.
      */
@@ -85,7 +163,9 @@ public class HeapTest extends TestCase {
         heap.addAll(l);
         assertEquals(1, heap.index(o0));
         assertEquals(2, heap.index(o1));
-        assertEquals(3, heap.index(o2));
+        assertEquals(3, heap.index(o4));
+        assertEquals(4, heap.index(o3));
+        assertEquals(5, heap.index(o2));
     }
 
     /**
@@ -114,7 +194,65 @@ public class HeapTest extends TestCase {
                 }
             };
         heap.addAll(l);
-        assertEquals(8, heap.index(o7));
+        assertEquals(7, heap.index(o7));
+    }
+
+    /**
+     * Tests the remove, down, update and contains methods 
+     * of the ReverseHeap class.
+     */
+    public void testReverseHeapUpdates() {
+        final int n = 1000;
+        final double[] k = new double[n];
+        Random r = new Random(0);
+        ReverseHeap heap = new ReverseHeap() {
+                public boolean smaller(Object i, Object j) {
+                    return k[((Indexed) i).getIndex()]
+                        < k[((Indexed) j).getIndex()];
+                }
+            };
+        Node[] nodes = new Node[n];
+        for (int i=0; i<n; i++) {
+            nodes[i] = new Node(i);
+            k[i] = r.nextDouble();
+            heap.add(nodes[i]);
+        }
+        for (int i=0; i<n; i+=3) {
+            k[i] *= 2;
+            heap.down(nodes[i]);
+        }
+        for (int i=1; i<n; i+=3) {
+            k[i] = r.nextDouble();
+            heap.update(nodes[i]);
+        }
+        for (int i=2; i<n; i+=5) {
+            assertTrue(heap.remove(nodes[i]));
+            assertFalse(heap.contains(nodes[i]));
+            assertEquals(0, heap.index(nodes[i]));
+        }
+        assertFalse(heap.remove(nodes[2]));
+        // the ids of the removed elements can be reused
+        for (int i=2; i<n; i+=10) {
+            heap.add(nodes[i]);
+        }
+        for (int i=0; i<n; i++) {
+            if (heap.contains(nodes[i])) {
+                assertEquals(nodes[i], heap.elements[heap.index(nodes[i])]);
+            }
+        }
+        double last = Double.NEGATIVE_INFINITY;
+        int count = 0;
+        while (!heap.isEmpty()) {
+            Node o = (Node) heap.pop();
+            assertFalse(heap.contains(o));
+            assertTrue(last <= k[o.getIndex()]);
+            last = k[o.getIndex()];
+            count++;
+        }
+        assertEquals(n - n/5 + n/10, count);
+        heap.add(nodes[0]);
+        heap.clear();
+        assertFalse(heap.contains(nodes[0]));
     }
  
     /**
@@ -141,6 +279,178 @@ public class HeapTest extends TestCase {
         assertTrue(heap.isEmpty());
     }
 
+    /**
+     * Tests the growth and the shrinking of the Heap class.
+     */
+    public void testCapacity() {
+        Heap heap = new Heap(1) {
+                public boolean smaller(Object i, Object j) {
+                    return ((Integer) i).intValue() 
+                        < ((Integer) j).intValue();
+                }   
+            };
+        int n = 100;
+        for (int i=n; --i>=0;) {
+            heap.add(new Integer(i));
+        }
+        assertEquals(n, heap.size());
+        assertTrue(heap.getCapacity() >= n);
+        heap.trimToSize();
+        assertEquals(n, heap.getCapacity());
+        heap.ensureCapacity(2*n);
+        assertEquals(2*n, heap.getCapacity());
+        heap.setShrinkOnPop(true);
+        for (int i=0; i<n-2; i++) {
+            assertEquals(i, ((Integer) heap.pop()).intValue());
+        }
+        assertTrue(heap.getCapacity() < n);
+        assertEquals(n-2, ((Integer) heap.pop()).intValue());
+        assertEquals(n-1, ((Integer) heap.pop()).intValue());
+        assertTrue(heap.isEmpty());
+    }
+
+    /**
+     * Tests the growth of the ReverseHeap class.
+     */
+    public void testReverseHeapCapacity() {
+        ReverseHeap heap = new ReverseHeap(2) {
+                public boolean smaller(Object i, Object j) {
+                    return ((Indexed) i).getIndex() 
+                        > ((Indexed) j).getIndex();
+                }
+            };
+        int n = 50;
+        Indexed[] nodes = new Indexed[n];
+        for (int i=0; i<n; i++) {
+            nodes[i] = new Node(i);
+            heap.add(nodes[i]);
+        }
+        assertEquals(1, heap.index(nodes[n-1]));
+        for (int i=n; --i>=0;) {
+            assertEquals(nodes[i], heap.pop());
+        }
+    }
+
+    /**
+     * Tests the bulk construction of heaps.
+     */
+    public void testBuild() {
+        List l = new ArrayList();
+        for (int i=0; i<100; i++) {
+            l.add(new Integer((i*37)%100));
+        }
+        Heap heap = new Heap(l) {
+                public boolean smaller(Object i, Object j) {
+                    return ((Integer) i).intValue() 
+                        < ((Integer) j).intValue();
+                }   
+            };
+        heap.addAll(Arrays.asList(new Integer[] {
+            new Integer(9),
+            new Integer(0),
+            new Integer(5),
+            new Integer(3),
+            new Integer(1),
+            new Integer(7),
+            new Integer(2),
+            new Integer(8),
+            new Integer(4),
+            new Integer(6)
+        }));
+        assertEquals(110, heap.size());
+        for (int i=0; i<10; i++) {
+            assertEquals(i, ((Integer) heap.pop()).intValue());
+            assertEquals(i, ((Integer) heap.pop()).intValue());
+        }
+        for (int i=10; i<100; i++) {
+            assertEquals(i, ((Integer) heap.pop()).intValue());
+        }
+        Indexed[] nodes = new Indexed[100];
+        for (int i=0; i<100; i++) {
+            nodes[i] = new Node((i*37)%100);
+        }
+        ReverseHeap rheap = new ReverseHeap() {
+                public boolean smaller(Object i, Object j) {
+                    return ((Indexed) i).getIndex() 
+                        < ((Indexed) j).getIndex();
+                }
+            };
+        rheap.buildFrom(nodes);
+        for (int i=0; i<100; i++) {
+            assertEquals(nodes[i], rheap.elements[rheap.index(nodes[i])]);
+        }
+        for (int i=0; i<100; i++) {
+            assertEquals(i, ((Indexed) rheap.pop()).getIndex());
+        }
+    }
+
+    /**
+     * Tests the DaryHeap class.
+     */
+    public void testDaryHeap() {
+        int[] arities = new int[] {2, 4, 8};
+        for (int a=0; a<arities.length; a++) {
+            Heap heap = new DaryHeap(arities[a]) {
+                    public boolean smaller(Object i, Object j) {
+                        return ((Integer) i).intValue() 
+                            < ((Integer) j).intValue();
+                    }   
+                };
+            int n = 1000;
+            List l = new ArrayList();
+            for (int i=0; i<n; i++) {
+                l.add(new Integer((i*37)%n));
+            }
+            heap.addAll(l);
+            for (int i=0; i<n; i++) {
+                heap.add(new Integer((i*91)%n));
+            }
+            for (int i=0; i<n; i++) {
+                assertEquals(i, ((Integer) heap.pop()).intValue());
+                assertEquals(i, ((Integer) heap.pop()).intValue());
+            }
+            assertTrue(heap.isEmpty());
+        }
+        try {
+            new DaryHeap(3) {
+                public boolean smaller(Object i, Object j) {
+                    return false;
+                }   
+            };
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    /**
+     * Compares the pops of binary, 4-ary and 8-ary heaps.
+     */
+    public void testBigDaryHeap() {
+        int n = 1000000;
+        Integer[] a = new Integer[n];
+        for (int i=0; i<n; i++) {
+            a[i] = new Integer((int) ((i*2654435761L)%n));
+        }
+        int[] arities = new int[] {2, 4, 8};
+        for (int k=0; k<arities.length; k++) {
+            long time = System.currentTimeMillis();
+            Heap heap = new DaryHeap(n, arities[k]) {
+                    public boolean smaller(Object i, Object j) {
+                        return ((Integer) i).intValue() 
+                            < ((Integer) j).intValue();
+                    }   
+                };
+            for (int i=0; i<n; i++) {
+                heap.add(a[i]);
+            }
+            while (!heap.isEmpty()) {
+                heap.pop();
+            }
+            cat.info("DaryHeap (arity " + arities[k] + "): "
+                     + (System.currentTimeMillis() - time) + "ms");
+        }
+    }
+
     //------------------------------------------------------------------------
     // INNER CLASSES
     //------------------------------------------------------------------------
@@ -0,0 +1,263 @@
+package com.koalog.util.heap;
+
+/**
+ * An indexed heap of integer ids ordered by <CODE>double</CODE> priorities.
+ *
+ * <P>This is a primitive counterpart of <CODE>ReverseHeap</CODE>:
+ * the ids, their priorities and the position of each id in the heap
+ * are stored in arrays of primitives,
+ * so that no cast nor virtual call is needed when comparing elements,
+ * and no object is allocated after construction.</P>
+ *
+ * <P>The ids must belong to the range <CODE>[0, capacity)</CODE>.
+ * The heap is binary by default, but can be given a larger arity 
+ * (see <CODE>DaryHeap</CODE>).</P>
+ * @author Yan Georget
+ */
+public class IntIndexedHeap {
+    //------------------------------------------------------------------------
+    // PROPERTIES
+    //------------------------------------------------------------------------
+    /** The ids, used starting from position 1. */
+    private int[] ids;
+    /** The priorities, keys[p] is the priority of ids[p]. */
+    private double[] keys;
+    /**
+     * pos[id] is the position in the heap of the given id,
+     * 0 if the id is not in the heap.
+     */
+    private int[] pos;
+    /** The size of the heap. */
+    private int size;
+    /** The arity, a power of 2. */
+    private int arity;
+    /** The logarithm (base 2) of the arity. */
+    private int shift;
+
+    //------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //------------------------------------------------------------------------
+    /**
+     * Main constructor.
+     * @param capacity the heap capacity (the ids range from 0 to capacity-1)
+     * @param arity the arity, a power of 2
+     */
+    public IntIndexedHeap(int capacity, int arity) {
+        ids = new int[capacity+1];
+        keys = new double[capacity+1];
+        pos = new int[capacity];
+        this.shift = DaryHeap.log2(arity);
+        this.arity = arity;
+    }
+
+    /**
+     * Auxilliary constructor (for a binary heap).
+     * @param capacity the heap capacity (the ids range from 0 to capacity-1)
+     */
+    public IntIndexedHeap(int capacity) {
+        this(capacity, 2);
+    }
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /**
+     * Returns the size of the heap.
+     * @return an integer
+     */
+    public final int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the heap is empty.
+     * @return a boolean
+     */
+    public final boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Clears the heap.
+     */
+    public final void clear() {
+        for (int p=size; p>0; p--) {
+            pos[ids[p]] = 0;
+        }
+        size = 0;
+    }
+
+    /**
+     * Checks if an id is in the heap.
+     * @param id an id
+     * @return a boolean
+     */
+    public final boolean contains(int id) {
+        return pos[id] != 0;
+    }
+
+    /**
+     * Returns the priority of an id (which must be in the heap).
+     * @param id an id
+     * @return a priority
+     */
+    public final double getKey(int id) {
+        return keys[pos[id]];
+    }
+
+    /**
+     * Returns the id with the smallest priority, without removing it.
+     * @return an id, -1 if the heap is empty
+     */
+    public final int peekMin() {
+        return size > 0 ? ids[1] : -1;
+    }
+
+    /**
+     * Returns the smallest priority (the heap must not be empty).
+     * @return a priority
+     */
+    public final double minKey() {
+        return keys[1];
+    }
+
+    /**
+     * Adds an id (which must not be in the heap).
+     * @param id an id
+     * @param key its priority
+     */
+    public final void push(int id, double key) {
+        up(++size, id, key);
+    }
+
+    /**
+     * Pops the id with the smallest priority.
+     * @return an id, -1 if the heap is empty
+     */
+    public final int popMin() {
+        if (size > 0) {
+            final int min = ids[1];
+            pos[min] = 0;
+            final int last = ids[size];
+            final double lastKey = keys[size--];
+            if (size > 0) {
+                down(1, last, lastKey);
+            }
+            return min;
+        } else {
+            return -1;
+        }
+    }
+
+    /**
+     * Removes an id (which must be in the heap).
+     * @param id an id
+     */
+    public final void remove(int id) {
+        final int p = pos[id];
+        pos[id] = 0;
+        final int last = ids[size];
+        final double lastKey = keys[size--];
+        if (p <= size) {
+            if (p > 1 && lastKey < keys[((p-2)>>shift) + 1]) {
+                up(p, last, lastKey);
+            } else {
+                down(p, last, lastKey);
+            }
+        }
+    }
+
+    /**
+     * Decreases the priority of an id (which must be in the heap).
+     * @param id an id
+     * @param key the new priority, not greater than the current one
+     */
+    public final void decreaseKey(int id, double key) {
+        up(pos[id], id, key);
+    }
+
+    /**
+     * Increases the priority of an id (which must be in the heap).
+     * @param id an id
+     * @param key the new priority, not smaller than the current one
+     */
+    public final void increaseKey(int id, double key) {
+        down(pos[id], id, key);
+    }
+
+    /**
+     * Moves an id up, starting from a given position.
+     * @param p a position (the hole)
+     * @param id the id to be placed
+     * @param key its priority
+     */
+    private final void up(int p, int id, double key) {
+        while (p > 1) {
+            final int father = ((p-2)>>shift) + 1;
+            final double fatherKey = keys[father];
+            if (key < fatherKey) {
+                final int fatherId = ids[father];
+                ids[p] = fatherId;
+                keys[p] = fatherKey;
+                pos[fatherId] = p;
+                p = father;
+            } else {
+                break;
+            }
+        }
+        ids[p] = id;
+        keys[p] = key;
+        pos[id] = p;
+    }
+
+    /**
+     * Moves an id down, starting from a given position.
+     * @param p a position (the hole)
+     * @param id the id to be placed
+     * @param key its priority
+     */
+    private final void down(int p, int id, double key) {
+        int first;
+        while ((first = ((p-1)<<shift) + 2) <= size) {
+            int last = first + arity - 1;
+            if (last > size) {
+                last = size;
+            }
+            int son = first;
+            double sonKey = keys[first];
+            for (int i=first+1; i<=last; i++) {
+                if (keys[i] < sonKey) {
+                    son = i;
+                    sonKey = keys[i];
+                }
+            }
+            if (sonKey < key) {
+                final int sonId = ids[son];
+                ids[p] = sonId;
+                keys[p] = sonKey;
+                pos[sonId] = p;
+                p = son;
+            } else {
+                break;
+            }
+        }
+        ids[p] = id;
+        keys[p] = key;
+        pos[id] = p;
+    }
+
+    /**
+     * Returns the heap as a string.
+     * @return a string
+     */
+    public String toString() {
+        StringBuffer b = new StringBuffer();
+        for (int p=1; p<=size; p++) {
+            b.append(p + ":" + ids[p] + "(" + keys[p] + ")\n");
+        }
+        return b.toString();
+    }
+}
+/*
+ * $Log$
+ */
@@ -0,0 +1,227 @@
+package com.koalog.util.heap;
+
+import java.util.Random;
+import junit.framework.TestCase;
+import org.apache.log4j.Category;
+
+/**
+ * Tests the IntIndexedHeap class.
+ * @author Yan Georget
+ */
+public class IntIndexedHeapTest extends TestCase {
+    //------------------------------------------------------------------------
+    // CONSTANTS
+    //------------------------------------------------------------------------
+    private static Category cat = 
+        Category.getInstance(IntIndexedHeapTest.class);
+
+    //------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //------------------------------------------------------------------------
+    /**
+     * Sole constructor.
+     * @param name a name
+     */
+    public IntIndexedHeapTest(String name) {
+        super(name);
+    }
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /**
+     * Tests push and popMin.
+     */
+    public void testPushPop() {
+        IntIndexedHeap heap = new IntIndexedHeap(5);
+        heap.push(0, 5.0);
+        heap.push(1, 4.0);
+        heap.push(2, 4.0);
+        heap.push(3, 3.0);
+        heap.push(4, 2.0);
+        assertEquals(5, heap.size());
+        assertEquals(4, heap.popMin());
+        assertEquals(3, heap.popMin());
+        assertEquals(4.0, heap.minKey(), 0.0);
+        heap.popMin();
+        heap.popMin();
+        assertEquals(0, heap.popMin());
+        assertEquals(-1, heap.popMin());
+        assertTrue(heap.isEmpty());
+    }
+
+    /**
+     * Tests decreaseKey, increaseKey, remove and contains.
+     */
+    public void testUpdates() {
+        IntIndexedHeap heap = new IntIndexedHeap(8);
+        for (int i=0; i<8; i++) {
+            heap.push(i, i);
+        }
+        heap.decreaseKey(7, -1.0);
+        assertEquals(7, heap.peekMin());
+        heap.increaseKey(7, 10.0);
+        assertEquals(0, heap.peekMin());
+        heap.remove(0);
+        heap.remove(5);
+        assertFalse(heap.contains(0));
+        assertFalse(heap.contains(5));
+        assertTrue(heap.contains(7));
+        assertEquals(10.0, heap.getKey(7), 0.0);
+        int[] expected = new int[] {1, 2, 3, 4, 6, 7};
+        for (int i=0; i<expected.length; i++) {
+            assertEquals(expected[i], heap.popMin());
+        }
+        assertTrue(heap.isEmpty());
+        heap.push(3, 1.0);
+        heap.clear();
+        assertFalse(heap.contains(3));
+    }
+
+    /**
+     * Tests big heaps (of various arities) against a sort.
+     */
+    public void testRandom() {
+        testRandom(2);
+        testRandom(4);
+        testRandom(8);
+    }
+
+    private void testRandom(int arity) {
+        int n = 10000;
+        Random r = new Random(0);
+        IntIndexedHeap heap = new IntIndexedHeap(n, arity);
+        double[] k = new double[n];
+        for (int i=0; i<n; i++) {
+            k[i] = r.nextDouble();
+            heap.push(i, k[i]);
+        }
+        for (int i=0; i<n; i+=3) {
+            k[i] /= 2;
+            heap.decreaseKey(i, k[i]);
+        }
+        for (int i=1; i<n; i+=5) {
+            k[i] *= 2;
+            heap.increaseKey(i, k[i]);
+        }
+        for (int i=2; i<n; i+=7) {
+            heap.remove(i);
+            heap.push(i, k[i]);
+        }
+        double last = Double.NEGATIVE_INFINITY;
+        while (!heap.isEmpty()) {
+            double key = heap.minKey();
+            int id = heap.popMin();
+            assertEquals(k[id], key, 0.0);
+            assertTrue(last <= key);
+            last = key;
+        }
+    }
+
+    /**
+     * Compares the IntIndexedHeap class with the ReverseHeap class,
+     * on a sequence of pushes, decrease-keys and pops.
+     */
+    public void testBigIntIndexedHeap() {
+        final int n = 1000000;
+        final double[] k = new double[n];
+        Random r = new Random(0);
+        for (int i=0; i<n; i++) {
+            k[i] = r.nextDouble();
+        }
+        long time = System.currentTimeMillis();
+        ReverseHeap rheap = new ReverseHeap(n) {
+                public boolean smaller(Object i, Object j) {
+                    return k[((Indexed) i).getIndex()]
+                        < k[((Indexed) j).getIndex()];
+                }
+            };
+        Node[] nodes = new Node[n];
+        for (int i=0; i<n; i++) {
+            nodes[i] = new Node(i);
+            rheap.add(nodes[i]);
+        }
+        for (int i=0; i<n; i+=2) {
+            k[i] /= 2;
+            rheap.up(nodes[i]);
+        }
+        while (!rheap.isEmpty()) {
+            rheap.pop();
+        }
+        cat.info("ReverseHeap: " + (System.currentTimeMillis() - time) + "ms");
+        time = System.currentTimeMillis();
+        IntIndexedHeap heap = new IntIndexedHeap(n);
+        for (int i=0; i<n; i++) {
+            heap.push(i, k[i]);
+        }
+        for (int i=0; i<n; i+=2) {
+            k[i] /= 2;
+            heap.decreaseKey(i, k[i]);
+        }
+        while (!heap.isEmpty()) {
+            heap.popMin();
+        }
+        cat.info("IntIndexedHeap: "
+                 + (System.currentTimeMillis() - time) + "ms");
+        assertTrue(heap.isEmpty());
+    }
+
+    /**
+     * Compares binary, 4-ary and 8-ary layouts,
+     * on a sequence of pushes, decrease-keys and pops.
+     */
+    public void testBigDaryIntIndexedHeap() {
+        final int n = 1000000;
+        final double[] k = new double[n];
+        int[] arities = new int[] {2, 4, 8};
+        for (int a=0; a<arities.length; a++) {
+            Random r = new Random(0);
+            for (int i=0; i<n; i++) {
+                k[i] = r.nextDouble();
+            }
+            long time = System.currentTimeMillis();
+            IntIndexedHeap heap = new IntIndexedHeap(n, arities[a]);
+            for (int i=0; i<n; i++) {
+                heap.push(i, k[i]);
+            }
+            for (int i=0; i<n; i+=2) {
+                k[i] /= 2;
+                heap.decreaseKey(i, k[i]);
+            }
+            while (!heap.isEmpty()) {
+                heap.popMin();
+            }
+            cat.info("IntIndexedHeap (arity " + arities[a] + "): "
+                     + (System.currentTimeMillis() - time) + "ms");
+        }
+    }
+
+    //------------------------------------------------------------------------
+    // INNER CLASSES
+    //------------------------------------------------------------------------
+    /**
+     * Implementation of interface Indexed.
+     */
+    class Node implements Indexed {
+        private int index;
+
+        /**
+         * Sole constructor.
+         * @param index an index
+         */
+        public Node(int index) {
+            this.index = index;
+        }
+
+        /**
+         * Returns the index.
+         * @return an integer
+         */
+        public int getIndex() {
+            return index;
+        }
+    }
+}
+/*
+ * $Log$
+ */
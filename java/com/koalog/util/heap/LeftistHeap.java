@@ -0,0 +1,180 @@
+package com.koalog.util.heap;
+
+import java.util.Iterator;
+
+/**
+ * A leftist heap.
+ *
+ * <P>This heap is a binary tree of nodes, 
+ * such that the rank of the left son (the length of its right spine) 
+ * is never smaller than the rank of the right son. 
+ * Two heaps are melded by merging their right spines, 
+ * in logarithmic time: 
+ * this suits searches which partition their frontier 
+ * and need to combine the parts.</P>
+ *
+ * <P>To meld two <CODE>Heap</CODE> instances, 
+ * see <CODE>Heap.meld</CODE>.</P>
+ * @author Yan Georget
+ */
+public abstract class LeftistHeap {
+    //------------------------------------------------------------------------
+    // PROPERTIES
+    //------------------------------------------------------------------------
+    /** The root of the heap. */
+    private Node root;
+    /** The size of the heap. */
+    private int size;
+
+    //------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //------------------------------------------------------------------------
+    /**
+     * Sole constructor.
+     */
+    public LeftistHeap() {
+    }
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /**
+     * Returns the size of the heap.
+     * @return an integer
+     */
+    public final int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the heap is empty.
+     * @return a boolean
+     */
+    public final boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Clears the heap.
+     */
+    public final void clear() {
+        root = null;
+        size = 0;
+    }
+
+    /**
+     * Returns the smallest element, without removing it.
+     * @return an object, null if the heap is empty
+     */
+    public final Object peek() {
+        return root == null ? null : root.element;
+    }
+
+    /**
+     * Adds an element, in logarithmic time.
+     * @param o an object
+     */
+    public final void add(Object o) {
+        root = merge(root, new Node(o));
+        size++;
+    }
+
+    /**
+     * Adds the elements of an iterator.
+     * @param it an iterator
+     */
+    public final void addAll(Iterator it) {
+        while (it.hasNext()) {
+            add(it.next());
+        }
+    }
+
+    /**
+     * Pops the smallest element, in logarithmic time.
+     * @return an object, null if the heap is empty
+     */
+    public final Object pop() {
+        if (root == null) {
+            return null;
+        }
+        final Object o = root.element;
+        root = merge(root.left, root.right);
+        size--;
+        return o;
+    }
+
+    /**
+     * Melds a heap into this one, in logarithmic time.
+     *
+     * <P>The other heap is emptied. 
+     * Both heaps must order their elements the same way.</P>
+     * @param heap a leftist heap
+     */
+    public final void meld(LeftistHeap heap) {
+        if (heap != this) {
+            root = merge(root, heap.root);
+            size += heap.size;
+            heap.clear();
+        }
+    }
+
+    /**
+     * Merges two trees along their right spines.
+     * @param a a tree (possibly null)
+     * @param b a tree (possibly null)
+     * @return the merged tree
+     */
+    private final Node merge(Node a, Node b) {
+        if (a == null) {
+            return b;
+        } else if (b == null) {
+            return a;
+        }
+        if (smaller(b.element, a.element)) {
+            final Node tmp = a;
+            a = b;
+            b = tmp;
+        }
+        a.right = merge(a.right, b);
+        if (a.left == null || a.left.rank < a.right.rank) {
+            final Node tmp = a.left;
+            a.left = a.right;
+            a.right = tmp;
+        }
+        a.rank = a.right == null ? 1 : a.right.rank + 1;
+        return a;
+    }
+
+    //------------------------------------------------------------------------
+    // ABSTRACT METHODS
+    //------------------------------------------------------------------------
+    /** 
+     * Compares two elements.
+     * @param i an object
+     * @param j an object
+     * @return a boolean
+     */
+    public abstract boolean smaller(Object i, Object j);
+
+    //------------------------------------------------------------------------
+    // INNER CLASSES
+    //------------------------------------------------------------------------
+    /**
+     * A node of the tree.
+     */
+    private static final class Node {
+        Object element;
+        Node left;
+        Node right;
+        /** The length of the right spine. */
+        int rank;
+
+        Node(Object element) {
+            this.element = element;
+            rank = 1;
+        }
+    }
+}
+/*
+ * $Log$
+ */
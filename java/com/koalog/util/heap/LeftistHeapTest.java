@@ -0,0 +1,147 @@
+package com.koalog.util.heap;
+
+import java.util.Arrays;
+import java.util.Random;
+import junit.framework.TestCase;
+import org.apache.log4j.Category;
+
+/**
+ * Tests the LeftistHeap class.
+ * @author Yan Georget
+ */
+public class LeftistHeapTest extends TestCase {
+    //------------------------------------------------------------------------
+    // CONSTANTS
+    //------------------------------------------------------------------------
+    private static Category cat = Category.getInstance(LeftistHeapTest.class);
+
+    //------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //------------------------------------------------------------------------
+    /**
+     * Sole constructor.
+     * @param name a name
+     */
+    public LeftistHeapTest(String name) {
+        super(name);
+    }
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /**
+     * Tests add, pop and meld against a sort.
+     */
+    public void testLeftistHeap() {
+        final int n = 10000;
+        final int parts = 8;
+        Random r = new Random(0);
+        LeftistHeap[] heaps = new LeftistHeap[parts];
+        for (int p=0; p<parts; p++) {
+            heaps[p] = new IntegerHeap();
+        }
+        int[] values = new int[n];
+        for (int i=0; i<n; i++) {
+            values[i] = r.nextInt(1000);
+            heaps[i%parts].add(new Integer(values[i]));
+        }
+        for (int p=1; p<parts; p++) {
+            heaps[0].meld(heaps[p]);
+            assertTrue(heaps[p].isEmpty());
+        }
+        assertEquals(n, heaps[0].size());
+        Arrays.sort(values);
+        for (int i=0; i<n; i++) {
+            assertEquals(new Integer(values[i]), heaps[0].peek());
+            assertEquals(values[i], ((Integer) heaps[0].pop()).intValue());
+        }
+        assertEquals(null, heaps[0].pop());
+    }
+
+    /**
+     * Compares the melds of partitions by the LeftistHeap class, 
+     * by Heap.meld, and by Heap.toCollection.
+     */
+    public void testBigMeld() {
+        final int n = 1000000;
+        final int parts = 16;
+        Random r = new Random(0);
+        Integer[] elements = new Integer[n];
+        for (int i=0; i<n; i++) {
+            elements[i] = new Integer(r.nextInt());
+        }
+        LeftistHeap[] lheaps = new LeftistHeap[parts];
+        Heap[] heaps = new Heap[parts];
+        Heap[] cheaps = new Heap[parts];
+        for (int p=0; p<parts; p++) {
+            lheaps[p] = new IntegerHeap();
+            heaps[p] = new IntegerBinaryHeap();
+            cheaps[p] = new IntegerBinaryHeap();
+        }
+        for (int i=0; i<n; i++) {
+            lheaps[i%parts].add(elements[i]);
+            heaps[i%parts].add(elements[i]);
+            cheaps[i%parts].add(elements[i]);
+        }
+        long time = System.currentTimeMillis();
+        for (int p=1; p<parts; p++) {
+            cheaps[0].addAll(cheaps[p].toCollection(cheaps[p].size()));
+        }
+        cat.info("Heap.toCollection: " 
+                 + (System.currentTimeMillis() - time) + "ms");
+        time = System.currentTimeMillis();
+        for (int p=1; p<parts; p++) {
+            heaps[0].meld(heaps[p]);
+        }
+        cat.info("Heap.meld: " + (System.currentTimeMillis() - time) + "ms");
+        time = System.currentTimeMillis();
+        for (int p=1; p<parts; p++) {
+            lheaps[0].meld(lheaps[p]);
+        }
+        cat.info("LeftistHeap.meld: " 
+                 + (System.currentTimeMillis() - time) + "ms");
+        assertEquals(n, lheaps[0].size());
+        assertEquals(n, heaps[0].size());
+        for (int i=0; i<1000; i++) {
+            Object o = heaps[0].pop();
+            assertEquals(o, lheaps[0].pop());
+            assertEquals(o, cheaps[0].pop());
+        }
+    }
+
+    //------------------------------------------------------------------------
+    // INNER CLASSES
+    //------------------------------------------------------------------------
+    /**
+     * A leftist heap of integers.
+     */
+    static class IntegerHeap extends LeftistHeap {
+        /**
+         * Compares two integers.
+         * @param i an integer
+         * @param j an integer
+         * @return a boolean
+         */
+        public boolean smaller(Object i, Object j) {
+            return ((Integer) i).intValue() < ((Integer) j).intValue();
+        }
+    }
+
+    /**
+     * A binary heap of integers.
+     */
+    static class IntegerBinaryHeap extends Heap {
+        /**
+         * Compares two integers.
+         * @param i an integer
+         * @param j an integer
+         * @return a boolean
+         */
+        public boolean smaller(Object i, Object j) {
+            return ((Integer) i).intValue() < ((Integer) j).intValue();
+        }
+    }
+}
+/*
+ * $Log$
+ */
@@ -0,0 +1,297 @@
+package com.koalog.util.heap;
+
+import com.koalog.util.Arithmetic;
+
+/**
+ * A double-ended heap (min-max heap): 
+ * both the smallest and the greatest elements can be popped 
+ * in logarithmic time.
+ *
+ * <P>The elements at even levels (starting with the root) 
+ * are smaller than their descendants,
+ * the elements at odd levels are greater than their descendants.
+ * As for <CODE>Heap</CODE>, the array is used starting from index 1, 
+ * and grows when needed.</P>
+ *
+ * <P>This heap is typically used to retain the best <CODE>k</CODE> 
+ * elements of a stream (see <CODE>pushBounded</CODE>), 
+ * in <CODE>O(k)</CODE> memory.</P>
+ * @author Yan Georget
+ */
+public abstract class MinMaxHeap {
+    //------------------------------------------------------------------------
+    // PROPERTIES
+    //------------------------------------------------------------------------
+    /** The array storing the heap elements, used starting from index 1. */
+    protected Object[] elements;
+    /** The size of the heap. */
+    protected int size;
+
+    //------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //------------------------------------------------------------------------
+    /** 
+     * Main constructor.
+     * @param capacity the initial capacity
+     */
+    public MinMaxHeap(int capacity) {
+        elements = new Object[capacity+1];
+    }
+
+    /** 
+     * Auxilliary constructor (for a heap of default capacity).
+     */
+    public MinMaxHeap() {
+        this(Heap.DEFAULT_CAPACITY);
+    }
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /**
+     * Returns the size of the heap.
+     * @return an integer
+     */
+    public final int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the heap is empty.
+     * @return a boolean
+     */
+    public final boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Clears the heap.
+     */
+    public final void clear() {
+        for (int i=size; i>0; i--) {
+            elements[i] = null;
+        }
+        size = 0;
+    }
+
+    /**
+     * Ensures that the heap can hold a given number of elements 
+     * without growing.
+     * @param capacity the minimum capacity
+     */
+    public final void ensureCapacity(int capacity) {
+        final int oldCapacity = elements.length-1;
+        if (capacity > oldCapacity) {
+            int newCapacity = (oldCapacity*3)/2 + 1;
+            if (newCapacity < capacity) {
+                newCapacity = capacity;
+            }
+            final Object[] tmp = new Object[newCapacity+1];
+            System.arraycopy(elements, 1, tmp, 1, size);
+            elements = tmp;
+        }
+    }
+
+    /**
+     * Returns the smallest element, without removing it.
+     * @return an object, null if the heap is empty
+     */
+    public final Object peekMin() {
+        return size > 0 ? elements[1] : null;
+    }
+
+    /**
+     * Returns the greatest element, without removing it.
+     * @return an object, null if the heap is empty
+     */
+    public final Object peekMax() {
+        return size > 0 ? elements[maxIndex()] : null;
+    }
+
+    /**
+     * Adds an element.
+     * @param o an object
+     */
+    public final void add(Object o) {
+        if (size+1 == elements.length) {
+            ensureCapacity(size+1);
+        }
+        elements[++size] = o;
+        up(size);
+    }
+
+    /**
+     * Pops the smallest element.
+     * @return an object, null if the heap is empty
+     */
+    public final Object popMin() {
+        return size > 0 ? removeAt(1) : null;
+    }
+
+    /**
+     * Pops the greatest element.
+     * @return an object, null if the heap is empty
+     */
+    public final Object popMax() {
+        return size > 0 ? removeAt(maxIndex()) : null;
+    }
+
+    /**
+     * Adds an element, keeping at most <CODE>k</CODE> elements 
+     * (the smallest ones).
+     * @param o an object
+     * @param k the maximum size of the heap
+     * @return the element which is not kept 
+     * (the previous greatest one, or <CODE>o</CODE> itself), 
+     * null if the heap had less than <CODE>k</CODE> elements
+     */
+    public final Object pushBounded(Object o, int k) {
+        if (size < k) {
+            add(o);
+            return null;
+        } else if (size > 0) {
+            final int m = maxIndex();
+            final Object max = elements[m];
+            if (smaller(o, max)) {
+                removeAt(m);
+                add(o);
+                return max;
+            }
+        }
+        return o;
+    }
+
+    /**
+     * Returns the heap as a string.
+     * @return a string
+     */
+    public String toString() {
+        StringBuffer b = new StringBuffer();
+        for (int i=1; i<=size; i++) {
+            b.append(i + ":" + elements[i] + "\n");
+        }
+        return b.toString();
+    }
+
+    /**
+     * Returns the index of the greatest element (the heap must not be empty).
+     * @return an index
+     */
+    private final int maxIndex() {
+        if (size == 1) {
+            return 1;
+        } else if (size == 2 || !smaller(elements[2], elements[3])) {
+            return 2;
+        } else {
+            return 3;
+        }
+    }
+
+    /**
+     * Removes the element at a given index.
+     * @param i an index
+     * @return the removed element
+     */
+    private final Object removeAt(int i) {
+        final Object o = elements[i];
+        elements[i] = elements[size];
+        elements[size--] = null;
+        if (i <= size) {
+            down(i, isMinLevel(i));
+        }
+        return o;
+    }
+
+    private static final boolean isMinLevel(int i) {
+        return (Arithmetic.bitLength(i) & 1) == 1;
+    }
+
+    /**
+     * Compares two elements for a level.
+     * @param a an object
+     * @param b an object
+     * @param min true for a min level, false for a max level
+     * @return a boolean
+     */
+    private final boolean before(Object a, Object b, boolean min) {
+        return min ? smaller(a, b) : smaller(b, a);
+    }
+
+    private final void swap(int i, int j) {
+        final Object tmp = elements[i];
+        elements[i] = elements[j];
+        elements[j] = tmp;
+    }
+
+    /**
+     * Pushes an element up.
+     * @param i an index
+     */
+    private final void up(int i) {
+        if (i > 1) {
+            boolean min = isMinLevel(i);
+            final int father = i>>1;
+            if (before(elements[father], elements[i], min)) {
+                swap(i, father);
+                i = father;
+                min = !min;
+            }
+            // moves up along the grandfathers
+            int gf;
+            while ((gf = i>>2) > 0 && before(elements[i], elements[gf], min)) {
+                swap(i, gf);
+                i = gf;
+            }
+        }
+    }
+
+    /**
+     * Pushes an element down.
+     * @param i an index
+     * @param min true if the index is at a min level
+     */
+    private final void down(int i, boolean min) {
+        int son;
+        while ((son = i<<1) <= size) {
+            // finds the best among sons and grandsons
+            int best = son;
+            if (son < size && before(elements[son+1], elements[son], min)) {
+                best = son+1;
+            }
+            final int last = (son<<1) + 3 <= size ? (son<<1) + 3 : size;
+            for (int j=son<<1; j<=last; j++) {
+                if (before(elements[j], elements[best], min)) {
+                    best = j;
+                }
+            }
+            if (!before(elements[best], elements[i], min)) {
+                break;
+            }
+            swap(i, best);
+            if (best <= son+1) {
+                // a son
+                break;
+            }
+            // a grandson: checks its father
+            final int father = best>>1;
+            if (before(elements[father], elements[best], min)) {
+                swap(best, father);
+            }
+            i = best;
+        }
+    }
+
+    //------------------------------------------------------------------------
+    // ABSTRACT METHODS
+    //------------------------------------------------------------------------
+    /** 
+     * Compares two elements.
+     * @param i an object
+     * @param j an object
+     * @return a boolean
+     */
+    public abstract boolean smaller(Object i, Object j);
+}
+/*
+ * $Log$
+ */
@@ -0,0 +1,181 @@
+package com.koalog.util.heap;
+
+import java.util.Arrays;
+import java.util.Random;
+import junit.framework.TestCase;
+import org.apache.log4j.Category;
+
+/**
+ * Tests the MinMaxHeap class.
+ * @author Yan Georget
+ */
+public class MinMaxHeapTest extends TestCase {
+    //------------------------------------------------------------------------
+    // CONSTANTS
+    //------------------------------------------------------------------------
+    private static Category cat = Category.getInstance(MinMaxHeapTest.class);
+
+    //------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //------------------------------------------------------------------------
+    /**
+     * Sole constructor.
+     * @param name a name
+     */
+    public MinMaxHeapTest(String name) {
+        super(name);
+    }
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /**
+     * Tests add, popMin and popMax.
+     */
+    public void testMinMaxHeap() {
+        MinMaxHeap heap = new IntegerHeap(2);
+        assertEquals(null, heap.peekMin());
+        assertEquals(null, heap.popMax());
+        int[] values = new int[] {5, 3, 9, 1, 7, 3, 8, 2, 6, 0};
+        for (int i=0; i<values.length; i++) {
+            heap.add(new Integer(values[i]));
+        }
+        assertEquals(10, heap.size());
+        assertEquals(new Integer(0), heap.peekMin());
+        assertEquals(new Integer(9), heap.peekMax());
+        assertEquals(new Integer(9), heap.popMax());
+        assertEquals(new Integer(0), heap.popMin());
+        assertEquals(new Integer(8), heap.popMax());
+        assertEquals(new Integer(7), heap.popMax());
+        assertEquals(new Integer(1), heap.popMin());
+        assertEquals(new Integer(2), heap.popMin());
+        assertEquals(new Integer(6), heap.popMax());
+        assertEquals(new Integer(3), heap.popMin());
+        assertEquals(new Integer(5), heap.popMax());
+        assertEquals(new Integer(3), heap.popMax());
+        assertTrue(heap.isEmpty());
+    }
+
+    /**
+     * Tests random sequences of adds, popMin and popMax against a sort.
+     */
+    public void testRandom() {
+        final int n = 10000;
+        Random r = new Random(0);
+        MinMaxHeap heap = new IntegerHeap();
+        int[] values = new int[n];
+        for (int i=0; i<n; i++) {
+            values[i] = r.nextInt(1000);
+            heap.add(new Integer(values[i]));
+        }
+        Arrays.sort(values);
+        int lo = 0;
+        int hi = n-1;
+        while (!heap.isEmpty()) {
+            if (r.nextBoolean()) {
+                assertEquals(values[lo++], 
+                             ((Integer) heap.popMin()).intValue());
+            } else {
+                assertEquals(values[hi--], 
+                             ((Integer) heap.popMax()).intValue());
+            }
+        }
+        assertTrue(lo > hi);
+    }
+
+    /**
+     * Tests pushBounded.
+     */
+    public void testPushBounded() {
+        final int n = 100000;
+        final int k = 100;
+        Random r = new Random(0);
+        MinMaxHeap heap = new IntegerHeap(k);
+        int[] values = new int[n];
+        for (int i=0; i<n; i++) {
+            values[i] = r.nextInt();
+            Integer o = new Integer(values[i]);
+            Object rejected = heap.pushBounded(o, k);
+            if (i < k) {
+                assertEquals(null, rejected);
+            } else {
+                assertNotNull(rejected);
+            }
+            assertTrue(heap.size() <= k);
+        }
+        Arrays.sort(values);
+        for (int i=0; i<k; i++) {
+            assertEquals(values[i], ((Integer) heap.popMin()).intValue());
+        }
+        assertTrue(heap.isEmpty());
+        assertEquals(new Integer(1), heap.pushBounded(new Integer(1), 0));
+    }
+
+    /**
+     * Compares the retention of the best k elements 
+     * by a bounded MinMaxHeap and by a Heap.
+     */
+    public void testBigMinMaxHeap() {
+        final int n = 1000000;
+        final int k = 1000;
+        Random r = new Random(0);
+        Integer[] elements = new Integer[n];
+        for (int i=0; i<n; i++) {
+            elements[i] = new Integer(r.nextInt());
+        }
+        long time = System.currentTimeMillis();
+        Heap heap = new Heap(n) {
+                public boolean smaller(Object i, Object j) {
+                    return ((Integer) i).intValue() < ((Integer) j).intValue();
+                }
+            };
+        for (int i=0; i<n; i++) {
+            heap.add(elements[i]);
+        }
+        heap.toCollection(k);
+        cat.info("Heap: " + (System.currentTimeMillis() - time) + "ms");
+        time = System.currentTimeMillis();
+        MinMaxHeap mmheap = new IntegerHeap(k);
+        for (int i=0; i<n; i++) {
+            mmheap.pushBounded(elements[i], k);
+        }
+        cat.info("MinMaxHeap: " + (System.currentTimeMillis() - time) + "ms");
+        assertEquals(k, mmheap.size());
+    }
+
+    //------------------------------------------------------------------------
+    // INNER CLASSES
+    //------------------------------------------------------------------------
+    /**
+     * A min-max heap of integers.
+     */
+    static class IntegerHeap extends MinMaxHeap {
+        /**
+         * Main constructor.
+         * @param capacity the initial capacity
+         */
+        public IntegerHeap(int capacity) {
+            super(capacity);
+        }
+
+        /**
+         * Auxilliary constructor.
+         */
+        public IntegerHeap() {
+            super();
+        }
+
+        /**
+         * Compares two integers.
+         * @param i an integer
+         * @param j an integer
+         * @return a boolean
+         */
+        public boolean smaller(Object i, Object j) {
+            return ((Integer) i).intValue() < ((Integer) j).intValue();
+        }
+    }
+}
+/*
+ * $Log$
+ */
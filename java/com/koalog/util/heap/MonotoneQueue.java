@@ -0,0 +1,71 @@
+package com.koalog.util.heap;
+
+/**
+ * An interface describing priority queues of integer ids 
+ * with non negative integer priorities, 
+ * where the priorities are monotone: 
+ * a priority must never be smaller than the last popped one 
+ * (which is the case of Dijkstra algorithm).
+ * @author Yan Georget
+ */
+public interface MonotoneQueue {
+    /**
+     * Returns the size of the queue.
+     * @return an integer
+     */
+    public int size();
+
+    /**
+     * Checks if the queue is empty.
+     * @return a boolean
+     */
+    public boolean isEmpty();
+
+    /**
+     * Clears the queue.
+     */
+    public void clear();
+
+    /**
+     * Checks if an id is in the queue.
+     * @param id an id
+     * @return a boolean
+     */
+    public boolean contains(int id);
+
+    /**
+     * Returns the priority of an id (which must be in the queue).
+     * @param id an id
+     * @return a priority
+     */
+    public int getKey(int id);
+
+    /**
+     * Adds an id (which must not be in the queue).
+     * @param id an id
+     * @param key its priority, not smaller than the last popped one
+     */
+    public void push(int id, int key);
+
+    /**
+     * Decreases the priority of an id (which must be in the queue).
+     * @param id an id
+     * @param key the new priority, not smaller than the last popped one
+     */
+    public void decreaseKey(int id, int key);
+
+    /**
+     * Removes an id (which must be in the queue).
+     * @param id an id
+     */
+    public void remove(int id);
+
+    /**
+     * Pops an id of smallest priority.
+     * @return an id, -1 if the queue is empty
+     */
+    public int popMin();
+}
+/*
+ * $Log$
+ */
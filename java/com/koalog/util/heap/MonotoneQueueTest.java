@@ -0,0 +1,108 @@
+package com.koalog.util.heap;
+
+import java.util.Random;
+import junit.framework.TestCase;
+import org.apache.log4j.Category;
+
+/**
+ * Tests the RadixHeap and BucketQueue classes.
+ * @author Yan Georget
+ */
+public class MonotoneQueueTest extends TestCase {
+    //------------------------------------------------------------------------
+    // CONSTANTS
+    //------------------------------------------------------------------------
+    private static Category cat = 
+        Category.getInstance(MonotoneQueueTest.class);
+
+    //------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //------------------------------------------------------------------------
+    /**
+     * Sole constructor.
+     * @param name a name
+     */
+    public MonotoneQueueTest(String name) {
+        super(name);
+    }
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /**
+     * Tests the RadixHeap class.
+     */
+    public void testRadixHeap() {
+        check(new RadixHeap(5));
+        checkRandom(new RadixHeap(1000), 1000, 100);
+    }
+
+    /**
+     * Tests the BucketQueue class.
+     */
+    public void testBucketQueue() {
+        check(new BucketQueue(5, 10));
+        checkRandom(new BucketQueue(1000, 100), 1000, 100);
+    }
+
+    private void check(MonotoneQueue q) {
+        q.push(0, 5);
+        q.push(1, 4);
+        q.push(2, 4);
+        q.push(3, 3);
+        q.push(4, 10);
+        assertEquals(5, q.size());
+        assertEquals(3, q.popMin());
+        q.decreaseKey(4, 3);
+        assertEquals(4, q.popMin());
+        assertFalse(q.contains(4));
+        q.remove(0);
+        assertFalse(q.contains(0));
+        int a = q.popMin();
+        int b = q.popMin();
+        assertTrue((a == 1 && b == 2) || (a == 2 && b == 1));
+        assertEquals(-1, q.popMin());
+        assertTrue(q.isEmpty());
+        q.push(3, 7);
+        q.clear();
+        assertFalse(q.contains(3));
+        assertTrue(q.isEmpty());
+    }
+
+    /**
+     * Simulates a Dijkstra-like sequence of operations.
+     * @param q a monotone queue
+     * @param n the number of ids
+     * @param maxDelta the maximum increment of a priority
+     */
+    private void checkRandom(MonotoneQueue q, int n, int maxDelta) {
+        Random r = new Random(0);
+        int[] k = new int[n];
+        boolean[] popped = new boolean[n];
+        q.push(0, 0);
+        int last = 0;
+        while (!q.isEmpty()) {
+            int id = q.popMin();
+            popped[id] = true;
+            assertTrue(last <= k[id]);
+            last = k[id];
+            for (int j=0; j<3; j++) {
+                int v = r.nextInt(n);
+                int d = last + r.nextInt(maxDelta+1);
+                if (!popped[v]) {
+                    if (!q.contains(v)) {
+                        k[v] = d;
+                        q.push(v, d);
+                    } else if (d < k[v]) {
+                        k[v] = d;
+                        q.decreaseKey(v, d);
+                    }
+                    assertEquals(k[v], q.getKey(v));
+                }
+            }
+        }
+    }
+}
+/*
+ * $Log$
+ */
@@ -0,0 +1,300 @@
+package com.koalog.util.heap;
+
+/**
+ * A priority queue which can be shared by several threads.
+ *
+ * <P>In relaxed mode, the elements are spread over several heaps 
+ * (the stripes, typically twice as many as threads), 
+ * each protected by its own lock:
+ * <UL>
+ * <LI>an element is added to a random stripe which is not locked,</LI>
+ * <LI>an element is popped from the best of two random stripes 
+ * (comparing their cached tops).</LI>
+ * </UL>
+ * The threads hardly ever wait for each other, 
+ * but the popped element is only one of the smallest elements 
+ * (not always the smallest one).
+ * This is well suited to parallel best-first searches, 
+ * which tolerate some disorder.</P>
+ *
+ * <P>In strict mode, a single heap is used under a single lock: 
+ * the smallest element is always popped.</P>
+ * @author Yan Georget
+ */
+public abstract class MultiQueue {
+    //------------------------------------------------------------------------
+    // STATIC PROPERTIES
+    //------------------------------------------------------------------------
+    /** Used for seeding the random generators of the threads. */
+    private static int seeds = 0;
+    
+    /** The random generator (xorshift) of the current thread. */
+    private static final ThreadLocal random = new ThreadLocal() {
+            protected Object initialValue() {
+                synchronized (MultiQueue.class) {
+                    return new int[] {++seeds * 0x9E3779B9};
+                }
+            }
+        };
+
+    //------------------------------------------------------------------------
+    // PROPERTIES
+    //------------------------------------------------------------------------
+    /** The stripes. */
+    private Stripe[] stripes;
+    /** Indicates if the queue is strict. */
+    private boolean strict;
+
+    //------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //------------------------------------------------------------------------
+    /**
+     * Main constructor.
+     * @param stripes the number of stripes (ignored in strict mode)
+     * @param strict true for a strict queue, false for a relaxed one
+     */
+    public MultiQueue(int stripes, boolean strict) {
+        this.strict = strict;
+        if (strict || stripes < 2) {
+            stripes = 1;
+        }
+        this.stripes = new Stripe[stripes];
+        for (int i=0; i<stripes; i++) {
+            this.stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Auxilliary constructor (for a relaxed queue).
+     * @param threads the number of threads using the queue
+     */
+    public MultiQueue(int threads) {
+        this(2*threads, false);
+    }
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /**
+     * Checks if the queue is strict.
+     * @return a boolean
+     */
+    public final boolean isStrict() {
+        return strict;
+    }
+
+    /**
+     * Returns the number of stripes.
+     * @return an integer
+     */
+    public final int getStripesNb() {
+        return stripes.length;
+    }
+
+    /**
+     * Checks if the queue is empty.
+     * The result is only a snapshot when other threads use the queue.
+     * @return a boolean
+     */
+    public final boolean isEmpty() {
+        for (int i=0; i<stripes.length; i++) {
+            if (stripes[i].top != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the size of the queue.
+     * The result is only a snapshot when other threads use the queue.
+     * @return an integer
+     */
+    public final int size() {
+        int n = 0;
+        for (int i=0; i<stripes.length; i++) {
+            n += stripes[i].count;
+        }
+        return n;
+    }
+
+    /**
+     * Adds an element.
+     * @param o an object
+     */
+    public final void add(Object o) {
+        if (stripes.length == 1) {
+            final Stripe s = stripes[0];
+            synchronized (s) {
+                try {
+                    s.add(o);
+                } finally {
+                    s.update();
+                }
+            }
+        } else {
+            Stripe s;
+            do {
+                s = stripes[nextInt(stripes.length)];
+            } while (!s.tryLock());
+            // the stripe is unlocked even if the comparison fails
+            try {
+                s.add(o);
+            } finally {
+                s.update();
+                s.unlock();
+            }
+        }
+    }
+
+    /**
+     * Pops an element, one of the smallest (the smallest in strict mode).
+     * @return an object, null if the queue is empty
+     */
+    public final Object pop() {
+        if (stripes.length == 1) {
+            final Stripe s = stripes[0];
+            synchronized (s) {
+                try {
+                    return s.pop();
+                } finally {
+                    s.update();
+                }
+            }
+        }
+        for (int attempts=0; attempts<stripes.length; attempts++) {
+            Stripe s = stripes[nextInt(stripes.length)];
+            final Stripe t = stripes[nextInt(stripes.length)];
+            final Object st = s.top;
+            final Object tt = t.top;
+            if (st == null || (tt != null && smaller(tt, st))) {
+                s = t;
+            }
+            if (s.top != null && s.tryLock()) {
+                final Object o;
+                try {
+                    o = s.pop();
+                } finally {
+                    s.update();
+                    s.unlock();
+                }
+                if (o != null) {
+                    return o;
+                }
+            }
+        }
+        // the random choices failed: scans the stripes
+        for (int i=0; i<stripes.length; i++) {
+            final Stripe s = stripes[i];
+            synchronized (s) {
+                while (s.locked) {
+                    s.waiters++;
+                    try {
+                        s.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return null;
+                    } finally {
+                        s.waiters--;
+                    }
+                }
+                final Object o;
+                try {
+                    o = s.pop();
+                } finally {
+                    s.update();
+                }
+                if (o != null) {
+                    return o;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns a random integer of the current thread.
+     * @param n the bound (exclusive)
+     * @return an integer between 0 and n-1
+     */
+    private static int nextInt(int n) {
+        final int[] state = (int[]) random.get();
+        int x = state[0];
+        x ^= x << 13;
+        x ^= x >>> 17;
+        x ^= x << 5;
+        state[0] = x;
+        return (x >>> 1) % n;
+    }
+
+    //------------------------------------------------------------------------
+    // ABSTRACT METHODS
+    //------------------------------------------------------------------------
+    /** 
+     * Compares two elements.
+     * @param i an object
+     * @param j an object
+     * @return a boolean
+     */
+    public abstract boolean smaller(Object i, Object j);
+
+    //------------------------------------------------------------------------
+    // INNER CLASSES
+    //------------------------------------------------------------------------
+    /**
+     * A stripe: a heap with a lock and a cached top.
+     */
+    private class Stripe extends Heap {
+        /** The top of the heap, readable without locking. */
+        volatile Object top;
+        /** The size of the heap, readable without locking. */
+        volatile int count;
+        /** Indicates if the stripe is locked. */
+        boolean locked;
+        /** The number of threads waiting for the stripe to be unlocked. */
+        int waiters;
+
+        /**
+         * Tries to lock the stripe.
+         * @return true if the stripe was not locked
+         */
+        synchronized boolean tryLock() {
+            if (locked) {
+                return false;
+            }
+            locked = true;
+            return true;
+        }
+
+        /**
+         * Unlocks the stripe.
+         */
+        synchronized void unlock() {
+            locked = false;
+            if (waiters > 0) {
+                notifyAll();
+            }
+        }
+
+        /**
+         * Updates the cached top and size (the stripe must be locked).
+         */
+        void update() {
+            top = size > 0 ? elements[1] : null;
+            count = size;
+        }
+
+        /** 
+         * Compares two elements.
+         * @param i an object
+         * @param j an object
+         * @return a boolean
+         */
+        public boolean smaller(Object i, Object j) {
+            return MultiQueue.this.smaller(i, j);
+        }
+    }
+}
+/*
+ * $Log$
+ */
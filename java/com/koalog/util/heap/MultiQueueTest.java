@@ -0,0 +1,239 @@
+package com.koalog.util.heap;
+
+import java.util.Random;
+import junit.framework.TestCase;
+import org.apache.log4j.Category;
+
+/**
+ * Tests the MultiQueue class.
+ * @author Yan Georget
+ */
+public class MultiQueueTest extends TestCase {
+    //------------------------------------------------------------------------
+    // CONSTANTS
+    //------------------------------------------------------------------------
+    private static Category cat = Category.getInstance(MultiQueueTest.class);
+
+    //------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //------------------------------------------------------------------------
+    /**
+     * Sole constructor.
+     * @param name a name
+     */
+    public MultiQueueTest(String name) {
+        super(name);
+    }
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /**
+     * Tests a strict queue.
+     */
+    public void testStrict() {
+        MultiQueue queue = new IntegerQueue(8, true);
+        assertEquals(1, queue.getStripesNb());
+        Random r = new Random(0);
+        for (int i=0; i<1000; i++) {
+            queue.add(new Integer(r.nextInt(100)));
+        }
+        assertEquals(1000, queue.size());
+        int last = Integer.MIN_VALUE;
+        while (!queue.isEmpty()) {
+            int i = ((Integer) queue.pop()).intValue();
+            assertTrue(last <= i);
+            last = i;
+        }
+        assertEquals(null, queue.pop());
+    }
+
+    /**
+     * Tests a relaxed queue, used by a single thread.
+     */
+    public void testRelaxed() {
+        final int n = 1000;
+        MultiQueue queue = new IntegerQueue(4);
+        assertEquals(8, queue.getStripesNb());
+        for (int i=0; i<n; i++) {
+            queue.add(new Integer(i));
+        }
+        assertEquals(n, queue.size());
+        boolean[] popped = new boolean[n];
+        for (int i=0; i<n; i++) {
+            int j = ((Integer) queue.pop()).intValue();
+            assertFalse(popped[j]);
+            popped[j] = true;
+        }
+        assertTrue(queue.isEmpty());
+        assertEquals(null, queue.pop());
+    }
+
+    /**
+     * Tests a relaxed queue whose comparison fails once:
+     * the stripe must not remain locked.
+     */
+    public void testFailure() throws InterruptedException {
+        final boolean[] armed = new boolean[1];
+        final MultiQueue queue = new IntegerQueue(2) {
+                public boolean smaller(Object i, Object j) {
+                    if (armed[0]) {
+                        armed[0] = false;
+                        throw new ClassCastException();
+                    }
+                    return super.smaller(i, j);
+                }
+            };
+        for (int i=0; i<100; i++) {
+            queue.add(new Integer(i));
+        }
+        armed[0] = true;
+        try {
+            while (armed[0]) {
+                queue.add(new Integer(100));
+            }
+            fail();
+        } catch (ClassCastException e) {
+        }
+        final int[] popped = new int[1];
+        Thread t = new Thread() {
+                public void run() {
+                    while (queue.pop() != null) {
+                        popped[0]++;
+                    }
+                }
+            };
+        t.start();
+        t.join(10000);
+        assertFalse(t.isAlive());
+        assertTrue(popped[0] >= 100);
+        assertTrue(queue.isEmpty());
+    }
+
+    /**
+     * Tests a relaxed queue used by producers and consumers: 
+     * each element is popped exactly once.
+     */
+    public void testConcurrent() throws InterruptedException {
+        final int threads = 4;
+        final int n = 100000;
+        final MultiQueue queue = new IntegerQueue(threads);
+        final int[] popped = new int[threads*n];
+        Thread[] t = new Thread[2*threads];
+        for (int i=0; i<threads; i++) {
+            final int first = i*n;
+            t[i] = new Thread() {
+                    public void run() {
+                        for (int j=first; j<first+n; j++) {
+                            queue.add(new Integer(j));
+                        }
+                    }
+                };
+            t[threads+i] = new Thread() {
+                    public void run() {
+                        int count = 0;
+                        while (count < n) {
+                            Integer j = (Integer) queue.pop();
+                            if (j != null) {
+                                synchronized (popped) {
+                                    popped[j.intValue()]++;
+                                }
+                                count++;
+                            }
+                        }
+                    }
+                };
+        }
+        for (int i=0; i<t.length; i++) {
+            t[i].start();
+        }
+        for (int i=0; i<t.length; i++) {
+            t[i].join();
+        }
+        for (int i=0; i<popped.length; i++) {
+            assertEquals(1, popped[i]);
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    /**
+     * Measures the throughput of strict and relaxed queues 
+     * for various numbers of threads.
+     */
+    public void testThroughput() throws InterruptedException {
+        final int ops = 400000;
+        for (int threads=1; threads<=8; threads*=2) {
+            cat.info(threads + " threads: strict " 
+                     + throughput(new IntegerQueue(1, true), threads, ops)
+                     + " ops/ms, relaxed " 
+                     + throughput(new IntegerQueue(threads), threads, ops)
+                     + " ops/ms");
+        }
+    }
+
+    private static long throughput(final MultiQueue queue, 
+                                   int threads, 
+                                   int ops) 
+        throws InterruptedException {
+        final int n = ops/threads/2;
+        Thread[] t = new Thread[threads];
+        for (int i=0; i<threads; i++) {
+            final Random r = new Random(i);
+            t[i] = new Thread() {
+                    public void run() {
+                        for (int j=0; j<n; j++) {
+                            queue.add(new Integer(r.nextInt()));
+                            queue.add(new Integer(r.nextInt()));
+                            queue.pop();
+                        }
+                    }
+                };
+        }
+        final long time = System.currentTimeMillis();
+        for (int i=0; i<threads; i++) {
+            t[i].start();
+        }
+        for (int i=0; i<threads; i++) {
+            t[i].join();
+        }
+        return 3L*n*threads / (System.currentTimeMillis() - time + 1);
+    }
+
+    //------------------------------------------------------------------------
+    // INNER CLASSES
+    //------------------------------------------------------------------------
+    /**
+     * A queue of integers.
+     */
+    static class IntegerQueue extends MultiQueue {
+        /**
+         * Main constructor.
+         * @param stripes the number of stripes
+         * @param strict true for a strict queue
+         */
+        public IntegerQueue(int stripes, boolean strict) {
+            super(stripes, strict);
+        }
+
+        /**
+         * Auxilliary constructor (for a relaxed queue).
+         * @param threads the number of threads
+         */
+        public IntegerQueue(int threads) {
+            super(threads);
+        }
+
+        /**
+         * Compares two integers.
+         * @param i an integer
+         * @param j an integer
+         * @return a boolean
+         */
+        public boolean smaller(Object i, Object j) {
+            return ((Integer) i).intValue() < ((Integer) j).intValue();
+        }
+    }
+}
+/*
+ * $Log$
+ */
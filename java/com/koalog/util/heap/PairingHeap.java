@@ -0,0 +1,279 @@
+package com.koalog.util.heap;
+
+/**
+ * A pairing heap.
+ *
+ * <P>Contrary to <CODE>Heap</CODE>, this heap is made of nodes 
+ * (handles) linked together, which makes insertions, 
+ * decrease-keys and melds constant time operations, 
+ * while deletions are in amortized logarithmic time.
+ * This suits algorithms performing many more decrease-keys than pops
+ * (such as Dijkstra algorithm on dense graphs).</P>
+ * @author Yan Georget
+ */
+public abstract class PairingHeap {
+    //------------------------------------------------------------------------
+    // PROPERTIES
+    //------------------------------------------------------------------------
+    /** The root of the heap. */
+    private Handle root;
+    /** The size of the heap. */
+    private int size;
+
+    //------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //------------------------------------------------------------------------
+    /**
+     * Sole constructor.
+     */
+    public PairingHeap() {
+    }
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /**
+     * Returns the size of the heap.
+     * @return an integer
+     */
+    public final int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the heap is empty.
+     * @return a boolean
+     */
+    public final boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Clears the heap.
+     *
+     * <P>Note that the handles of the elements are not invalidated.</P>
+     */
+    public final void clear() {
+        root = null;
+        size = 0;
+    }
+
+    /**
+     * Returns the smallest element, without removing it.
+     * @return an object, null if the heap is empty
+     */
+    public final Object peek() {
+        return root == null ? null : root.element;
+    }
+
+    /**
+     * Inserts an element.
+     * @param o an object
+     * @return the handle of the element
+     */
+    public final Handle insert(Object o) {
+        final Handle h = new Handle(o);
+        root = root == null ? h : link(root, h);
+        size++;
+        return h;
+    }
+
+    /**
+     * Deletes the smallest element.
+     * @return an object, null if the heap is empty
+     */
+    public final Object deleteMin() {
+        if (root == null) {
+            return null;
+        }
+        final Handle min = root;
+        root = combine(min.child);
+        min.child = null;
+        min.inHeap = false;
+        size--;
+        return min.element;
+    }
+
+    /**
+     * Informs the heap that an element has decreased 
+     * (ie has become smaller).
+     * @param h the handle of the element
+     */
+    public final void decreaseKey(Handle h) {
+        if (h != root) {
+            cut(h);
+            root = link(root, h);
+        }
+    }
+
+    /**
+     * Deletes an element.
+     * @param h the handle of the element
+     */
+    public final void delete(Handle h) {
+        if (h == root) {
+            deleteMin();
+        } else {
+            cut(h);
+            final Handle sub = combine(h.child);
+            h.child = null;
+            h.inHeap = false;
+            if (sub != null) {
+                root = link(root, sub);
+            }
+            size--;
+        }
+    }
+
+    /**
+     * Melds a heap into this one, in constant time.
+     *
+     * <P>The other heap is emptied (but its handles remain valid 
+     * for this heap). 
+     * Both heaps must order their elements the same way.
+     * Melding a heap into itself does nothing.</P>
+     * @param heap a pairing heap
+     */
+    public final void meld(PairingHeap heap) {
+        if (heap != this && heap.root != null) {
+            root = root == null ? heap.root : link(root, heap.root);
+            size += heap.size;
+            heap.clear();
+        }
+    }
+
+    /**
+     * Links two roots.
+     * @param a a root
+     * @param b a root
+     * @return the new root
+     */
+    private final Handle link(Handle a, Handle b) {
+        if (smaller(b.element, a.element)) {
+            final Handle tmp = a;
+            a = b;
+            b = tmp;
+        }
+        final Handle c = a.child;
+        b.next = c;
+        if (c != null) {
+            c.prev = b;
+        }
+        b.prev = a;
+        a.child = b;
+        return a;
+    }
+
+    /**
+     * Cuts a (non root) node from its parent and siblings.
+     * @param h a node
+     */
+    private final void cut(Handle h) {
+        final Handle p = h.prev;
+        final Handle n = h.next;
+        if (p.child == h) {
+            p.child = n;
+        } else {
+            p.next = n;
+        }
+        if (n != null) {
+            n.prev = p;
+        }
+        h.prev = h.next = null;
+    }
+
+    /**
+     * Combines a list of siblings into a tree (two pass pairing).
+     * @param first the first sibling
+     * @return the root of the tree
+     */
+    private final Handle combine(Handle first) {
+        if (first == null) {
+            return null;
+        }
+        first.prev = null;
+        if (first.next == null) {
+            return first;
+        }
+        // first pass: links pairs from left to right, 
+        // the results are stacked (using the next pointers)
+        Handle pairs = null;
+        Handle a = first;
+        while (a != null) {
+            final Handle b = a.next;
+            if (b == null) {
+                a.prev = null;
+                a.next = pairs;
+                pairs = a;
+                break;
+            }
+            final Handle rest = b.next;
+            a.prev = a.next = b.prev = b.next = null;
+            final Handle l = link(a, b);
+            l.next = pairs;
+            pairs = l;
+            a = rest;
+        }
+        // second pass: links the results from right to left
+        Handle result = pairs;
+        Handle r = pairs.next;
+        result.next = null;
+        while (r != null) {
+            final Handle n = r.next;
+            r.next = null;
+            result = link(result, r);
+            r = n;
+        }
+        return result;
+    }
+
+    //------------------------------------------------------------------------
+    // ABSTRACT METHODS
+    //------------------------------------------------------------------------
+    /** 
+     * Compares two elements.
+     * @param i an object
+     * @param j an object
+     * @return a boolean
+     */
+    public abstract boolean smaller(Object i, Object j);
+
+    //------------------------------------------------------------------------
+    // INNER CLASSES
+    //------------------------------------------------------------------------
+    /**
+     * The handle of an element, ie the node storing it.
+     */
+    public static final class Handle {
+        Object element;
+        Handle child;
+        Handle next;
+        /** The previous sibling, or the parent for a first child. */
+        Handle prev;
+        boolean inHeap;
+
+        Handle(Object element) {
+            this.element = element;
+            inHeap = true;
+        }
+
+        /**
+         * Returns the element.
+         * @return an object
+         */
+        public Object getElement() {
+            return element;
+        }
+
+        /**
+         * Checks if the element is still in a heap.
+         * @return a boolean
+         */
+        public boolean isInHeap() {
+            return inHeap;
+        }
+    }
+}
+/*
+ * $Log$
+ */
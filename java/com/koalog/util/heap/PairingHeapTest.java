@@ -0,0 +1,176 @@
+package com.koalog.util.heap;
+
+import java.util.Random;
+import junit.framework.TestCase;
+import org.apache.log4j.Category;
+
+/**
+ * Tests the PairingHeap class.
+ * @author Yan Georget
+ */
+public class PairingHeapTest extends TestCase {
+    //------------------------------------------------------------------------
+    // CONSTANTS
+    //------------------------------------------------------------------------
+    private static Category cat = Category.getInstance(PairingHeapTest.class);
+
+    //------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //------------------------------------------------------------------------
+    /**
+     * Sole constructor.
+     * @param name a name
+     */
+    public PairingHeapTest(String name) {
+        super(name);
+    }
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /**
+     * Tests insert, decreaseKey, delete, deleteMin and meld.
+     */
+    public void testPairingHeap() {
+        final int n = 1000;
+        final double[] k = new double[n];
+        Random r = new Random(0);
+        PairingHeap heap = new KeyHeap(k);
+        PairingHeap other = new KeyHeap(k);
+        PairingHeap.Handle[] h = new PairingHeap.Handle[n];
+        for (int i=0; i<n; i++) {
+            k[i] = r.nextDouble();
+            h[i] = (i%2 == 0 ? heap : other).insert(new Integer(i));
+        }
+        heap.meld(other);
+        assertTrue(other.isEmpty());
+        assertEquals(n, heap.size());
+        for (int i=0; i<n; i+=3) {
+            k[i] /= 2;
+            heap.decreaseKey(h[i]);
+        }
+        for (int i=1; i<n; i+=7) {
+            heap.delete(h[i]);
+            assertFalse(h[i].isInHeap());
+        }
+        double last = Double.NEGATIVE_INFINITY;
+        int count = 0;
+        while (!heap.isEmpty()) {
+            int i = ((Integer) heap.deleteMin()).intValue();
+            assertTrue(i%7 != 1);
+            assertTrue(last <= k[i]);
+            last = k[i];
+            count++;
+        }
+        assertEquals(n - (n+5)/7, count);
+        assertEquals(null, heap.deleteMin());
+    }
+
+    /**
+     * Tests that melding a heap into itself does nothing.
+     */
+    public void testSelfMeld() {
+        final int n = 100;
+        final double[] k = new double[n];
+        PairingHeap heap = new KeyHeap(k);
+        for (int i=0; i<n; i++) {
+            k[i] = n-i;
+            heap.insert(new Integer(i));
+        }
+        heap.meld(heap);
+        assertEquals(n, heap.size());
+        for (int i=n; --i>=0;) {
+            assertEquals(new Integer(i), heap.deleteMin());
+        }
+        assertTrue(heap.isEmpty());
+    }
+
+    /**
+     * Compares the PairingHeap class with the ReverseHeap class,
+     * on a sequence of pushes, decrease-keys and pops.
+     */
+    public void testBigPairingHeap() {
+        final int n = 1000000;
+        final double[] k = new double[n];
+        Random r = new Random(0);
+        for (int i=0; i<n; i++) {
+            k[i] = r.nextDouble();
+        }
+        Integer[] elements = new Integer[n];
+        for (int i=0; i<n; i++) {
+            elements[i] = new Integer(i);
+        }
+        long time = System.currentTimeMillis();
+        PairingHeap heap = new KeyHeap(k);
+        PairingHeap.Handle[] h = new PairingHeap.Handle[n];
+        for (int i=0; i<n; i++) {
+            h[i] = heap.insert(elements[i]);
+        }
+        for (int j=0; j<4; j++) {
+            for (int i=j; i<n; i+=4) {
+                k[i] /= 2;
+                heap.decreaseKey(h[i]);
+            }
+        }
+        while (!heap.isEmpty()) {
+            heap.deleteMin();
+        }
+        cat.info("PairingHeap: " + (System.currentTimeMillis() - time) + "ms");
+        for (int i=0; i<n; i++) {
+            k[i] = r.nextDouble();
+        }
+        time = System.currentTimeMillis();
+        ReverseHeap rheap = new ReverseHeap(n) {
+                public boolean smaller(Object i, Object j) {
+                    return k[((Indexed) i).getIndex()]
+                        < k[((Indexed) j).getIndex()];
+                }
+            };
+        Indexed[] nodes = new Indexed[n];
+        for (int i=0; i<n; i++) {
+            final int index = i;
+            nodes[i] = new Indexed() {
+                    public int getIndex() {
+                        return index;
+                    }
+                };
+            rheap.add(nodes[i]);
+        }
+        for (int j=0; j<4; j++) {
+            for (int i=j; i<n; i+=4) {
+                k[i] /= 2;
+                rheap.up(nodes[i]);
+            }
+        }
+        while (!rheap.isEmpty()) {
+            rheap.pop();
+        }
+        cat.info("ReverseHeap: " + (System.currentTimeMillis() - time) + "ms");
+    }
+
+    //------------------------------------------------------------------------
+    // INNER CLASSES
+    //------------------------------------------------------------------------
+    /**
+     * A pairing heap of integers ordered by keys.
+     */
+    static class KeyHeap extends PairingHeap {
+        private double[] k;
+
+        /**
+         * Sole constructor.
+         * @param k the keys
+         */
+        KeyHeap(double[] k) {
+            this.k = k;
+        }
+
+        /** @see com.koalog.util.heap.PairingHeap */
+        public boolean smaller(Object i, Object j) {
+            return k[((Integer) i).intValue()] < k[((Integer) j).intValue()];
+        }
+    }
+}
+/*
+ * $Log$
+ */
@@ -0,0 +1,195 @@
+package com.koalog.util.heap;
+
+import com.koalog.util.Arithmetic;
+
+/**
+ * A radix heap, for monotone non negative integer priorities.
+ *
+ * <P>An id of priority <CODE>key</CODE> is stored in the bucket 
+ * given by the bit length of <CODE>key ^ last</CODE>, 
+ * where <CODE>last</CODE> is the last popped priority. 
+ * When the bucket 0 is empty, 
+ * the first non empty bucket is redistributed into smaller buckets,
+ * so that each id moves at most 32 times:
+ * pushes and decrease-keys are in constant time, 
+ * pops are in amortized logarithmic time of the priority range.</P>
+ *
+ * <P>Buckets are doubly linked lists stored in arrays indexed by ids 
+ * (which range from 0 to capacity-1): 
+ * no object is allocated after construction.</P>
+ * @author Yan Georget
+ */
+public class RadixHeap implements MonotoneQueue {
+    //------------------------------------------------------------------------
+    // CONSTANTS
+    //------------------------------------------------------------------------
+    private static final int BUCKETS = 32;
+    private static final int NONE = -1;
+
+    //------------------------------------------------------------------------
+    // PROPERTIES
+    //------------------------------------------------------------------------
+    /** The first id of each bucket. */
+    private int[] head;
+    /** The next id in the bucket of an id. */
+    private int[] next;
+    /** The previous id in the bucket of an id. */
+    private int[] prev;
+    /** The bucket of an id, -1 if the id is not in the heap. */
+    private int[] bucket;
+    /** The priority of an id. */
+    private int[] key;
+    /** The last popped priority. */
+    private int last;
+    /** The size of the heap. */
+    private int size;
+
+    //------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //------------------------------------------------------------------------
+    /**
+     * Sole constructor.
+     * @param capacity the heap capacity (the ids range from 0 to capacity-1)
+     */
+    public RadixHeap(int capacity) {
+        head = new int[BUCKETS];
+        next = new int[capacity];
+        prev = new int[capacity];
+        bucket = new int[capacity];
+        key = new int[capacity];
+        for (int b=BUCKETS; --b>=0;) {
+            head[b] = NONE;
+        }
+        for (int i=capacity; --i>=0;) {
+            bucket[i] = NONE;
+        }
+    }
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /** @see com.koalog.util.heap.MonotoneQueue */
+    public final int size() {
+        return size;
+    }
+
+    /** @see com.koalog.util.heap.MonotoneQueue */
+    public final boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** 
+     * Clears the heap (the last popped priority is reset to 0).
+     */
+    public final void clear() {
+        for (int b=BUCKETS; --b>=0;) {
+            for (int i=head[b]; i!=NONE; i=next[i]) {
+                bucket[i] = NONE;
+            }
+            head[b] = NONE;
+        }
+        size = 0;
+        last = 0;
+    }
+
+    /** @see com.koalog.util.heap.MonotoneQueue */
+    public final boolean contains(int id) {
+        return bucket[id] != NONE;
+    }
+
+    /** @see com.koalog.util.heap.MonotoneQueue */
+    public final int getKey(int id) {
+        return key[id];
+    }
+
+    /**
+     * Returns the last popped priority.
+     * @return a priority
+     */
+    public final int getLastKey() {
+        return last;
+    }
+
+    /** @see com.koalog.util.heap.MonotoneQueue */
+    public final void push(int id, int k) {
+        key[id] = k;
+        link(id, Arithmetic.bitLength(k ^ last));
+        size++;
+    }
+
+    /** @see com.koalog.util.heap.MonotoneQueue */
+    public final void decreaseKey(int id, int k) {
+        key[id] = k;
+        final int b = Arithmetic.bitLength(k ^ last);
+        if (b != bucket[id]) {
+            unlink(id);
+            link(id, b);
+        }
+    }
+
+    /** @see com.koalog.util.heap.MonotoneQueue */
+    public final void remove(int id) {
+        unlink(id);
+        bucket[id] = NONE;
+        size--;
+    }
+
+    /** @see com.koalog.util.heap.MonotoneQueue */
+    public final int popMin() {
+        if (size == 0) {
+            return NONE;
+        }
+        if (head[0] == NONE) {
+            int b = 1;
+            while (head[b] == NONE) {
+                b++;
+            }
+            // the new last priority is the minimum of the bucket
+            int min = Integer.MAX_VALUE;
+            for (int i=head[b]; i!=NONE; i=next[i]) {
+                if (key[i] < min) {
+                    min = key[i];
+                }
+            }
+            last = min;
+            // redistributes the bucket (into smaller buckets)
+            int i = head[b];
+            head[b] = NONE;
+            while (i != NONE) {
+                final int n = next[i];
+                link(i, Arithmetic.bitLength(key[i] ^ last));
+                i = n;
+            }
+        }
+        final int id = head[0];
+        remove(id);
+        return id;
+    }
+
+    private final void link(int id, int b) {
+        final int h = head[b];
+        next[id] = h;
+        prev[id] = NONE;
+        if (h != NONE) {
+            prev[h] = id;
+        }
+        head[b] = id;
+        bucket[id] = b;
+    }
+
+    private final void unlink(int id) {
+        final int n = next[id];
+        final int p = prev[id];
+        if (p != NONE) {
+            next[p] = n;
+        } else {
+            head[bucket[id]] = n;
+        }
+        if (n != NONE) {
+            prev[n] = p;
+        }
+    }
+}
+/*
+ * $Log$
+ */
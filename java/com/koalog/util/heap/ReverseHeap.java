@@ -19,7 +19,7 @@ public abstract class ReverseHeap extends Heap {
     // CONSTRUCTORS
     //------------------------------------------------------------------------
     /**
-     * Sole constructor.
+     * Main constructor.
      * @param cap the heap capacity
      */
     public ReverseHeap(int cap) {
@@ -27,9 +27,76 @@ public abstract class ReverseHeap extends Heap {
         index = new int[cap];
     }
 
+    /**
+     * Auxilliary constructor (for a heap of default capacity).
+     */
+    public ReverseHeap() {
+        this(DEFAULT_CAPACITY);
+    }
+
     //------------------------------------------------------------------------
     // METHODS
     //------------------------------------------------------------------------
+    /**
+     * Reallocates the storage of the heap 
+     * (the index only grows, since it is indexed by ids).
+     * @param capacity the new capacity
+     */
+    protected void setCapacity(int capacity) {
+        super.setCapacity(capacity);
+        ensureIndex(capacity);
+    }
+
+    /**
+     * Ensures that the index can hold a given number of ids.
+     * @param n a number of ids
+     */
+    private final void ensureIndex(int n) {
+        if (n > index.length) {
+            final int newLength = (index.length*3)/2 + 1;
+            final int[] tmp = new int[newLength < n ? n : newLength];
+            System.arraycopy(index, 0, tmp, 0, index.length);
+            index = tmp;
+        }
+    }
+
+    /**
+     * Puts an element at a given position, and updates the index.
+     * @param i an index
+     * @param o an object (implementing <CODE>Indexed</CODE>)
+     */
+    protected final void set(int i, Object o) {
+        elements[i] = o;
+        final int id = ((Indexed) o).getIndex();
+        if (id >= index.length) {
+            ensureIndex(id+1);
+        }
+        index[id] = i;
+    }
+
+    /**
+     * Resets the index of an element leaving the heap, 
+     * so that its id can be reused.
+     * @param o an object (implementing <CODE>Indexed</CODE>)
+     */
+    protected final void removed(Object o) {
+        index[((Indexed) o).getIndex()] = 0;
+    }
+
+    /**
+     * Clears the heap and builds it from an array of elements, 
+     * bottom-up (Floyd algorithm), in linear time.
+     * @param a an array of elements
+     */
+    public final void buildFrom(Indexed[] a) {
+        clear();
+        ensureCapacity(a.length);
+        for (int i=0; i<a.length; i++) {
+            set(++size, a[i]);
+        }
+        heapify();
+    }
+
     /**
      * Swaps two elements.
      * @param i an index 
@@ -47,7 +114,7 @@ public abstract class ReverseHeap extends Heap {
     /**
      * Returns the index/position of an object.
      * @param o an object
-     * @return an integer
+     * @return an integer, 0 if the object is not in the heap
      */
     public final int index(Indexed o) {
         return index[o.getIndex()];
@@ -58,9 +125,7 @@ public abstract class ReverseHeap extends Heap {
      * @param o an object
      */
     public final void add(Indexed o) {
-        elements[++size] = o; // TODO: check capacity
-        index[o.getIndex()] = size;
-        up(size);
+        add((Object) o);
     }
 
     /**
@@ -70,6 +135,47 @@ public abstract class ReverseHeap extends Heap {
     public final void up(Indexed o) {
         up(index(o));
     }
+
+    /**
+     * Pushes an element down.
+     * @param o the element
+     */
+    public final void down(Indexed o) {
+        down(index(o));
+    }
+
+    /**
+     * Pushes an element up or down, after its position in the order 
+     * has changed in either direction.
+     * @param o the element
+     */
+    public final void update(Indexed o) {
+        update(index(o));
+    }
+
+    /**
+     * Checks if an element is in the heap, in constant time.
+     * @param o an object
+     * @return a boolean
+     */
+    public final boolean contains(Indexed o) {
+        final int id = o.getIndex();
+        return id < index.length && index[id] != 0;
+    }
+
+    /**
+     * Removes an element, in logarithmic time.
+     * @param o an object
+     * @return true if the element was in the heap
+     */
+    public final boolean remove(Indexed o) {
+        if (contains(o)) {
+            remove(index(o));
+            return true;
+        } else {
+            return false;
+        }
+    }
 }
 /*
  * $Log$
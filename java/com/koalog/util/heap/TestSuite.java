@@ -21,6 +21,14 @@ public class TestSuite extends junit.framework.TestSuite {
     public TestSuite(String name) {
         super(name);
         addTestSuite(HeapTest.class);
+        addTestSuite(IntIndexedHeapTest.class);
+        addTestSuite(MonotoneQueueTest.class);
+        addTestSuite(PairingHeapTest.class);
+        addTestSuite(MinMaxHeapTest.class);
+        addTestSuite(TopKTest.class);
+        addTestSuite(MultiQueueTest.class);
+        addTestSuite(ExternalHeapTest.class);
+        addTestSuite(LeftistHeapTest.class);
     }
 
     /**
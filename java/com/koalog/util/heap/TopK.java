@@ -0,0 +1,238 @@
+package com.koalog.util.heap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Selects the best <CODE>k</CODE> elements of a stream.
+ *
+ * <P>The selected elements are kept in a bounded <CODE>MinMaxHeap</CODE>,
+ * so that the memory used is <CODE>O(k)</CODE> 
+ * whatever the number of elements added,
+ * and they can be retrieved (see <CODE>toList</CODE>) 
+ * without destroying the selection.</P>
+ *
+ * <P>Large lists can be processed by several threads (see 
+ * <CODE>addAll(List, int)</CODE>): each thread selects the best elements 
+ * of a slice of the list, then the selections are merged.</P>
+ * @author Yan Georget
+ */
+public abstract class TopK {
+    //------------------------------------------------------------------------
+    // PROPERTIES
+    //------------------------------------------------------------------------
+    /** The number of elements to be selected. */
+    private int k;
+    /** The selected elements. */
+    private MinMaxHeap heap;
+
+    //------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //------------------------------------------------------------------------
+    /**
+     * Sole constructor.
+     * @param k the number of elements to be selected
+     */
+    public TopK(int k) {
+        this.k = k;
+        heap = createHeap();
+    }
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /**
+     * Returns the number of elements to be selected.
+     * @return an integer
+     */
+    public final int getK() {
+        return k;
+    }
+
+    /**
+     * Returns the number of elements currently selected.
+     * @return an integer, at most <CODE>k</CODE>
+     */
+    public final int size() {
+        return heap.size();
+    }
+
+    /**
+     * Clears the selection.
+     */
+    public final void clear() {
+        heap.clear();
+    }
+
+    /**
+     * Returns the worst selected element 
+     * (an element which is not better cannot be selected anymore).
+     * @return an object, null if less than <CODE>k</CODE> elements 
+     * are selected
+     */
+    public final Object getThreshold() {
+        return heap.size() == k ? heap.peekMax() : null;
+    }
+
+    /**
+     * Adds an element.
+     * @param o an object
+     * @return true if the element is selected (for the time being)
+     */
+    public final boolean add(Object o) {
+        return heap.pushBounded(o, k) != o;
+    }
+
+    /**
+     * Adds the elements of an iterator.
+     * @param it an iterator
+     */
+    public final void addAll(Iterator it) {
+        while (it.hasNext()) {
+            heap.pushBounded(it.next(), k);
+        }
+    }
+
+    /**
+     * Adds the elements of a list, using several threads.
+     *
+     * <P>When a thread fails, the selection is not modified 
+     * and its failure is thrown 
+     * (wrapped in a <CODE>RuntimeException</CODE> if it is checked).</P>
+     * @param list a list (should support random access)
+     * @param threads the number of threads
+     */
+    public final void addAll(List list, int threads) {
+        final int n = list.size();
+        if (threads > n) {
+            threads = n;
+        }
+        if (threads <= 1) {
+            addAll(list.iterator());
+            return;
+        }
+        final Worker[] workers = new Worker[threads];
+        for (int i=0; i<threads; i++) {
+            workers[i] = new Worker(list.subList((int) ((long) n*i/threads),
+                                                 (int) ((long) n*(i+1)
+                                                        /threads)));
+            workers[i].start();
+        }
+        Throwable failure = null;
+        for (int i=0; i<threads; i++) {
+            try {
+                workers[i].join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+            if (failure == null) {
+                failure = workers[i].failure;
+            }
+        }
+        // nothing is merged unless all the workers succeeded
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        } else if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure != null) {
+            throw new RuntimeException(failure);
+        }
+        for (int i=0; i<threads; i++) {
+            // merges the selection of the worker
+            final MinMaxHeap h = workers[i].heap;
+            for (int j=h.size(); j>0; j--) {
+                heap.pushBounded(h.elements[j], k);
+            }
+        }
+    }
+
+    /**
+     * Returns the selected elements, the best first.
+     * The selection is not modified.
+     * @return a list
+     */
+    public final List toList() {
+        final Object[] a = new Object[heap.size()];
+        System.arraycopy(heap.elements, 1, a, 0, a.length);
+        Arrays.sort(a, new Comparator() {
+                public int compare(Object o1, Object o2) {
+                    if (smaller(o1, o2)) {
+                        return -1;
+                    } else if (smaller(o2, o1)) {
+                        return 1;
+                    } else {
+                        return 0;
+                    }
+                }
+            });
+        return new ArrayList(Arrays.asList(a));
+    }
+
+    /**
+     * Creates a bounded heap ordered by the <CODE>smaller</CODE> method.
+     * @return a min-max heap
+     */
+    private final MinMaxHeap createHeap() {
+        return new MinMaxHeap(k) {
+                public boolean smaller(Object i, Object j) {
+                    return TopK.this.smaller(i, j);
+                }
+            };
+    }
+
+    //------------------------------------------------------------------------
+    // ABSTRACT METHODS
+    //------------------------------------------------------------------------
+    /** 
+     * Compares two elements: the smaller elements are the best ones.
+     * @param i an object
+     * @param j an object
+     * @return a boolean
+     */
+    public abstract boolean smaller(Object i, Object j);
+
+    //------------------------------------------------------------------------
+    // INNER CLASSES
+    //------------------------------------------------------------------------
+    /**
+     * A thread selecting the best elements of a slice of a list.
+     */
+    private class Worker extends Thread {
+        /** The slice. */
+        private List slice;
+        /** The selection of the worker. */
+        MinMaxHeap heap;
+        /** The exception or error thrown by the worker, if any. */
+        Throwable failure;
+
+        /**
+         * Sole constructor.
+         * @param slice a list
+         */
+        Worker(List slice) {
+            super("TopK Worker");
+            this.slice = slice;
+            heap = createHeap();
+        }
+
+        /**
+         * Selects the best elements of the slice.
+         */
+        public void run() {
+            try {
+                for (Iterator it = slice.iterator(); it.hasNext();) {
+                    heap.pushBounded(it.next(), k);
+                }
+            } catch (Throwable t) {
+                failure = t;
+            }
+        }
+    }
+}
+/*
+ * $Log$
+ */
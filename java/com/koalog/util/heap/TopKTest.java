@@ -0,0 +1,171 @@
+package com.koalog.util.heap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import junit.framework.TestCase;
+import org.apache.log4j.Category;
+
+/**
+ * Tests the TopK class.
+ * @author Yan Georget
+ */
+public class TopKTest extends TestCase {
+    //------------------------------------------------------------------------
+    // CONSTANTS
+    //------------------------------------------------------------------------
+    private static Category cat = Category.getInstance(TopKTest.class);
+
+    //------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //------------------------------------------------------------------------
+    /**
+     * Sole constructor.
+     * @param name a name
+     */
+    public TopKTest(String name) {
+        super(name);
+    }
+
+    //------------------------------------------------------------------------
+    // METHODS
+    //------------------------------------------------------------------------
+    /**
+     * Tests add, getThreshold and toList.
+     */
+    public void testTopK() {
+        TopK top = new IntegerTopK(3);
+        int[] values = new int[] {5, 3, 9, 1, 7, 3, 8, 2, 6, 0};
+        for (int i=0; i<values.length; i++) {
+            top.add(new Integer(values[i]));
+            if (i == 1) {
+                assertEquals(null, top.getThreshold());
+            }
+        }
+        assertEquals(3, top.size());
+        assertEquals(new Integer(2), top.getThreshold());
+        assertFalse(top.add(new Integer(4)));
+        assertTrue(top.add(new Integer(-1)));
+        List expected = Arrays.asList(new Integer[] {new Integer(-1),
+                                                     new Integer(0),
+                                                     new Integer(1)});
+        assertEquals(expected, top.toList());
+        // toList does not modify the selection
+        assertEquals(expected, top.toList());
+        top.clear();
+        assertEquals(0, top.size());
+    }
+
+    /**
+     * Tests that the parallel selection equals the sequential one.
+     */
+    public void testParallel() {
+        final int n = 100000;
+        final int k = 50;
+        List list = randomList(n);
+        TopK seq = new IntegerTopK(k);
+        seq.addAll(list.iterator());
+        for (int threads=1; threads<=4; threads++) {
+            TopK par = new IntegerTopK(k);
+            par.addAll(list, threads);
+            assertEquals(seq.toList(), par.toList());
+        }
+        TopK small = new IntegerTopK(k);
+        small.addAll(list.subList(0, 3), 4);
+        assertEquals(3, small.size());
+    }
+
+    /**
+     * Tests that a failed parallel selection leaves the selection unchanged
+     * and throws the error of the failed thread.
+     */
+    public void testFailure() {
+        final int k = 50;
+        final Error error = new Error();
+        TopK top = new IntegerTopK(k) {
+                public boolean smaller(Object i, Object j) {
+                    if (((Integer) i).intValue() == -1 
+                        || ((Integer) j).intValue() == -1) {
+                        throw error;
+                    }
+                    return super.smaller(i, j);
+                }
+            };
+        top.addAll(randomList(100).iterator());
+        List expected = top.toList();
+        List list = randomList(10000);
+        // the last slice fails
+        list.set(9999, new Integer(-1));
+        try {
+            top.addAll(list, 4);
+            fail();
+        } catch (Error e) {
+            assertSame(error, e);
+        }
+        assertEquals(expected, top.toList());
+    }
+
+    /**
+     * Compares the sequential and parallel selections 
+     * with a sort of all the elements.
+     */
+    public void testBigTopK() {
+        final int n = 2000000;
+        final int k = 1000;
+        List list = randomList(n);
+        long time = System.currentTimeMillis();
+        Object[] a = list.toArray();
+        Arrays.sort(a);
+        cat.info("sort: " + (System.currentTimeMillis() - time) + "ms");
+        time = System.currentTimeMillis();
+        TopK seq = new IntegerTopK(k);
+        seq.addAll(list.iterator());
+        cat.info("TopK: " + (System.currentTimeMillis() - time) + "ms");
+        time = System.currentTimeMillis();
+        TopK par = new IntegerTopK(k);
+        par.addAll(list, 4);
+        cat.info("TopK (4 threads): " 
+                 + (System.currentTimeMillis() - time) + "ms");
+        assertEquals(Arrays.asList(a).subList(0, k), seq.toList());
+        assertEquals(seq.toList(), par.toList());
+    }
+
+    private static List randomList(int n) {
+        Random r = new Random(0);
+        List list = new ArrayList(n);
+        for (int i=0; i<n; i++) {
+            list.add(new Integer(r.nextInt()));
+        }
+        return list;
+    }
+
+    //------------------------------------------------------------------------
+    // INNER CLASSES
+    //------------------------------------------------------------------------
+    /**
+     * A selection of the smallest integers.
+     */
+    static class IntegerTopK extends TopK {
+        /**
+         * Sole constructor.
+         * @param k the number of integers to be selected
+         */
+        public IntegerTopK(int k) {
+            super(k);
+        }
+
+        /**
+         * Compares two integers.
+         * @param i an integer
+         * @param j an integer
+         * @return a boolean
+         */
+        public boolean smaller(Object i, Object j) {
+            return ((Integer) i).intValue() < ((Integer) j).intValue();
+        }
+    }
+}
+/*
+ * $Log$
+ */